@@ -0,0 +1,117 @@
+package com.wtg.mohanbootcamp.benchmark;
+
+import com.wtg.mohanbootcamp.EmployeeDepartmentApiApplication;
+import com.wtg.mohanbootcamp.persistence.Department;
+import com.wtg.mohanbootcamp.persistence.Employee;
+import com.wtg.mohanbootcamp.service.DepartmentService;
+import com.wtg.mohanbootcamp.service.EmployeeImportResult;
+import com.wtg.mohanbootcamp.service.EmployeeImportRowResult;
+import com.wtg.mohanbootcamp.service.EmployeeImportService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Starts the application against a fresh in-memory H2 database built from the Liquibase changelogs and seeds it
+ * with {@code employees} employees spread over {@link #DEPARTMENT_COUNT} departments.
+ */
+@State(Scope.Benchmark)
+public class ApplicationState {
+
+    public static final int DEPARTMENT_COUNT = 20;
+
+    private static final long SEED = 42L;
+
+    @Param({"1000", "100000", "1000000"})
+    public int employees;
+
+    public ConfigurableApplicationContext context;
+
+    public long[] employeeIds;
+
+    public long[] departmentIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(EmployeeDepartmentApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(properties().stream().map(property -> "--" + property).toArray(String[]::new));
+        seedDepartments();
+        seedEmployees();
+    }
+
+    /**
+     * Application properties of the benchmark context, passed as command line arguments so that they override
+     * application.properties. Benchmarks needing a different configuration extend them.
+     */
+    protected List<String> properties() {
+        return List.of(
+                "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                "spring.h2.console.enabled=false",
+                "logging.level.root=WARN");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    private void seedDepartments() {
+        DepartmentService departmentService = bean(DepartmentService.class);
+        departmentIds = new long[DEPARTMENT_COUNT];
+        for (int i = 0; i < DEPARTMENT_COUNT; i++) {
+            Department department = Department.builder().name("Department " + i).readOnly(Boolean.FALSE).mandatory(Boolean.FALSE).build();
+            departmentIds[i] = departmentService.createDepartment(department).getId();
+        }
+    }
+
+    private void seedEmployees() {
+        Random random = new Random(SEED);
+        Iterator<Employee> generator = new Iterator<>() {
+            private int generated;
+
+            @Override
+            public boolean hasNext() {
+                return generated < employees;
+            }
+
+            @Override
+            public Employee next() {
+                generated++;
+                return newEmployee(random, "Seed" + generated);
+            }
+        };
+        EmployeeImportResult result = bean(EmployeeImportService.class).importEmployees(generator);
+        employeeIds = result.getResults().stream().map(EmployeeImportRowResult::getId).filter(Objects::nonNull).mapToLong(Long::longValue).toArray();
+        if (employeeIds.length != employees) {
+            throw new IllegalStateException("Seeded " + employeeIds.length + " of " + employees + " employees");
+        }
+    }
+
+    /**
+     * New, unsaved employee in one to three random departments.
+     */
+    public Employee newEmployee(Random random, String nameFirst) {
+        Set<Department> departments = new HashSet<>();
+        int departmentCount = 1 + random.nextInt(3);
+        while (departments.size() < departmentCount) {
+            long departmentId = departmentIds[random.nextInt(departmentIds.length)];
+            if (departments.stream().noneMatch(department -> department.getId() == departmentId)) {
+                departments.add(Department.builder().id(departmentId).build());
+            }
+        }
+        return Employee.builder().nameFirst(nameFirst).nameLast("Benchmark").departments(departments).build();
+    }
+}
@@ -0,0 +1,94 @@
+package com.wtg.mohanbootcamp.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares a JMH JSON result file with a baseline and exits with status 1 when a benchmark's score or normalized
+ * allocation rate ({@code -prof gc}) regressed by more than the threshold percentage (default 10).
+ * <p>
+ * Usage: {@code BaselineComparison <baseline.json> <result.json> [thresholdPercent]}
+ */
+public final class BaselineComparison {
+
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    private BaselineComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparison <baseline.json> <result.json> [thresholdPercent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, JsonNode> baseline = index(objectMapper.readTree(new File(args[0])));
+        Map<String, JsonNode> current = index(objectMapper.readTree(new File(args[1])));
+
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("NEW        %s%n", entry.getKey());
+                continue;
+            }
+            JsonNode after = entry.getValue();
+            boolean higherIsBetter = "thrpt".equals(after.path("mode").asText());
+            double scoreChange = change(before.path("primaryMetric").path("score").asDouble(), after.path("primaryMetric").path("score").asDouble(), higherIsBetter);
+            Double allocationChange = allocation(before) == null || allocation(after) == null
+                    ? null : change(allocation(before), allocation(after), false);
+
+            boolean regressed = scoreChange < -threshold || (allocationChange != null && allocationChange < -threshold);
+            regressions += regressed ? 1 : 0;
+            System.out.printf("%-10s %s score %+.1f%%%s%n", regressed ? "REGRESSED" : "OK", entry.getKey(), scoreChange,
+                    allocationChange == null ? "" : String.format(", allocation %+.1f%%", allocationChange));
+        }
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.1f%%%n", regressions, threshold);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> indexed = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+            Iterator<Map.Entry<String, JsonNode>> params = result.path("params").fields();
+            while (params.hasNext()) {
+                Map.Entry<String, JsonNode> param = params.next();
+                key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            indexed.put(key.toString(), result);
+        }
+        return indexed;
+    }
+
+    private static Double allocation(JsonNode result) {
+        Iterator<Map.Entry<String, JsonNode>> metrics = result.path("secondaryMetrics").fields();
+        while (metrics.hasNext()) {
+            Map.Entry<String, JsonNode> metric = metrics.next();
+            if (metric.getKey().endsWith(ALLOCATION_METRIC)) {
+                return metric.getValue().path("score").asDouble();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Relative change in percent, positive when the result improved.
+     */
+    private static double change(double before, double after, boolean higherIsBetter) {
+        if (before == 0) {
+            return 0;
+        }
+        double change = (after - before) / before * 100;
+        return higherIsBetter ? change : -change;
+    }
+}
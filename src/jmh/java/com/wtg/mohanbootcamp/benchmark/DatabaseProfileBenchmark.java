@@ -0,0 +1,145 @@
+package com.wtg.mohanbootcamp.benchmark;
+
+import com.wtg.mohanbootcamp.EmployeeDepartmentApiApplication;
+import com.wtg.mohanbootcamp.persistence.Employee;
+import com.wtg.mohanbootcamp.service.EmployeeImportService;
+import com.wtg.mohanbootcamp.service.EmployeeService;
+import com.wtg.mohanbootcamp.service.EmployeeView;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * The in-memory database against the file backed {@code prod} profile: startup time, and steady-state throughput
+ * of the employee service. A {@code memory} start creates an empty database and replays every changeset; a
+ * {@code file} start opens the database seeded by the first start, with Liquibase skipped when the changelogs are
+ * unchanged ({@code file}) or run to validate them ({@code file-validated}).
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.args="DatabaseProfileBenchmark -p employees=100000"}.
+ */
+@Fork(1)
+public class DatabaseProfileBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Startup {
+
+        @Param({"memory", "file", "file-validated"})
+        public String database;
+
+        @Param({"100000"})
+        public int employees;
+
+        public Path dataDir;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            dataDir = Files.createTempDirectory("empdept-benchmark");
+            if (!"memory".equals(database)) {
+                try (ConfigurableApplicationContext context = start()) {
+                    context.getBean(EmployeeImportService.class).importEmployees(IntStream.range(0, employees)
+                            .mapToObj(i -> Employee.builder().nameFirst("Seed" + i).nameLast("Benchmark").build())
+                            .iterator());
+                }
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            FileSystemUtils.deleteRecursively(dataDir);
+        }
+
+        public ConfigurableApplicationContext start() {
+            List<String> properties = new ArrayList<>(List.of("--spring.h2.console.enabled=false", "--logging.level.root=WARN"));
+            if ("memory".equals(database)) {
+                properties.add("--spring.datasource.url=jdbc:h2:mem:startup");
+            } else {
+                properties.add("--spring.profiles.active=prod");
+                properties.add("--app.data.dir=" + dataDir);
+                properties.add("--app.liquibase.skip-unchanged=" + "file".equals(database));
+            }
+            return new SpringApplicationBuilder(EmployeeDepartmentApiApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .run(properties.toArray(String[]::new));
+        }
+    }
+
+    public static class ProfileApplicationState extends ApplicationState {
+
+        @Param({"memory", "file"})
+        public String database;
+
+        public Path dataDir;
+
+        @Override
+        protected List<String> properties() {
+            if ("memory".equals(database)) {
+                return super.properties();
+            }
+            try {
+                dataDir = Files.createTempDirectory("empdept-benchmark");
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return List.of("spring.profiles.active=prod", "app.data.dir=" + dataDir, "logging.level.root=WARN");
+        }
+
+        @TearDown(Level.Trial)
+        public void deleteDataDir() throws IOException {
+            if (dataDir != null) {
+                FileSystemUtils.deleteRecursively(dataDir);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        public final Random random = new Random();
+
+        public EmployeeService employeeService;
+
+        @Setup(Level.Trial)
+        public void setUp(ProfileApplicationState application) {
+            employeeService = application.bean(EmployeeService.class);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public void startApplication(Startup startup) {
+        startup.start().close();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @Threads(4)
+    public Employee createEmployee(ProfileApplicationState application, ThreadState state) {
+        return state.employeeService.createEmployee(application.newEmployee(state.random, "Created"));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @Threads(4)
+    public EmployeeView getEmployee(ProfileApplicationState application, ThreadState state) {
+        return state.employeeService.getEmployeeView(application.employeeIds[state.random.nextInt(application.employeeIds.length)]);
+    }
+}
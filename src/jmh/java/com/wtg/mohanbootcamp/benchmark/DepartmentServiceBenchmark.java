@@ -0,0 +1,51 @@
+package com.wtg.mohanbootcamp.benchmark;
+
+import com.wtg.mohanbootcamp.persistence.Department;
+import com.wtg.mohanbootcamp.service.DepartmentService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DepartmentServiceBenchmark {
+
+    /**
+     * One in {@code MEMBER_STRIDE} employees belongs to the department being deleted.
+     */
+    private static final int MEMBER_STRIDE = 10;
+
+    @State(Scope.Thread)
+    public static class DepartmentToDelete {
+
+        public DepartmentService departmentService;
+
+        public JdbcTemplate jdbcTemplate;
+
+        public Long id;
+
+        private int sequence;
+
+        @Setup(Level.Trial)
+        public void setUpTrial(ApplicationState application) {
+            departmentService = application.bean(DepartmentService.class);
+            jdbcTemplate = application.bean(JdbcTemplate.class);
+        }
+
+        @Setup(Level.Invocation)
+        public void setUpInvocation() {
+            Department department = Department.builder().name("Deleted " + sequence++).readOnly(Boolean.FALSE).mandatory(Boolean.FALSE).build();
+            id = departmentService.createDepartment(department).getId();
+            jdbcTemplate.update("INSERT INTO MAP_EMPLOYEE_DEPARTMENT (ID_EMPLOYEE, ID_DEPARTMENT) SELECT ID, ? FROM EMPLOYEE WHERE MOD(ID, ?) = 0", id, MEMBER_STRIDE);
+        }
+    }
+
+    @Benchmark
+    public Boolean deleteDepartment(DepartmentToDelete department) {
+        return department.departmentService.deleteDepartment(department.id);
+    }
+}
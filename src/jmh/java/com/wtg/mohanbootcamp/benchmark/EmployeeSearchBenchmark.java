@@ -0,0 +1,79 @@
+package com.wtg.mohanbootcamp.benchmark;
+
+import com.wtg.mohanbootcamp.service.EmployeeSearchIndex;
+import com.wtg.mohanbootcamp.service.EmployeeService;
+import com.wtg.mohanbootcamp.service.EmployeeView;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typeahead search against the database indexes and against the in-memory {@link EmployeeSearchIndex}. Seeded first
+ * names are {@code Seed1} to {@code Seed<employees>}, so a prefix with more digits matches fewer employees.
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.args="EmployeeSearchBenchmark -p employees=1000000"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeSearchBenchmark {
+
+    private static final int LIMIT = 20;
+
+    public static class SearchApplicationState extends ApplicationState {
+
+        @Param({"false", "true"})
+        public boolean searchIndex;
+
+        @Override
+        protected List<String> properties() {
+            List<String> properties = new ArrayList<>(super.properties());
+            properties.add("app.employee.search.index.enabled=" + searchIndex);
+            return properties;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        public final Random random = new Random();
+
+        public EmployeeService employeeService;
+
+        @Setup(Level.Trial)
+        public void setUp(SearchApplicationState application) {
+            employeeService = application.bean(EmployeeService.class);
+        }
+
+        public String prefix(int digits) {
+            int lowest = (int) Math.pow(10, digits - 1);
+            return "Seed" + (lowest + random.nextInt(9 * lowest));
+        }
+    }
+
+    @Benchmark
+    public List<EmployeeView> searchByName(ThreadState state) {
+        return state.employeeService.searchEmployees(state.prefix(4), null, LIMIT);
+    }
+
+    @Benchmark
+    public List<EmployeeView> searchByShortName(ThreadState state) {
+        return state.employeeService.searchEmployees(state.prefix(1), null, LIMIT);
+    }
+
+    @Benchmark
+    public List<EmployeeView> searchByNameInDepartment(SearchApplicationState application, ThreadState state) {
+        long departmentId = application.departmentIds[state.random.nextInt(application.departmentIds.length)];
+        return state.employeeService.searchEmployees(state.prefix(2), departmentId, LIMIT);
+    }
+
+    @Benchmark
+    public List<EmployeeView> searchByDepartment(SearchApplicationState application, ThreadState state) {
+        long departmentId = application.departmentIds[state.random.nextInt(application.departmentIds.length)];
+        return state.employeeService.searchEmployees(null, departmentId, LIMIT);
+    }
+}
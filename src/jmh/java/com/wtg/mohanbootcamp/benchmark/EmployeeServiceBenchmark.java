@@ -0,0 +1,57 @@
+package com.wtg.mohanbootcamp.benchmark;
+
+import com.wtg.mohanbootcamp.persistence.Employee;
+import com.wtg.mohanbootcamp.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeServiceBenchmark {
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        public final Random random = new Random();
+
+        public EmployeeService employeeService;
+
+        @Setup(Level.Trial)
+        public void setUp(ApplicationState application) {
+            employeeService = application.bean(EmployeeService.class);
+        }
+    }
+
+    @Benchmark
+    public Employee createEmployee(ApplicationState application, ThreadState state) {
+        return state.employeeService.createEmployee(application.newEmployee(state.random, "Created"));
+    }
+
+    @Benchmark
+    public Employee updateEmployee(ApplicationState application, ThreadState state) {
+        Employee employee = application.newEmployee(state.random, "Updated");
+        employee.setId(application.employeeIds[state.random.nextInt(application.employeeIds.length)]);
+        return state.employeeService.updateEmployee(employee);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Employee> getAllEmployees(ThreadState state) {
+        return state.employeeService.getAllEmployees();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void streamAllEmployees(ThreadState state, Blackhole blackhole) {
+        state.employeeService.streamAllEmployees(blackhole::consume);
+    }
+}
@@ -0,0 +1,82 @@
+package com.wtg.mohanbootcamp.benchmark;
+
+import com.wtg.mohanbootcamp.persistence.Employee;
+import com.wtg.mohanbootcamp.persistence.EmployeeRepository;
+import com.wtg.mohanbootcamp.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Employee inserts with one sequence call per id ({@code idBlockSize=1}, the allocation before pooled ids) and with
+ * ids allocated from blocks. {@code createEmployees} saves a whole block in one transaction, which Hibernate can only
+ * send as a JDBC batch when it doesn't need a sequence call per entity.
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.args="IdAllocationBenchmark -p employees=1000"}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdAllocationBenchmark {
+
+    private static final int BATCH = 50;
+
+    public static class IdApplicationState extends ApplicationState {
+
+        @Param({"1", "50"})
+        public int idBlockSize;
+
+        @Override
+        protected List<String> properties() {
+            List<String> properties = new ArrayList<>(super.properties());
+            properties.add("app.id.block-size=" + idBlockSize);
+            return properties;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        public final Random random = new Random();
+
+        public EmployeeService employeeService;
+
+        public EmployeeRepository employeeRepository;
+
+        public TransactionTemplate transactionTemplate;
+
+        @Setup(Level.Trial)
+        public void setUp(IdApplicationState application) {
+            employeeService = application.bean(EmployeeService.class);
+            employeeRepository = application.bean(EmployeeRepository.class);
+            transactionTemplate = new TransactionTemplate(application.bean(PlatformTransactionManager.class));
+        }
+    }
+
+    @Benchmark
+    public Employee createEmployee(IdApplicationState application, ThreadState state) {
+        return state.employeeService.createEmployee(application.newEmployee(state.random, "Created"));
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Employee createEmployeeConcurrently(IdApplicationState application, ThreadState state) {
+        return state.employeeService.createEmployee(application.newEmployee(state.random, "Created"));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public List<Employee> createEmployees(IdApplicationState application, ThreadState state) {
+        List<Employee> employees = IntStream.range(0, BATCH)
+                .mapToObj(i -> Employee.builder().nameFirst("Batched").nameLast("Benchmark").build())
+                .toList();
+        return state.transactionTemplate.execute(status -> state.employeeRepository.saveAll(employees));
+    }
+}
@@ -0,0 +1,70 @@
+package com.wtg.mohanbootcamp.benchmark;
+
+import com.wtg.mohanbootcamp.service.DepartmentMembershipIndex;
+import com.wtg.mohanbootcamp.service.EmployeeQueryResult;
+import com.wtg.mohanbootcamp.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Department expressions evaluated on the {@link DepartmentMembershipIndex}, counting only and with a page of ids.
+ * The heap used by the index per million memberships is printed once the employees are seeded:
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.args="MembershipQueryBenchmark -p employees=1000000"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MembershipQueryBenchmark {
+
+    private static final int LIMIT = 100;
+
+    public static class IndexedApplicationState extends ApplicationState {
+
+        @Setup(Level.Trial)
+        public void printMemoryUse() {
+            DepartmentMembershipIndex index = bean(DepartmentMembershipIndex.class);
+            System.out.printf("%n%d memberships in %d KB, %.0f KB per million memberships%n", index.getMemberships(),
+                    index.getSizeInBytes() / 1024, index.getBytesPerMillionMemberships() / 1024);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        public final Random random = new Random();
+
+        public EmployeeService employeeService;
+
+        public long[] departmentIds;
+
+        @Setup(Level.Trial)
+        public void setUp(IndexedApplicationState application) {
+            employeeService = application.bean(EmployeeService.class);
+            departmentIds = application.departmentIds;
+        }
+
+        public long department() {
+            return departmentIds[random.nextInt(departmentIds.length)];
+        }
+    }
+
+    @Benchmark
+    public EmployeeQueryResult countIntersection(ThreadState state) {
+        return state.employeeService.queryEmployees(state.department() + " AND " + state.department(), null, 0);
+    }
+
+    @Benchmark
+    public EmployeeQueryResult countAndOrNot(ThreadState state) {
+        return state.employeeService.queryEmployees(
+                state.department() + " AND (" + state.department() + " OR " + state.department() + ") AND NOT " + state.department(), null, 0);
+    }
+
+    @Benchmark
+    public EmployeeQueryResult pageOfComplement(ThreadState state) {
+        return state.employeeService.queryEmployees("NOT " + state.department(), null, LIMIT);
+    }
+}
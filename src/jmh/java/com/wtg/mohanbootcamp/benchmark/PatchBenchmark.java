@@ -0,0 +1,114 @@
+package com.wtg.mohanbootcamp.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.wtg.mohanbootcamp.persistence.Department;
+import com.wtg.mohanbootcamp.persistence.Employee;
+import com.wtg.mohanbootcamp.persistence.HibernateStatementCounter;
+import com.wtg.mohanbootcamp.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * A last name change and a department change sent as a merge patch against the same change sent as a full PUT. The
+ * PUT of a last name is a read-modify-write, the GET before it is not counted. The Hibernate statements per write are
+ * printed at the end of each trial:
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.args="PatchBenchmark -p employees=100000"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PatchBenchmark {
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        public final Random random = new Random();
+
+        public EmployeeService employeeService;
+
+        public ObjectMapper objectMapper;
+
+        public HibernateStatementCounter hibernateStatementCounter;
+
+        public TransactionTemplate readOnly;
+
+        private long statements;
+
+        private long writes;
+
+        @Setup(Level.Trial)
+        public void setUp(ApplicationState application) {
+            employeeService = application.bean(EmployeeService.class);
+            objectMapper = application.bean(ObjectMapper.class);
+            hibernateStatementCounter = application.bean(HibernateStatementCounter.class);
+            readOnly = new TransactionTemplate(application.bean(PlatformTransactionManager.class));
+            readOnly.setReadOnly(true);
+        }
+
+        @TearDown(Level.Trial)
+        public void printStatements(BenchmarkParams params) {
+            System.out.printf("%n%s: %.2f statements per write%n", params.getBenchmark(), (double) statements / writes);
+        }
+
+        public Long employeeId(ApplicationState application) {
+            return application.employeeIds[random.nextInt(application.employeeIds.length)];
+        }
+
+        public Employee count(Supplier<Employee> write) {
+            hibernateStatementCounter.start();
+            try {
+                return write.get();
+            } finally {
+                statements += hibernateStatementCounter.stop();
+                writes++;
+            }
+        }
+    }
+
+    @Benchmark
+    public Employee patchLastName(ApplicationState application, ThreadState state) {
+        Long id = state.employeeId(application);
+        ObjectNode patch = state.objectMapper.createObjectNode().put("nameLast", "Patched" + state.random.nextInt());
+        return state.count(() -> state.employeeService.patchEmployee(id, patch));
+    }
+
+    @Benchmark
+    public Employee putLastName(ApplicationState application, ThreadState state) {
+        Long id = state.employeeId(application);
+        Employee employee = state.readOnly.execute(status -> {
+            Employee existing = state.employeeService.getEmployeeById(id);
+            return Employee.builder().id(id).nameFirst(existing.getNameFirst())
+                    .nameLast("Put" + state.random.nextInt()).departments(new HashSet<>(existing.getDepartments())).build();
+        });
+        return state.count(() -> state.employeeService.updateEmployee(employee));
+    }
+
+    @Benchmark
+    public Employee patchDepartments(ApplicationState application, ThreadState state) {
+        Long id = state.employeeId(application);
+        ObjectNode patch = state.objectMapper.createObjectNode();
+        ArrayNode departments = patch.putArray("departments");
+        for (Department department : application.newEmployee(state.random, "Patched").getDepartments()) {
+            departments.addObject().put("id", department.getId());
+        }
+        return state.count(() -> state.employeeService.patchEmployee(id, patch));
+    }
+
+    @Benchmark
+    public Employee putDepartments(ApplicationState application, ThreadState state) {
+        Employee employee = application.newEmployee(state.random, "Put");
+        employee.setId(state.employeeId(application));
+        return state.count(() -> state.employeeService.updateEmployee(employee));
+    }
+}
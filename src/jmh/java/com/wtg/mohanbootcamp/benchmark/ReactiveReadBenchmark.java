@@ -0,0 +1,129 @@
+package com.wtg.mohanbootcamp.benchmark;
+
+import com.wtg.mohanbootcamp.EmployeeDepartmentApiApplication;
+import com.wtg.mohanbootcamp.persistence.Employee;
+import com.wtg.mohanbootcamp.service.EmployeeImportResult;
+import com.wtg.mohanbootcamp.service.EmployeeImportRowResult;
+import com.wtg.mohanbootcamp.service.EmployeeImportService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Throughput and latency of the blocking reads ({@code /employee}, {@code /department}) and their reactive
+ * counterparts under {@code /reactive}, with far more concurrent clients than Tomcat has request threads. After each
+ * iteration the peak live thread count and the heap in use are printed, so the thread and memory cost of each stack
+ * can be compared alongside the scores:
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.args="ReactiveReadBenchmark -prof gc"}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(256)
+@Fork(1)
+public class ReactiveReadBenchmark {
+
+    private static final int SEEDED_EMPLOYEES = 2_000;
+
+    @State(Scope.Benchmark)
+    public static class Server {
+
+        @Param({"blocking", "reactive"})
+        public String stack;
+
+        public ConfigurableApplicationContext context;
+
+        public HttpClient client;
+
+        public URI baseUri;
+
+        public long[] employeeIds;
+
+        private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            context = new SpringApplicationBuilder(EmployeeDepartmentApiApplication.class)
+                    .run("--server.port=0",
+                            "--spring.datasource.url=jdbc:h2:mem:reactive-" + stack + ";DB_CLOSE_DELAY=-1",
+                            "--spring.h2.console.enabled=false",
+                            "--logging.level.root=WARN");
+            String port = context.getEnvironment().getProperty("local.server.port");
+            baseUri = URI.create("http://localhost:" + port + ("reactive".equals(stack) ? "/reactive/" : "/"));
+            client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+            EmployeeImportResult result = context.getBean(EmployeeImportService.class).importEmployees(IntStream.range(0, SEEDED_EMPLOYEES)
+                    .mapToObj(i -> Employee.builder().nameFirst("Seed" + i).nameLast("Benchmark").build())
+                    .iterator());
+            employeeIds = result.getResults().stream().map(EmployeeImportRowResult::getId).filter(Objects::nonNull).mapToLong(Long::longValue).toArray();
+        }
+
+        @Setup(Level.Iteration)
+        public void resetPeakThreads() {
+            threads.resetPeakThreadCount();
+        }
+
+        @TearDown(Level.Iteration)
+        public void printThreadsAndHeap() {
+            System.out.printf("%n[%s] peak threads %d, live threads %d, heap used %d MB%n", stack, threads.getPeakThreadCount(),
+                    threads.getThreadCount(), memory.getHeapMemoryUsage().getUsed() / (1024 * 1024));
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+
+        public String send(HttpRequest.Builder request) throws IOException, InterruptedException {
+            HttpResponse<String> response = client.send(request.timeout(Duration.ofSeconds(60)).build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException(response.statusCode() + " " + response.body());
+            }
+            return response.body();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+
+        public final Random random = new Random();
+
+        public long randomEmployeeId(Server server) {
+            return server.employeeIds[random.nextInt(server.employeeIds.length)];
+        }
+    }
+
+    @Benchmark
+    public String getEmployee(Server server, Client client) throws Exception {
+        return server.send(HttpRequest.newBuilder(server.baseUri.resolve("employee/" + client.randomEmployeeId(server))).GET());
+    }
+
+    @Benchmark
+    public String getDepartments(Server server) throws Exception {
+        return server.send(HttpRequest.newBuilder(server.baseUri.resolve("department")).header("Accept", "application/json").GET());
+    }
+
+    /**
+     * Both stacks stream NDJSON, the blocking one from a JDBC cursor on the request thread.
+     */
+    @Benchmark
+    public String streamEmployees(Server server) throws Exception {
+        return server.send(HttpRequest.newBuilder(server.baseUri.resolve("employee")).header("Accept", "application/x-ndjson").GET());
+    }
+}
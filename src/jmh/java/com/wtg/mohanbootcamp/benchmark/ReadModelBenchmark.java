@@ -0,0 +1,91 @@
+package com.wtg.mohanbootcamp.benchmark;
+
+import com.wtg.mohanbootcamp.service.EmployeeReadModel;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup cost of the {@link EmployeeReadModel}: a fresh model loaded from the database against one mapped from the
+ * snapshot file. The heap retained by a loaded model and the snapshot size are printed once the employees are seeded:
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.args="ReadModelBenchmark -p employees=1000000 -jvmArgs -Xmx4g"}, the
+ * benchmark context and the fresh models need the heap.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ReadModelBenchmark {
+
+    public static class ReadModelApplicationState extends ApplicationState {
+
+        private final Path snapshot = createSnapshotPath();
+
+        @Override
+        protected List<String> properties() {
+            List<String> properties = new ArrayList<>(super.properties());
+            properties.add("app.employee.read-model.enabled=true");
+            properties.add("app.employee.read-model.snapshot.path=" + snapshot);
+            return properties;
+        }
+
+        @Setup(Level.Trial)
+        public void writeSnapshotAndPrintFootprint() throws IOException {
+            bean(EmployeeReadModel.class).writeSnapshot();
+            MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+            memory.gc();
+            long before = memory.getHeapMemoryUsage().getUsed();
+            EmployeeReadModel model = newReadModel();
+            model.loadFromDatabase();
+            memory.gc();
+            long retained = memory.getHeapMemoryUsage().getUsed() - before;
+            System.out.printf("%n%d employees: read model %d MB heap (%d bytes per employee), snapshot %d MB%n", model.size(),
+                    retained / (1024 * 1024), retained / Math.max(1, model.size()), Files.size(snapshot) / (1024 * 1024));
+        }
+
+        @TearDown(Level.Trial)
+        public void deleteSnapshot() throws IOException {
+            Files.deleteIfExists(snapshot);
+            Files.deleteIfExists(snapshot.getParent());
+        }
+
+        /**
+         * Not registered with the context, so it neither receives events nor writes the snapshot at shutdown.
+         */
+        public EmployeeReadModel newReadModel() {
+            return context.getAutowireCapableBeanFactory().createBean(EmployeeReadModel.class);
+        }
+
+        private static Path createSnapshotPath() {
+            try {
+                return Files.createTempDirectory("read-model").resolve("read-model.snapshot");
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    @Benchmark
+    public EmployeeReadModel loadFromDatabase(ReadModelApplicationState application) {
+        EmployeeReadModel model = application.newReadModel();
+        model.loadFromDatabase();
+        return model;
+    }
+
+    @Benchmark
+    public EmployeeReadModel loadFromSnapshot(ReadModelApplicationState application) {
+        EmployeeReadModel model = application.newReadModel();
+        if (!model.loadFromSnapshot()) {
+            throw new IllegalStateException("Snapshot was not loaded");
+        }
+        return model;
+    }
+}
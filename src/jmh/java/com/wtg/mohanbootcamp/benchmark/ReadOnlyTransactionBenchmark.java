@@ -0,0 +1,107 @@
+package com.wtg.mohanbootcamp.benchmark;
+
+import com.wtg.mohanbootcamp.persistence.Employee;
+import com.wtg.mohanbootcamp.persistence.EmployeeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A page of employees with their departments loaded in a read-only transaction against a read-write one, which keeps
+ * a snapshot of every loaded entity and dirty checks them all at commit. The replica pool is a second pool on the
+ * benchmark database; the connections each pool handed out after seeding are printed at the end of the trial. Run
+ * with {@code -prof gc} for the allocation per page:
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.args="ReadOnlyTransactionBenchmark -p employees=100000 -prof gc"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadOnlyTransactionBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    public static class ReplicaApplicationState extends ApplicationState {
+
+        @Override
+        protected List<String> properties() {
+            List<String> properties = new ArrayList<>(super.properties());
+            properties.add("spring.datasource.hikari.pool-name=primary");
+            properties.add("app.datasource.replica.enabled=true");
+            properties.add("app.datasource.replica.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1");
+            return properties;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        public final Random random = new Random();
+
+        public EmployeeRepository employeeRepository;
+
+        public TransactionTemplate readOnly;
+
+        public TransactionTemplate readWrite;
+
+        public MeterRegistry meterRegistry;
+
+        public long[] employeeIds;
+
+        private long primaryBefore;
+
+        private long replicaBefore;
+
+        @Setup(Level.Trial)
+        public void setUp(ReplicaApplicationState application) {
+            employeeRepository = application.bean(EmployeeRepository.class);
+            readWrite = new TransactionTemplate(application.bean(PlatformTransactionManager.class));
+            readOnly = new TransactionTemplate(application.bean(PlatformTransactionManager.class));
+            readOnly.setReadOnly(true);
+            meterRegistry = application.bean(MeterRegistry.class);
+            employeeIds = application.employeeIds;
+            primaryBefore = acquired("primary");
+            replicaBefore = acquired("replica");
+        }
+
+        @TearDown(Level.Trial)
+        public void printConnections() {
+            System.out.printf("%nConnections handed out after seeding: primary %d, replica %d%n",
+                    acquired("primary") - primaryBefore, acquired("replica") - replicaBefore);
+        }
+
+        public List<Long> page() {
+            int from = random.nextInt(employeeIds.length - PAGE_SIZE);
+            List<Long> ids = new ArrayList<>(PAGE_SIZE);
+            for (int i = from; i < from + PAGE_SIZE; i++) {
+                ids.add(employeeIds[i]);
+            }
+            return ids;
+        }
+
+        private long acquired(String pool) {
+            Timer acquire = meterRegistry.find("hikaricp.connections.acquire").tag("pool", pool).timer();
+            return acquire == null ? 0 : acquire.count();
+        }
+    }
+
+    @Benchmark
+    public List<Employee> readOnlyTransaction(ThreadState state) {
+        List<Long> ids = state.page();
+        return state.readOnly.execute(status -> state.employeeRepository.findWithDepartmentsByIdInOrderByIdAsc(ids));
+    }
+
+    @Benchmark
+    public List<Employee> readWriteTransaction(ThreadState state) {
+        List<Long> ids = state.page();
+        return state.readWrite.execute(status -> state.employeeRepository.findWithDepartmentsByIdInOrderByIdAsc(ids));
+    }
+}
@@ -0,0 +1,92 @@
+package com.wtg.mohanbootcamp.benchmark;
+
+import com.wtg.mohanbootcamp.api.StreamingFormats;
+import com.wtg.mohanbootcamp.service.DepartmentView;
+import com.wtg.mohanbootcamp.service.EmployeeView;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialization time and bytes on the wire of the bulk employee read in each streaming format, optionally gzipped
+ * as the servlet container would. Run with {@code -prof gc} for the allocation per 10k employees:
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.args="ResponseFormatBenchmark -prof gc"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseFormatBenchmark {
+
+    @Param({"10000"})
+    public int employees;
+
+    @Param({"application/json", "application/x-ndjson", "application/x-jackson-smile", "application/cbor"})
+    public String format;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private StreamingFormats streamingFormats;
+
+    private MediaType mediaType;
+
+    private List<EmployeeView> employeeViewList;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        streamingFormats = new StreamingFormats(Jackson2ObjectMapperBuilder.json().build());
+        mediaType = MediaType.parseMediaType(format);
+        List<DepartmentView> departments = new ArrayList<>();
+        for (long i = 1; i <= ApplicationState.DEPARTMENT_COUNT; i++) {
+            departments.add(new DepartmentView(i, "Department " + i, Boolean.FALSE, i == 1));
+        }
+        employeeViewList = new ArrayList<>(employees);
+        for (long i = 1; i <= employees; i++) {
+            DepartmentView other = departments.get((int) (i % departments.size()));
+            List<DepartmentView> memberOf = other.getId() == 1 ? List.of(other) : List.of(departments.get(0), other);
+            employeeViewList.add(new EmployeeView(i, "First" + i, "Last" + i, 0L, memberOf));
+        }
+    }
+
+    /**
+     * Prints the bytes on the wire of one response, which don't vary between operations.
+     */
+    @TearDown(Level.Trial)
+    public void printBytes() throws IOException {
+        System.out.printf("%n%s gzip=%s: %d bytes per %d employees%n", format, gzip, writeEmployees(), employees);
+    }
+
+    @Benchmark
+    public long writeEmployees() throws IOException {
+        CountingOutputStream counting = new CountingOutputStream();
+        OutputStream outputStream = gzip ? new GZIPOutputStream(counting, 8192) : counting;
+        streamingFormats.write(mediaType, EmployeeView.class, employeeViewList::forEach, outputStream);
+        outputStream.close();
+        return counting.count;
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
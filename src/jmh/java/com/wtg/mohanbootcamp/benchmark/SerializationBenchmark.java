@@ -0,0 +1,72 @@
+package com.wtg.mohanbootcamp.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wtg.mohanbootcamp.persistence.Department;
+import com.wtg.mohanbootcamp.persistence.Employee;
+import com.wtg.mohanbootcamp.service.EmployeeView;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of in-memory employee and department graphs, written to a discarding stream so the
+ * measurement covers serialization only.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int employees;
+
+    private ObjectMapper objectMapper;
+
+    private List<Department> departmentList;
+
+    private List<Employee> employeeList;
+
+    private List<EmployeeView> employeeViewList;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        departmentList = new ArrayList<>();
+        for (long i = 1; i <= ApplicationState.DEPARTMENT_COUNT; i++) {
+            departmentList.add(Department.builder().id(i).name("Department " + i).readOnly(Boolean.FALSE).mandatory(i == 1).build());
+        }
+        employeeList = new ArrayList<>(employees);
+        for (long i = 1; i <= employees; i++) {
+            Set<Department> departments = new HashSet<>();
+            departments.add(departmentList.get(0));
+            departments.add(departmentList.get((int) (i % departmentList.size())));
+            employeeList.add(Employee.builder().id(i).nameFirst("First" + i).nameLast("Last" + i).departments(departments).build());
+        }
+        employeeViewList = employeeList.stream().map(EmployeeView::from).toList();
+    }
+
+    @Benchmark
+    public void serializeEmployees() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), employeeList);
+    }
+
+    @Benchmark
+    public void serializeEmployeeViews() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), employeeViewList);
+    }
+
+    @Benchmark
+    public void serializeDepartments() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), departmentList);
+    }
+}
@@ -0,0 +1,144 @@
+package com.wtg.mohanbootcamp.benchmark;
+
+import com.wtg.mohanbootcamp.EmployeeDepartmentApiApplication;
+import com.wtg.mohanbootcamp.persistence.Employee;
+import com.wtg.mohanbootcamp.service.EmployeeImportResult;
+import com.wtg.mohanbootcamp.service.EmployeeImportRowResult;
+import com.wtg.mohanbootcamp.service.EmployeeImportService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * Throughput and latency percentiles of the employee CRUD endpoints with requests served on Tomcat's platform thread
+ * pool and on virtual threads. Many more client threads than connections in the pool, so requests block on JDBC.
+ * The {@code virtual} mode needs the benchmark to run on Java 21 or later, the build's Java 17 only runs
+ * {@code platform}: {@code mvn -Pjmh test-compile exec:exec -Djmh.args="ThreadingModeBenchmark -prof gc"}, with
+ * {@code -p threading=platform} on Java 17.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(64)
+@Fork(1)
+public class ThreadingModeBenchmark {
+
+    private static final int SEEDED_EMPLOYEES = 10_000;
+
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+    @State(Scope.Benchmark)
+    public static class Server {
+
+        @Param({"platform", "virtual"})
+        public String threading;
+
+        public ConfigurableApplicationContext context;
+
+        public HttpClient client;
+
+        public URI baseUri;
+
+        public long[] employeeIds;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            boolean virtual = "virtual".equals(threading);
+            if (virtual && Runtime.version().feature() < 21) {
+                throw new IllegalStateException("Virtual threads need Java 21, running on " + Runtime.version());
+            }
+            context = new SpringApplicationBuilder(EmployeeDepartmentApiApplication.class)
+                    .run("--server.port=0",
+                            "--spring.threads.virtual.enabled=" + virtual,
+                            "--spring.datasource.url=jdbc:h2:mem:threading-" + threading + ";DB_CLOSE_DELAY=-1",
+                            "--spring.h2.console.enabled=false",
+                            "--logging.level.root=WARN");
+            baseUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/employee");
+            client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+            seedEmployees();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+
+        private void seedEmployees() {
+            EmployeeImportResult result = context.getBean(EmployeeImportService.class).importEmployees(IntStream.range(0, SEEDED_EMPLOYEES)
+                    .mapToObj(i -> Employee.builder().nameFirst("Seed" + i).nameLast("Benchmark").build())
+                    .iterator());
+            employeeIds = result.getResults().stream().map(EmployeeImportRowResult::getId).filter(Objects::nonNull).mapToLong(Long::longValue).toArray();
+        }
+
+        public String send(HttpRequest.Builder request) throws IOException, InterruptedException {
+            HttpResponse<String> response = client.send(request.timeout(Duration.ofSeconds(60)).build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException(response.statusCode() + " " + response.body());
+            }
+            return response.body();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+
+        public final Random random = new Random();
+
+        public long randomEmployeeId(Server server) {
+            return server.employeeIds[random.nextInt(server.employeeIds.length)];
+        }
+    }
+
+    @Benchmark
+    public String createEmployee(Server server) throws Exception {
+        return server.send(HttpRequest.newBuilder(server.baseUri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"nameFirst\":\"Created\",\"nameLast\":\"Benchmark\"}")));
+    }
+
+    @Benchmark
+    public String getEmployee(Server server, Client client) throws Exception {
+        return server.send(HttpRequest.newBuilder(server.baseUri.resolve("/employee/" + client.randomEmployeeId(server))).GET());
+    }
+
+    @Benchmark
+    public String updateEmployee(Server server, Client client) throws Exception {
+        return server.send(HttpRequest.newBuilder(server.baseUri)
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString("{\"id\":" + client.randomEmployeeId(server) + ",\"nameFirst\":\"Updated\",\"nameLast\":\"Benchmark\"}")));
+    }
+
+    @Benchmark
+    public String getEmployeePage(Server server) throws Exception {
+        return server.send(HttpRequest.newBuilder(server.baseUri.resolve("/employee?limit=100")).GET());
+    }
+
+    /**
+     * Creates the employee it deletes, so the seeded employees stay in place for the other benchmarks.
+     */
+    @Benchmark
+    public String createAndDeleteEmployee(Server server) throws Exception {
+        String created = server.send(HttpRequest.newBuilder(server.baseUri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"nameFirst\":\"Deleted\",\"nameLast\":\"Benchmark\"}")));
+        Matcher id = ID.matcher(created);
+        if (!id.find()) {
+            throw new IllegalStateException("No id in " + created);
+        }
+        return server.send(HttpRequest.newBuilder(server.baseUri.resolve("/employee/" + id.group(1))).DELETE());
+    }
+}
@@ -0,0 +1,195 @@
+package com.wtg.mohanbootcamp.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The employees and departments the load runs against, and the requests for them. The seeded entities are created
+ * through the API before the run, with each employee in one random seeded department. Names created during the run
+ * carry a per run prefix, so runs against a long-lived database do not collide.
+ */
+final class Dataset {
+
+    private static final String JSON = "application/json";
+
+    private static final int SEED_BATCH_SIZE = 1000;
+
+    private final URI baseUrl;
+
+    private final Duration timeout;
+
+    private final ObjectMapper objectMapper;
+
+    private final String runPrefix = "LT" + Long.toString(System.currentTimeMillis(), 36);
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Queue<Long> createdEmployees = new ConcurrentLinkedQueue<>();
+
+    private final Queue<Long> createdDepartments = new ConcurrentLinkedQueue<>();
+
+    private long[] employeeIds = new long[0];
+
+    private long[] departmentIds = new long[0];
+
+    private List<String> departmentNames = List.of();
+
+    Dataset(URI baseUrl, Duration timeout, ObjectMapper objectMapper) {
+        this.baseUrl = baseUrl;
+        this.timeout = timeout;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Runs before the load threads are started, which then see the seeded ids.
+     */
+    void seed(HttpClient client, int departments, int employees) throws IOException, InterruptedException {
+        departmentIds = new long[departments];
+        departmentNames = new ArrayList<>(departments);
+        for (int i = 0; i < departments; i++) {
+            String name = runPrefix + " Department " + i;
+            ObjectNode department = objectMapper.createObjectNode().put("name", name).put("readOnly", false).put("mandatory", false);
+            departmentIds[i] = send(client, post("/department", department)).path("id").asLong();
+            departmentNames.add(name);
+        }
+
+        employeeIds = new long[employees];
+        for (int from = 0; from < employees; from += SEED_BATCH_SIZE) {
+            StringBuilder body = new StringBuilder();
+            int to = Math.min(from + SEED_BATCH_SIZE, employees);
+            for (int i = from; i < to; i++) {
+                body.append(objectMapper.writeValueAsString(newEmployee())).append('\n');
+            }
+            HttpRequest request = request("/employee/batch")
+                    .header("Content-Type", "application/x-ndjson")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                    .build();
+            JsonNode results = send(client, request).path("results");
+            for (int i = from; i < to; i++) {
+                JsonNode id = results.path(i - from).path("id");
+                if (!id.canConvertToLong()) {
+                    throw new IllegalStateException("Seeding employee " + i + " failed: " + results.path(i - from).path("error").asText());
+                }
+                employeeIds[i] = id.asLong();
+            }
+        }
+    }
+
+    long randomEmployeeId() {
+        return employeeIds[ThreadLocalRandom.current().nextInt(employeeIds.length)];
+    }
+
+    long randomDepartmentId() {
+        return departmentIds[ThreadLocalRandom.current().nextInt(departmentIds.length)];
+    }
+
+    ObjectNode newEmployee() {
+        ObjectNode employee = objectMapper.createObjectNode()
+                .put("nameFirst", runPrefix)
+                .put("nameLast", "Employee " + sequence.incrementAndGet());
+        employee.putArray("departments").addObject().put("id", randomDepartmentId());
+        return employee;
+    }
+
+    ObjectNode updatedEmployee() {
+        ObjectNode employee = newEmployee();
+        employee.put("id", randomEmployeeId());
+        return employee;
+    }
+
+    ObjectNode newDepartment() {
+        return objectMapper.createObjectNode()
+                .put("name", runPrefix + " Department " + sequence.incrementAndGet())
+                .put("readOnly", false)
+                .put("mandatory", false);
+    }
+
+    /**
+     * Keeps the seeded name, department names are unique, and toggles the read-only flag, which a read-only
+     * department may still have cleared. Seeded departments are never made mandatory, new employees would join them.
+     */
+    ObjectNode updatedDepartment() {
+        int index = ThreadLocalRandom.current().nextInt(departmentIds.length);
+        return objectMapper.createObjectNode()
+                .put("id", departmentIds[index])
+                .put("name", departmentNames.get(index))
+                .put("readOnly", ThreadLocalRandom.current().nextBoolean())
+                .put("mandatory", false);
+    }
+
+    void employeeCreated(String body) {
+        createdEmployees.add(readId(body));
+    }
+
+    void departmentCreated(String body) {
+        createdDepartments.add(readId(body));
+    }
+
+    Long pollCreatedEmployee() {
+        return createdEmployees.poll();
+    }
+
+    Long pollCreatedDepartment() {
+        return createdDepartments.poll();
+    }
+
+    HttpRequest get(String path) {
+        return request(path).header("Accept", JSON).GET().build();
+    }
+
+    HttpRequest post(String path, Object body) {
+        return request(path).header("Content-Type", JSON).POST(json(body)).build();
+    }
+
+    HttpRequest put(String path, Object body) {
+        return request(path).header("Content-Type", JSON).PUT(json(body)).build();
+    }
+
+    HttpRequest delete(String path) {
+        return request(path).DELETE().build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(baseUrl.resolve(path)).timeout(timeout);
+    }
+
+    private HttpRequest.BodyPublisher json(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long readId(String body) {
+        try {
+            return objectMapper.readTree(body).path("id").asLong();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private JsonNode send(HttpClient client, HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Seeding request " + request.method() + " " + request.uri() + " failed with "
+                    + response.statusCode() + ": " + response.body());
+        }
+        return objectMapper.readTree(response.body());
+    }
+}
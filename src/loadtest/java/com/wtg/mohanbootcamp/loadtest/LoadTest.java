@@ -0,0 +1,147 @@
+package com.wtg.mohanbootcamp.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open model load generator for the REST API. Seeds a dataset through the API, then sends each {@link Operation} of
+ * the {@link Scenario} at its fixed arrival rate, independently of how fast responses come back, first for the warmup
+ * and then for the measured duration. Writes a JSON summary per operation ({@code loadtest-result.json}) and the
+ * HdrHistogram percentile distribution of each ({@code <operation>.hgrm}) to the result directory, which
+ * {@link SloCheck} compares with the committed limits.
+ * <p>
+ * Usage: {@code LoadTest <baseUrl> <scenario.properties> <resultDirectory> [key=value ...]}
+ */
+public final class LoadTest {
+
+    static final String RESULT_FILE = "loadtest-result.json";
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 3) {
+            System.err.println("Usage: LoadTest <baseUrl> <scenario.properties> <resultDirectory> [key=value ...]");
+            System.exit(2);
+        }
+        URI baseUrl = URI.create(args[0]);
+        Scenario scenario = Scenario.load(Path.of(args[1]), Arrays.copyOfRange(args, 3, args.length));
+        Path resultDirectory = Files.createDirectories(Path.of(args[2]));
+        ObjectMapper objectMapper = new ObjectMapper();
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(scenario.getTimeout())
+                .build();
+
+        Dataset dataset = new Dataset(baseUrl, scenario.getTimeout(), objectMapper);
+        long seedStart = System.nanoTime();
+        dataset.seed(client, scenario.getSeedDepartments(), scenario.getSeedEmployees());
+        System.out.printf("Seeded %d departments and %d employees in %d ms%n", scenario.getSeedDepartments(),
+                scenario.getSeedEmployees(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - seedStart));
+
+        Map<Operation, OperationStats> stats = run(client, dataset, scenario);
+
+        Map<String, Object> operations = new LinkedHashMap<>();
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            String key = entry.getKey().getKey();
+            Map<String, Object> summary = entry.getValue().summarize(scenario.getDuration());
+            operations.put(key, summary);
+            System.out.printf("%-18s %8.1f/s of %6.1f/s  p50 %7.2f ms  p99 %7.2f ms  max %8.2f ms  errors %d  conflicts %d  skipped %d%n",
+                    key, summary.get("throughput"), summary.get("targetRate"), summary.get("p50Ms"), summary.get("p99Ms"),
+                    summary.get("maxMs"), summary.get("errors"), summary.get("conflicts"), summary.get("skipped"));
+            try (PrintStream out = new PrintStream(Files.newOutputStream(resultDirectory.resolve(key + ".hgrm")))) {
+                entry.getValue().writePercentiles(out);
+            }
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("baseUrl", baseUrl.toString());
+        result.put("scenario", scenario.describe());
+        result.put("operations", operations);
+        objectMapper.enable(SerializationFeature.INDENT_OUTPUT).writeValue(resultDirectory.resolve(RESULT_FILE).toFile(), result);
+    }
+
+    /**
+     * One sender thread per operation, all on the same schedule origin. Requests are sent asynchronously, so a slow
+     * response never delays the next arrival.
+     */
+    private static Map<Operation, OperationStats> run(HttpClient client, Dataset dataset, Scenario scenario) throws InterruptedException {
+        long origin = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureFrom = origin + scenario.getWarmup().toNanos();
+        long end = measureFrom + scenario.getDuration().toNanos();
+        AtomicInteger inFlight = new AtomicInteger();
+        Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+        List<Thread> senders = new ArrayList<>();
+        for (Map.Entry<Operation, Double> rate : scenario.getRates().entrySet()) {
+            Operation operation = rate.getKey();
+            OperationStats operationStats = new OperationStats(rate.getValue(), scenario.getTimeout());
+            stats.put(operation, operationStats);
+            long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate.getValue());
+            Thread sender = new Thread(() -> {
+                for (long intended = origin; intended < end; intended += interval) {
+                    long delay = intended - System.nanoTime();
+                    if (delay > 0) {
+                        LockSupport.parkNanos(delay);
+                    }
+                    send(client, dataset, operation, intended, intended >= measureFrom ? operationStats : null, inFlight);
+                }
+            }, "loadtest-" + operation.getKey());
+            sender.start();
+            senders.add(sender);
+        }
+        for (Thread sender : senders) {
+            sender.join();
+        }
+        long drainDeadline = System.nanoTime() + 2 * scenario.getTimeout().toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        return stats;
+    }
+
+    /**
+     * Warmup requests are sent with null stats and not recorded.
+     */
+    private static void send(HttpClient client, Dataset dataset, Operation operation, long intended, OperationStats stats,
+                             AtomicInteger inFlight) {
+        Operation.Call call = operation.prepare(dataset);
+        if (call == null) {
+            if (stats != null) {
+                stats.recordSkipped();
+            }
+            return;
+        }
+        inFlight.incrementAndGet();
+        client.sendAsync(call.request(), HttpResponse.BodyHandlers.ofString()).whenComplete((response, failure) -> {
+            long latency = System.nanoTime() - intended;
+            try {
+                if (stats != null && failure == null) {
+                    stats.record(latency, response.statusCode());
+                } else if (stats != null) {
+                    stats.recordFailure(latency);
+                }
+                if (failure == null && response.statusCode() == 200) {
+                    call.onSuccess().accept(response.body());
+                }
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+    }
+}
@@ -0,0 +1,88 @@
+package com.wtg.mohanbootcamp.loadtest;
+
+import java.net.http.HttpRequest;
+import java.util.function.Consumer;
+
+/**
+ * The CRUD requests of the mix. Reads and updates target the seeded dataset, which is never deleted, deletes take the
+ * employees and departments created during the run, oldest first.
+ */
+enum Operation {
+
+    EMPLOYEE_GET("employee.get") {
+        @Override
+        Call prepare(Dataset dataset) {
+            return Call.of(dataset.get("/employee/" + dataset.randomEmployeeId()));
+        }
+    },
+    EMPLOYEE_CREATE("employee.create") {
+        @Override
+        Call prepare(Dataset dataset) {
+            return new Call(dataset.post("/employee", dataset.newEmployee()), dataset::employeeCreated);
+        }
+    },
+    EMPLOYEE_UPDATE("employee.update") {
+        @Override
+        Call prepare(Dataset dataset) {
+            return Call.of(dataset.put("/employee", dataset.updatedEmployee()));
+        }
+    },
+    EMPLOYEE_DELETE("employee.delete") {
+        @Override
+        Call prepare(Dataset dataset) {
+            Long id = dataset.pollCreatedEmployee();
+            return id == null ? null : Call.of(dataset.delete("/employee/" + id));
+        }
+    },
+    DEPARTMENT_GET("department.get") {
+        @Override
+        Call prepare(Dataset dataset) {
+            return Call.of(dataset.get("/department/" + dataset.randomDepartmentId()));
+        }
+    },
+    DEPARTMENT_CREATE("department.create") {
+        @Override
+        Call prepare(Dataset dataset) {
+            return new Call(dataset.post("/department", dataset.newDepartment()), dataset::departmentCreated);
+        }
+    },
+    DEPARTMENT_UPDATE("department.update") {
+        @Override
+        Call prepare(Dataset dataset) {
+            return Call.of(dataset.put("/department", dataset.updatedDepartment()));
+        }
+    },
+    DEPARTMENT_DELETE("department.delete") {
+        @Override
+        Call prepare(Dataset dataset) {
+            Long id = dataset.pollCreatedDepartment();
+            return id == null ? null : Call.of(dataset.delete("/department/" + id));
+        }
+    };
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    /**
+     * Returns the request to send, or null when there is nothing to act on (no created entity left to delete).
+     */
+    abstract Call prepare(Dataset dataset);
+
+    /**
+     * A request and what to do with the body of its successful response.
+     */
+    record Call(HttpRequest request, Consumer<String> onSuccess) {
+
+        static Call of(HttpRequest request) {
+            return new Call(request, body -> {
+            });
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.wtg.mohanbootcamp.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcomes and latencies of one operation during the measured period. Latency is taken from the intended send time
+ * of the fixed arrival schedule, not from the actual one, so a stalled server is charged for the requests that queued
+ * behind the stall (no coordinated omission). Conflicts (409, 412) are concurrent updates of the same entity, an
+ * expected outcome of the mix that is counted apart from errors.
+ */
+final class OperationStats {
+
+    private final double targetRate;
+
+    private final Histogram latencyMicros;
+
+    private final LongAdder succeeded = new LongAdder();
+
+    private final LongAdder conflicts = new LongAdder();
+
+    private final LongAdder errors = new LongAdder();
+
+    private final LongAdder skipped = new LongAdder();
+
+    OperationStats(double targetRate, Duration timeout) {
+        this.targetRate = targetRate;
+        this.latencyMicros = new ConcurrentHistogram(2 * TimeUnit.NANOSECONDS.toMicros(timeout.toNanos()), 3);
+        this.latencyMicros.setAutoResize(true);
+    }
+
+    void record(long latencyNanos, int status) {
+        latencyMicros.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        if (status >= 200 && status < 300) {
+            succeeded.increment();
+        } else if (status == 409 || status == 412) {
+            conflicts.increment();
+        } else {
+            errors.increment();
+        }
+    }
+
+    void recordFailure(long latencyNanos) {
+        latencyMicros.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        errors.increment();
+    }
+
+    void recordSkipped() {
+        skipped.increment();
+    }
+
+    Map<String, Object> summarize(Duration measured) {
+        long requests = latencyMicros.getTotalCount();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("targetRate", targetRate);
+        summary.put("requests", requests);
+        summary.put("succeeded", succeeded.sum());
+        summary.put("conflicts", conflicts.sum());
+        summary.put("errors", errors.sum());
+        summary.put("skipped", skipped.sum());
+        summary.put("throughput", (succeeded.sum() + conflicts.sum()) / (measured.toNanos() / 1e9));
+        summary.put("errorRate", requests == 0 ? 0.0 : (double) errors.sum() / requests);
+        summary.put("p50Ms", percentileMillis(50));
+        summary.put("p90Ms", percentileMillis(90));
+        summary.put("p99Ms", percentileMillis(99));
+        summary.put("p999Ms", percentileMillis(99.9));
+        summary.put("maxMs", latencyMicros.getMaxValue() / 1000.0);
+        return summary;
+    }
+
+    void writePercentiles(PrintStream out) {
+        latencyMicros.outputPercentileDistribution(out, 1000.0);
+    }
+
+    private double percentileMillis(double percentile) {
+        return latencyMicros.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
@@ -0,0 +1,85 @@
+package com.wtg.mohanbootcamp.loadtest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * A load test run read from a properties file: the dataset seeded before the run, the warmup and measured durations,
+ * and a fixed arrival rate in requests per second for each {@link Operation} ({@code rate.<operation>}). Operations
+ * without a rate are not sent.
+ */
+final class Scenario {
+
+    private final Properties properties;
+
+    private final Map<Operation, Double> rates = new EnumMap<>(Operation.class);
+
+    private Scenario(Properties properties) {
+        this.properties = properties;
+        for (Operation operation : Operation.values()) {
+            double rate = Double.parseDouble(properties.getProperty("rate." + operation.getKey(), "0"));
+            if (rate > 0) {
+                rates.put(operation, rate);
+            }
+        }
+    }
+
+    /**
+     * Overrides are {@code key=value} pairs that replace entries of the file.
+     */
+    static Scenario load(Path file, String... overrides) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        }
+        for (String override : overrides) {
+            int separator = override.indexOf('=');
+            if (separator < 1) {
+                throw new IllegalArgumentException("Scenario override must be key=value: " + override);
+            }
+            properties.setProperty(override.substring(0, separator), override.substring(separator + 1));
+        }
+        return new Scenario(properties);
+    }
+
+    int getSeedDepartments() {
+        return Integer.parseInt(properties.getProperty("seed.departments", "20"));
+    }
+
+    int getSeedEmployees() {
+        return Integer.parseInt(properties.getProperty("seed.employees", "1000"));
+    }
+
+    Duration getWarmup() {
+        return Duration.parse(properties.getProperty("warmup", "PT10S"));
+    }
+
+    Duration getDuration() {
+        return Duration.parse(properties.getProperty("duration", "PT30S"));
+    }
+
+    Duration getTimeout() {
+        return Duration.parse(properties.getProperty("timeout", "PT5S"));
+    }
+
+    Map<Operation, Double> getRates() {
+        return rates;
+    }
+
+    Map<String, Object> describe() {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("seedDepartments", getSeedDepartments());
+        description.put("seedEmployees", getSeedEmployees());
+        description.put("warmup", getWarmup().toString());
+        description.put("duration", getDuration().toString());
+        description.put("timeout", getTimeout().toString());
+        return description;
+    }
+}
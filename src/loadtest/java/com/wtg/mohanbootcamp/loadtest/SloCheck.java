@@ -0,0 +1,79 @@
+package com.wtg.mohanbootcamp.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Compares a {@link LoadTest} result with the committed latency and throughput limits and exits with status 1 when
+ * an operation breaks one of them. Limits are looked up as {@code <operation>.<limit>}, falling back to
+ * {@code default.<limit>}:
+ * <ul>
+ *     <li>{@code p50-ms}, {@code p99-ms}: the highest acceptable percentile latency</li>
+ *     <li>{@code min-throughput-ratio}: the lowest acceptable completed rate as a fraction of the target rate</li>
+ *     <li>{@code max-error-rate}: the highest acceptable fraction of failed requests</li>
+ * </ul>
+ * Usage: {@code SloCheck <slo.properties> <resultDirectory>}
+ */
+public final class SloCheck {
+
+    private SloCheck() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: SloCheck <slo.properties> <resultDirectory>");
+            System.exit(2);
+        }
+        Properties limits = new Properties();
+        try (Reader reader = Files.newBufferedReader(Path.of(args[0]))) {
+            limits.load(reader);
+        }
+        JsonNode operations = new ObjectMapper().readTree(Path.of(args[1]).resolve(LoadTest.RESULT_FILE).toFile()).path("operations");
+
+        int violations = 0;
+        Iterator<Map.Entry<String, JsonNode>> entries = operations.fields();
+        while (entries.hasNext()) {
+            Map.Entry<String, JsonNode> entry = entries.next();
+            String operation = entry.getKey();
+            JsonNode result = entry.getValue();
+            List<String> broken = new ArrayList<>();
+            atMost(broken, "p50", result.path("p50Ms").asDouble(), limit(limits, operation, "p50-ms"), " ms");
+            atMost(broken, "p99", result.path("p99Ms").asDouble(), limit(limits, operation, "p99-ms"), " ms");
+            atMost(broken, "error rate", result.path("errorRate").asDouble(), limit(limits, operation, "max-error-rate"), "");
+            double throughputRatio = result.path("throughput").asDouble() / result.path("targetRate").asDouble();
+            Double minThroughputRatio = limit(limits, operation, "min-throughput-ratio");
+            if (minThroughputRatio != null && throughputRatio < minThroughputRatio) {
+                broken.add(String.format("throughput %.1f%% of target < %.1f%%", 100 * throughputRatio, 100 * minThroughputRatio));
+            }
+            violations += broken.isEmpty() ? 0 : 1;
+            System.out.printf("%-10s %s p50 %.2f ms, p99 %.2f ms, throughput %.1f%% of target%s%n",
+                    broken.isEmpty() ? "OK" : "VIOLATED", operation, result.path("p50Ms").asDouble(), result.path("p99Ms").asDouble(),
+                    100 * throughputRatio, broken.isEmpty() ? "" : ": " + String.join(", ", broken));
+        }
+        if (violations > 0) {
+            System.out.printf("%d operation(s) broke their latency or throughput limits%n", violations);
+            System.exit(1);
+        }
+    }
+
+    private static Double limit(Properties limits, String operation, String name) {
+        String value = limits.getProperty(operation + "." + name, limits.getProperty("default." + name));
+        return value == null ? null : Double.valueOf(value);
+    }
+
+    private static void atMost(List<String> broken, String name, double value, Double limit, String unit) {
+        if (limit != null && value > limit) {
+            broken.add(String.format("%s %.3f%s > %.3f%s", name, value, unit, limit, unit));
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.wtg.mohanbootcamp.api;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Admission control in front of the controllers. Each client has a token bucket for cheap requests and one for
+ * {@link ExpensiveRequest}s, and expensive requests also need one of a bounded number of concurrency permits.
+ * Clients are told apart by remote address, or by a header set by a trusted proxy, and at most
+ * {@code app.admission.max-clients} of them get buckets of their own; the others share an overflow bucket.
+ * Rejections are thrown as {@link TooManyRequestsException}, answered with 429 and {@code Retry-After} by
+ * {@link RestExceptionHandler}. Streamed and long-polled responses keep their permit until they complete.
+ */
+@Component
+@ConditionalOnProperty(name = "app.admission.enabled", havingValue = "true")
+public class AdmissionControlInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".permit";
+
+    private static final Duration CONCURRENCY_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final AdmissionControlProperties properties;
+
+    private final Map<String, TokenBucket> cheapBuckets = new ConcurrentHashMap<>();
+
+    private final Map<String, TokenBucket> expensiveBuckets = new ConcurrentHashMap<>();
+
+    private final TokenBucket cheapOverflow;
+
+    private final TokenBucket expensiveOverflow;
+
+    private final Semaphore expensivePermits;
+
+    private final Counter rateRejections;
+
+    private final Counter concurrencyRejections;
+
+    public AdmissionControlInterceptor(AdmissionControlProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.expensivePermits = new Semaphore(properties.getExpensiveMaxConcurrent());
+        this.cheapOverflow = newBucket(properties.getCheap(), System.nanoTime());
+        this.expensiveOverflow = newBucket(properties.getExpensive(), System.nanoTime());
+        this.rateRejections = Counter.builder("admission.rejections").tag("reason", "rate").register(meterRegistry);
+        this.concurrencyRejections = Counter.builder("admission.rejections").tag("reason", "concurrency").register(meterRegistry);
+        bindBuckets(meterRegistry, "cheap", cheapBuckets);
+        bindBuckets(meterRegistry, "expensive", expensiveBuckets);
+        Gauge.builder("admission.expensive.active", expensivePermits,
+                permits -> properties.getExpensiveMaxConcurrent() - permits.availablePermits()).register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws TooManyRequestsException {
+        if (request.getDispatcherType() != DispatcherType.REQUEST || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        boolean expensive = handlerMethod.hasMethodAnnotation(ExpensiveRequest.class);
+        AdmissionControlProperties.Budget budget = expensive ? properties.getExpensive() : properties.getCheap();
+        Map<String, TokenBucket> buckets = expensive ? expensiveBuckets : cheapBuckets;
+
+        long now = System.nanoTime();
+        long waitNanos = bucketOf(buckets, clientOf(request), budget, expensive ? expensiveOverflow : cheapOverflow, now).tryTake(now);
+        if (waitNanos > 0) {
+            rateRejections.increment();
+            throw new TooManyRequestsException("Request rate limit exceeded, please retry later", Duration.ofNanos(waitNanos));
+        }
+        if (expensive) {
+            if (!expensivePermits.tryAcquire()) {
+                concurrencyRejections.increment();
+                throw new TooManyRequestsException("Too many expensive requests in progress, please retry later", CONCURRENCY_RETRY_AFTER);
+            }
+            request.setAttribute(PERMIT_ATTRIBUTE, Boolean.TRUE);
+        }
+        return true;
+    }
+
+    /**
+     * Runs when the request completes, after the asynchronous part too when there is one.
+     */
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            expensivePermits.release();
+        }
+    }
+
+    /**
+     * Drops the buckets of idle clients, a full bucket is the same as a new one.
+     */
+    @Scheduled(fixedDelayString = "PT1M")
+    public void evictFullBuckets() {
+        long now = System.nanoTime();
+        cheapBuckets.values().removeIf(bucket -> bucket.isFull(now));
+        expensiveBuckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    /**
+     * The size check and the insert are not atomic, so concurrent new clients may exceed the cap by a few buckets.
+     */
+    private TokenBucket bucketOf(Map<String, TokenBucket> buckets, String client, AdmissionControlProperties.Budget budget,
+                                 TokenBucket overflow, long now) {
+        TokenBucket bucket = buckets.get(client);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= properties.getMaxClients()) {
+            return overflow;
+        }
+        return buckets.computeIfAbsent(client, ignored -> newBucket(budget, now));
+    }
+
+    private String clientOf(HttpServletRequest request) {
+        String client = StringUtils.hasText(properties.getClientHeader()) ? request.getHeader(properties.getClientHeader()) : null;
+        return StringUtils.hasText(client) ? client : request.getRemoteAddr();
+    }
+
+    private static TokenBucket newBucket(AdmissionControlProperties.Budget budget, long now) {
+        return new TokenBucket(budget.getRate(), budget.getBurst(), now);
+    }
+
+    private static void bindBuckets(MeterRegistry registry, String budget, Map<String, TokenBucket> buckets) {
+        Gauge.builder("admission.buckets", buckets, Map::size).tag("budget", budget).register(registry);
+        Gauge.builder("admission.buckets.throttled", buckets, AdmissionControlInterceptor::countThrottled)
+                .description("Clients without a token left")
+                .tag("budget", budget)
+                .register(registry);
+    }
+
+    private static long countThrottled(Map<String, TokenBucket> buckets) {
+        long now = System.nanoTime();
+        return buckets.values().stream().filter(bucket -> bucket.availableTokens(now) < 1).count();
+    }
+}
@@ -0,0 +1,49 @@
+package com.wtg.mohanbootcamp.api;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Per-client request budgets, refilled at {@code rate} requests per second up to {@code burst}, for cheap requests
+ * by id and for expensive list and bulk requests, plus the number of expensive requests served at once.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.admission")
+public class AdmissionControlProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Header identifying the client, only to be set when a trusted proxy in front of the application sets it on every
+     * request. Clients are identified by their remote address when it is not set or a request lacks it.
+     */
+    private String clientHeader;
+
+    /**
+     * Clients with buckets of their own per budget. Further clients share one bucket until idle buckets are dropped.
+     */
+    private int maxClients = 10000;
+
+    private Budget cheap = new Budget(100, 200);
+
+    private Budget expensive = new Budget(2, 10);
+
+    private int expensiveMaxConcurrent = 4;
+
+    @Getter
+    @Setter
+    public static class Budget {
+        private double rate;
+        private int burst;
+
+        public Budget() {
+        }
+
+        public Budget(double rate, int burst) {
+            this.rate = rate;
+            this.burst = burst;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.wtg.mohanbootcamp.api;
+
+import com.wtg.mohanbootcamp.service.ChangeFeedService;
+import com.wtg.mohanbootcamp.service.ChangePage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+@RestController()
+@RequestMapping("/changes")
+@RequiredArgsConstructor
+public class ChangeController {
+
+    private static final String DEFAULT_LIMIT = "500";
+
+    private final ChangeFeedService changeFeedService;
+
+    /**
+     * Long-polls for the change events after {@code since}: answers at once when there are any, otherwise holds the
+     * request, without a servlet thread, for up to {@code wait} seconds. Continue from {@code next} of the response.
+     */
+    @GetMapping
+    public CompletableFuture<ChangePage> getChanges(@RequestParam(defaultValue = "0") long since,
+                                                    @RequestParam(defaultValue = DEFAULT_LIMIT) int limit,
+                                                    @RequestParam(defaultValue = "0") int wait) {
+        return changeFeedService.awaitChanges(since, limit, Duration.ofSeconds(wait));
+    }
+}
@@ -1,10 +1,17 @@
 package com.wtg.mohanbootcamp.api;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.wtg.mohanbootcamp.persistence.Department;
+import com.wtg.mohanbootcamp.service.DepartmentMembersResult;
 import com.wtg.mohanbootcamp.service.DepartmentService;
+import com.wtg.mohanbootcamp.service.DepartmentStats;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -15,19 +22,43 @@ public class DepartmentController {
 
     private final DepartmentService departmentService;
 
+    private final StreamingFormats streamingFormats;
+
     @PostMapping
     public Department createDepartment(@RequestBody @NotNull Department department) {
         return departmentService.createDepartment(department);
     }
 
+    @GetMapping("/stats")
+    public DepartmentStats getDepartmentStats() {
+        return departmentService.getDepartmentStats();
+    }
+
+    /**
+     * The department comes from the second-level cache, a matching {@code If-None-Match} answers 304 without
+     * serializing it.
+     */
     @GetMapping("/{id}")
-    public Department getDepartment(@PathVariable @NotNull Long id) {
-        return departmentService.getDepartmentById(id);
+    public ResponseEntity<Department> getDepartment(@PathVariable @NotNull Long id) {
+        Department department = departmentService.getDepartmentById(id);
+        return ResponseEntity.ok().eTag(ETags.of(department.getVersion())).body(department);
     }
 
     @PutMapping
-    public Department updateDepartment(@RequestBody @NotNull Department department) {
-        return departmentService.updateDepartment(department);
+    public ResponseEntity<Department> updateDepartment(@RequestBody @NotNull Department department,
+                                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch != null) {
+            department.setVersion(ETags.parseIfMatch(ifMatch));
+        }
+        Department updatedDepartment = departmentService.updateDepartment(department);
+        return ResponseEntity.ok().eTag(ETags.of(updatedDepartment.getVersion())).body(updatedDepartment);
+    }
+
+    @PatchMapping(path = "/{id}", consumes = MergePatch.APPLICATION_MERGE_PATCH_JSON_VALUE)
+    public ResponseEntity<Department> patchDepartment(@PathVariable @NotNull Long id, @RequestBody @NotNull JsonNode patch,
+                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Department patchedDepartment = departmentService.patchDepartment(id, MergePatch.withIfMatch(patch, ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(patchedDepartment.getVersion())).body(patchedDepartment);
     }
 
     @DeleteMapping("/{id}")
@@ -35,8 +66,31 @@ public class DepartmentController {
         return departmentService.deleteDepartment(id);
     }
 
+    @ExpensiveRequest
+    @PostMapping("/{id}/members")
+    public DepartmentMembersResult addMembers(@PathVariable @NotNull Long id, @RequestBody @NotNull List<Long> employeeIds) {
+        return departmentService.addMembers(id, employeeIds);
+    }
+
+    @ExpensiveRequest
+    @DeleteMapping("/{id}/members")
+    public DepartmentMembersResult removeMembers(@PathVariable @NotNull Long id, @RequestBody @NotNull List<Long> employeeIds) {
+        return departmentService.removeMembers(id, employeeIds);
+    }
+
+    /**
+     * Smile and CBOR are negotiated by the message converters, NDJSON is streamed.
+     */
+    @ExpensiveRequest
     @GetMapping
     public List<Department> getDepartments() {
         return departmentService.getAllDepartments();
     }
+
+    @ExpensiveRequest
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getDepartmentsNdjson() {
+        List<Department> departments = departmentService.getAllDepartments();
+        return streamingFormats.stream(MediaType.APPLICATION_NDJSON, Department.class, departments::forEach);
+    }
 }
@@ -0,0 +1,41 @@
+package com.wtg.mohanbootcamp.api;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.security.InvalidParameterException;
+
+/**
+ * Strong entity tags derived from the {@code @Version} of an entity.
+ */
+final class ETags {
+
+    private static final String ANY = "*";
+
+    private ETags() {
+    }
+
+    static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Version an {@code If-Match} header requires, or {@code null} for {@code *}. Weak tags never match strongly.
+     */
+    static Long parseIfMatch(String ifMatch) throws InvalidParameterException, OptimisticLockingFailureException {
+        String value = ifMatch.trim();
+        if (ANY.equals(value)) {
+            return null;
+        }
+        if (value.startsWith("W/")) {
+            throw new OptimisticLockingFailureException("Weak entity tags cannot be used with If-Match");
+        }
+        if (value.length() < 3 || !value.startsWith("\"") || !value.endsWith("\"")) {
+            throw new InvalidParameterException("If-Match must be a single entity tag");
+        }
+        try {
+            return Long.parseLong(value.substring(1, value.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new OptimisticLockingFailureException("Entity tag does not match any version");
+        }
+    }
+}
@@ -1,11 +1,26 @@
 package com.wtg.mohanbootcamp.api;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.wtg.mohanbootcamp.persistence.Employee;
+import com.wtg.mohanbootcamp.service.EmployeeImportResult;
+import com.wtg.mohanbootcamp.service.EmployeeImportService;
+import com.wtg.mohanbootcamp.service.EmployeePage;
+import com.wtg.mohanbootcamp.service.EmployeeQueryResult;
 import com.wtg.mohanbootcamp.service.EmployeeService;
+import com.wtg.mohanbootcamp.service.EmployeeView;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController()
@@ -13,21 +28,85 @@ import java.util.List;
 @RequiredArgsConstructor
 public class EmployeeController {
 
+    private static final String DEFAULT_PAGE_LIMIT = "100";
+
+    private static final String DEFAULT_SEARCH_LIMIT = "20";
+
     private final EmployeeService employeeService;
 
+    private final EmployeeImportService employeeImportService;
+
+    private final ObjectMapper objectMapper;
+
+    private final StreamingFormats streamingFormats;
+
     @PostMapping
     public Employee createEmployee(@RequestBody @NotNull Employee employee) {
         return employeeService.createEmployee(employee);
     }
 
+    /**
+     * Imports employees from a JSON array or an NDJSON stream. The body is read incrementally, one chunk at a time.
+     */
+    @ExpensiveRequest
+    @PostMapping(path = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public EmployeeImportResult importEmployees(InputStream body) throws IOException {
+        try (MappingIterator<Employee> employees = objectMapper.readerFor(Employee.class).readValues(body)) {
+            return employeeImportService.importEmployees(employees);
+        }
+    }
+
+    @GetMapping("/search")
+    public List<EmployeeView> searchEmployees(@RequestParam(required = false) String name,
+                                              @RequestParam(required = false) Long departmentId,
+                                              @RequestParam(defaultValue = DEFAULT_SEARCH_LIMIT) int limit) {
+        return employeeService.searchEmployees(name, departmentId, limit);
+    }
+
+    /**
+     * Employees selected by a department expression, e.g. {@code ?q=3 AND (5 OR 8) AND NOT 13}, with their count and
+     * one page of ids. {@code limit=0} only counts.
+     */
+    @GetMapping("/query")
+    public EmployeeQueryResult queryEmployees(@RequestParam String q,
+                                              @RequestParam(required = false) String after,
+                                              @RequestParam(defaultValue = DEFAULT_PAGE_LIMIT) int limit) {
+        return employeeService.queryEmployees(q, after, limit);
+    }
+
+    /**
+     * Revalidation with {@code If-None-Match} only reads the version, an unchanged employee is neither loaded nor
+     * serialized.
+     */
     @GetMapping("/{id}")
-    public Employee getEmployee(@PathVariable @NotNull Long id) {
-        return employeeService.getEmployeeById(id);
+    public ResponseEntity<EmployeeView> getEmployee(@PathVariable @NotNull Long id, WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(ETags.of(employeeService.getEmployeeVersion(id)))) {
+            return null;
+        }
+        EmployeeView employee = employeeService.getEmployeeView(id);
+        return ResponseEntity.ok().eTag(ETags.of(employee.getVersion())).body(employee);
     }
 
     @PutMapping
-    public Employee updateEmployee(@RequestBody @NotNull Employee employee) {
-        return employeeService.updateEmployee(employee);
+    public ResponseEntity<Employee> updateEmployee(@RequestBody @NotNull Employee employee,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch != null) {
+            employee.setVersion(ETags.parseIfMatch(ifMatch));
+        }
+        Employee updatedEmployee = employeeService.updateEmployee(employee);
+        return ResponseEntity.ok().eTag(ETags.of(updatedEmployee.getVersion())).body(updatedEmployee);
+    }
+
+    /**
+     * Changes only the members present in the JSON Merge Patch, e.g. {@code {"nameLast": "Smith"}}. A
+     * {@code departments} array replaces the departments, mandatory ones excepted.
+     */
+    @PatchMapping(path = "/{id}", consumes = MergePatch.APPLICATION_MERGE_PATCH_JSON_VALUE)
+    public ResponseEntity<Employee> patchEmployee(@PathVariable @NotNull Long id, @RequestBody @NotNull JsonNode patch,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Employee patchedEmployee = employeeService.patchEmployee(id, MergePatch.withIfMatch(patch, ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(patchedEmployee.getVersion())).body(patchedEmployee);
     }
 
     @DeleteMapping("/{id}")
@@ -35,8 +114,41 @@ public class EmployeeController {
         return employeeService.deleteEmployee(id);
     }
 
+    /**
+     * Streams every employee as a JSON array, writing each element as soon as it is read from the database.
+     */
+    @ExpensiveRequest
+    @GetMapping(params = {"!after", "!limit"})
+    public ResponseEntity<StreamingResponseBody> getAllEmployees() {
+        return streamAllEmployees(MediaType.APPLICATION_JSON);
+    }
+
+    @ExpensiveRequest
+    @GetMapping(params = {"!after", "!limit"}, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getAllEmployeesNdjson() {
+        return streamAllEmployees(MediaType.APPLICATION_NDJSON);
+    }
+
+    @ExpensiveRequest
+    @GetMapping(params = {"!after", "!limit"}, produces = StreamingFormats.APPLICATION_SMILE_VALUE)
+    public ResponseEntity<StreamingResponseBody> getAllEmployeesSmile() {
+        return streamAllEmployees(StreamingFormats.APPLICATION_SMILE);
+    }
+
+    @ExpensiveRequest
+    @GetMapping(params = {"!after", "!limit"}, produces = MediaType.APPLICATION_CBOR_VALUE)
+    public ResponseEntity<StreamingResponseBody> getAllEmployeesCbor() {
+        return streamAllEmployees(MediaType.APPLICATION_CBOR);
+    }
+
+    @ExpensiveRequest
     @GetMapping
-    public List<Employee> getAllEmployees() {
-        return employeeService.getAllEmployees();
+    public EmployeePage getEmployeePage(@RequestParam(required = false) String after,
+                                        @RequestParam(defaultValue = DEFAULT_PAGE_LIMIT) int limit) {
+        return employeeService.getEmployeePage(after, limit);
+    }
+
+    private ResponseEntity<StreamingResponseBody> streamAllEmployees(MediaType format) {
+        return streamingFormats.stream(format, EmployeeView.class, employeeService::streamAllEmployees);
     }
 }
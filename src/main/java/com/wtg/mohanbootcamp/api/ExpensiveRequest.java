@@ -0,0 +1,15 @@
+package com.wtg.mohanbootcamp.api;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a handler whose cost grows with the data, such as a list or bulk endpoint. Admission control charges it to
+ * the expensive budget and bounds how many run at once.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ExpensiveRequest {
+}
@@ -0,0 +1,28 @@
+package com.wtg.mohanbootcamp.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.security.InvalidParameterException;
+
+/**
+ * JSON Merge Patch (RFC 7396) request bodies, read as a tree so that absent and {@code null} members differ.
+ */
+final class MergePatch {
+
+    static final String APPLICATION_MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
+    private MergePatch() {
+    }
+
+    /**
+     * The version an {@code If-Match} header requires replaces any version in the patch, as it does on an update.
+     */
+    static JsonNode withIfMatch(JsonNode patch, String ifMatch) throws InvalidParameterException, OptimisticLockingFailureException {
+        if (ifMatch != null && patch instanceof ObjectNode object) {
+            object.put("version", ETags.parseIfMatch(ifMatch));
+        }
+        return patch;
+    }
+}
@@ -0,0 +1,49 @@
+package com.wtg.mohanbootcamp.api;
+
+import com.wtg.mohanbootcamp.persistence.ConditionalOnReactiveRead;
+import com.wtg.mohanbootcamp.persistence.Department;
+import com.wtg.mohanbootcamp.service.EmployeeView;
+import com.wtg.mohanbootcamp.service.ReactiveReadService;
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive alternative to the reads of {@link EmployeeController} and {@link DepartmentController}. The request
+ * thread returns as soon as the {@link Flux} or {@link Mono} is assembled and the response is written as the database
+ * emits. NDJSON is streamed one element per demand, so a slow client holds back the reads; a JSON array is collected
+ * first, which suits the departments but not the employees.
+ */
+@RestController
+@ConditionalOnReactiveRead
+@RequestMapping("/reactive")
+@RequiredArgsConstructor
+public class ReactiveReadController {
+
+    private final ReactiveReadService reactiveReadService;
+
+    @ExpensiveRequest
+    @GetMapping(path = "/employee", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<EmployeeView> getAllEmployees() {
+        return reactiveReadService.getAllEmployees();
+    }
+
+    @GetMapping("/employee/{id}")
+    public Mono<ResponseEntity<EmployeeView>> getEmployee(@PathVariable @NotNull Long id) {
+        return reactiveReadService.getEmployeeView(id)
+                .map(employee -> ResponseEntity.ok().eTag(ETags.of(employee.getVersion())).body(employee));
+    }
+
+    @ExpensiveRequest
+    @GetMapping(path = "/department", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Department> getDepartments() {
+        return reactiveReadService.getAllDepartments();
+    }
+}
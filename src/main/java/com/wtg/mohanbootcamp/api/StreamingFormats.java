@@ -0,0 +1,84 @@
+package com.wtg.mohanbootcamp.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Streams bulk reads in the negotiated format: a JSON array, NDJSON with one value per line, or a Smile or CBOR
+ * array. Each value is generated as soon as it is produced, nothing is collected first. The binary formats share the
+ * application's {@link ObjectMapper} configuration.
+ */
+@Component
+public class StreamingFormats {
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    public static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(APPLICATION_SMILE_VALUE);
+
+    private final Map<MediaType, ObjectMapper> objectMappers;
+
+    public StreamingFormats(ObjectMapper objectMapper) {
+        this.objectMappers = Map.of(
+                MediaType.APPLICATION_JSON, objectMapper,
+                MediaType.APPLICATION_NDJSON, objectMapper,
+                APPLICATION_SMILE, objectMapper.copyWith(new SmileFactory()),
+                MediaType.APPLICATION_CBOR, objectMapper.copyWith(new CBORFactory()));
+    }
+
+    public <T> ResponseEntity<StreamingResponseBody> stream(MediaType format, Class<T> type, Consumer<Consumer<T>> source) {
+        ObjectMapper objectMapper = objectMapperFor(format);
+        return ResponseEntity.ok().contentType(format).body(outputStream -> write(objectMapper, format, type, source, outputStream));
+    }
+
+    public <T> void write(MediaType format, Class<T> type, Consumer<Consumer<T>> source, OutputStream outputStream) throws IOException {
+        write(objectMapperFor(format), format, type, source, outputStream);
+    }
+
+    private ObjectMapper objectMapperFor(MediaType format) {
+        ObjectMapper objectMapper = objectMappers.get(format);
+        if (objectMapper == null) {
+            throw new IllegalArgumentException("Unsupported streaming format " + format);
+        }
+        return objectMapper;
+    }
+
+    private static <T> void write(ObjectMapper objectMapper, MediaType format, Class<T> type, Consumer<Consumer<T>> source,
+                                  OutputStream outputStream) throws IOException {
+        boolean lines = MediaType.APPLICATION_NDJSON.equals(format);
+        ObjectWriter writer = objectMapper.writerFor(type).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            if (lines) {
+                generator.setRootValueSeparator(null);
+            } else {
+                generator.writeStartArray();
+            }
+            source.accept(value -> {
+                try {
+                    writer.writeValue(generator, value);
+                    if (lines) {
+                        generator.writeRaw('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (!lines) {
+                generator.writeEndArray();
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.wtg.mohanbootcamp.api;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, kept as the single time at which the bucket will be full again (the generic cell rate
+ * algorithm). Taking a token pushes that time one refill interval further, which is allowed as long as it stays
+ * within {@code burst} intervals of now.
+ */
+class TokenBucket {
+
+    private final long intervalNanos;
+
+    private final long capacityNanos;
+
+    private final AtomicLong fullAt;
+
+    TokenBucket(double rate, int burst, long nowNanos) {
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / rate));
+        this.capacityNanos = intervalNanos * burst;
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes a token, returns 0 when it was granted, otherwise the nanoseconds until one is available.
+     */
+    long tryTake(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            long wait = next - nowNanos - capacityNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    double availableTokens(long nowNanos) {
+        long used = Math.max(0, fullAt.get() - nowNanos);
+        return (double) (capacityNanos - used) / intervalNanos;
+    }
+
+    boolean isFull(long nowNanos) {
+        return fullAt.get() - nowNanos <= 0;
+    }
+}
@@ -0,0 +1,19 @@
+package com.wtg.mohanbootcamp.api;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Thrown when admission control rejects a request, {@code retryAfter} is when the client may try again.
+ */
+@Getter
+public class TooManyRequestsException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public TooManyRequestsException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
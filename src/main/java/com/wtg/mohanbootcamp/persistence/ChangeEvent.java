@@ -0,0 +1,35 @@
+package com.wtg.mohanbootcamp.persistence;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Row of the change outbox. {@code payload} is the JSON state of the entity after the change, null when deleted.
+ * Deleting a department also removes it from all its members and bumps their versions by one, so its event is
+ * followed by a saved event for each member. A consumer that starts after the department's deletion event has been
+ * purged still reads the members' current memberships.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class ChangeEvent {
+
+    public static final String EMPLOYEE = "EMPLOYEE";
+    public static final String DEPARTMENT = "DEPARTMENT";
+
+    public static final String SAVED = "SAVED";
+    public static final String DELETED = "DELETED";
+
+    private Long offset;
+    private String entityType;
+    private Long entityId;
+    private String operation;
+    private Long version;
+    @JsonRawValue
+    private String payload;
+    private Instant createdAt;
+}
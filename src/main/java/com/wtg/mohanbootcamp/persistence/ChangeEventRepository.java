@@ -0,0 +1,158 @@
+package com.wtg.mohanbootcamp.persistence;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * JDBC access to the change outbox. Appends are batched, reads are range scans of the primary key.
+ */
+@Repository
+public class ChangeEventRepository {
+
+    private static final String SELECT_NEXT_OFFSETS = "SELECT NEXT VALUE FOR SEQ_CHANGE_EVENT FROM SYSTEM_RANGE(1, ?)";
+
+    private static final String INSERT_CHANGE_EVENT =
+            "INSERT INTO CHANGE_EVENT (ID, ENTITY_TYPE, ENTITY_ID, OPERATION, VERSION, PAYLOAD, CREATED_AT) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_AFTER =
+            "SELECT ID, ENTITY_TYPE, ENTITY_ID, OPERATION, VERSION, PAYLOAD, CREATED_AT FROM CHANGE_EVENT WHERE ID > ? ORDER BY ID LIMIT ?";
+
+    private static final String SELECT_BETWEEN =
+            "SELECT ID, ENTITY_TYPE, ENTITY_ID, OPERATION, VERSION, PAYLOAD, CREATED_AT FROM CHANGE_EVENT WHERE ID > ? AND ID <= ? ORDER BY ID LIMIT ?";
+
+    private static final String DELETE_SUPERSEDED = "DELETE FROM CHANGE_EVENT WHERE ENTITY_TYPE = ? AND ENTITY_ID = ? AND ID < ?";
+
+    private static final String DELETE_TOMBSTONES = "DELETE FROM CHANGE_EVENT WHERE OPERATION = 'DELETED' AND ID > ? AND ID <= ?";
+
+    private static final RowMapper<ChangeEvent> CHANGE_EVENT_MAPPER = (rs, rowNum) -> new ChangeEvent(
+            rs.getLong("ID"),
+            rs.getString("ENTITY_TYPE"),
+            rs.getLong("ENTITY_ID"),
+            rs.getString("OPERATION"),
+            rs.getObject("VERSION", Long.class),
+            rs.getString("PAYLOAD"),
+            rs.getTimestamp("CREATED_AT").toInstant());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ChangeEventRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Allocates the offsets of the events in one round trip and inserts them as one JDBC batch, in the caller's
+     * transaction. Returns the last offset.
+     */
+    public long appendAll(List<ChangeEvent> events) {
+        List<Long> offsets = nextOffsets(events.size());
+        insertAll(events, offsets);
+        return offsets.get(offsets.size() - 1);
+    }
+
+    /**
+     * Allocates {@code count} increasing offsets in one round trip.
+     */
+    public List<Long> nextOffsets(int count) {
+        return jdbcTemplate.queryForList(SELECT_NEXT_OFFSETS, Long.class, count);
+    }
+
+    /**
+     * Inserts the events at the offsets allocated for them as one JDBC batch, in the caller's transaction.
+     */
+    public void insertAll(List<ChangeEvent> events, List<Long> offsets) {
+        jdbcTemplate.batchUpdate(INSERT_CHANGE_EVENT, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ChangeEvent event = events.get(i);
+                ps.setLong(1, offsets.get(i));
+                ps.setString(2, event.getEntityType());
+                ps.setLong(3, event.getEntityId());
+                ps.setString(4, event.getOperation());
+                ps.setObject(5, event.getVersion());
+                ps.setString(6, event.getPayload());
+                ps.setTimestamp(7, Timestamp.from(event.getCreatedAt()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return events.size();
+            }
+        });
+    }
+
+    public List<ChangeEvent> findAfter(long offset, int limit) {
+        return jdbcTemplate.query(SELECT_AFTER, CHANGE_EVENT_MAPPER, offset, limit);
+    }
+
+    public List<ChangeEvent> findAfter(long offset, long throughOffset, int limit) {
+        return jdbcTemplate.query(SELECT_BETWEEN, CHANGE_EVENT_MAPPER, offset, throughOffset, limit);
+    }
+
+    public long findLastOffset() {
+        Long last = jdbcTemplate.queryForObject("SELECT MAX(ID) FROM CHANGE_EVENT", Long.class);
+        return last == null ? 0 : last;
+    }
+
+    /**
+     * Last offset of the events created before {@code time}, 0 when there is none.
+     */
+    public long findLastOffsetBefore(Instant time) {
+        Long last = jdbcTemplate.queryForObject("SELECT MAX(ID) FROM CHANGE_EVENT WHERE CREATED_AT < ?", Long.class, Timestamp.from(time));
+        return last == null ? 0 : last;
+    }
+
+    /**
+     * Deletes the events that each of {@code events} supersedes, as one JDBC batch of entity index lookups.
+     */
+    public void deleteSupersededBy(List<ChangeEvent> events) {
+        jdbcTemplate.batchUpdate(DELETE_SUPERSEDED, events, events.size(), (ps, event) -> {
+            ps.setString(1, event.getEntityType());
+            ps.setLong(2, event.getEntityId());
+            ps.setLong(3, event.getOffset());
+        });
+    }
+
+    /**
+     * Deletes the deletion events in the offset range, returns the offset of the last one deleted or 0.
+     */
+    public long deleteTombstones(long afterOffset, long throughOffset) {
+        Long last = jdbcTemplate.queryForObject("SELECT MAX(ID) FROM CHANGE_EVENT WHERE OPERATION = 'DELETED' AND ID > ? AND ID <= ?",
+                Long.class, afterOffset, throughOffset);
+        if (last == null) {
+            return 0;
+        }
+        jdbcTemplate.update(DELETE_TOMBSTONES, afterOffset, last);
+        return last;
+    }
+
+    /**
+     * Offset up to which superseded events have been deleted.
+     */
+    public long findCompactedThrough() {
+        return jdbcTemplate.queryForObject("SELECT COMPACTED_THROUGH FROM CHANGE_EVENT_WATERMARK", Long.class);
+    }
+
+    public void updateCompactedThrough(long offset) {
+        jdbcTemplate.update("UPDATE CHANGE_EVENT_WATERMARK SET COMPACTED_THROUGH = ? WHERE COMPACTED_THROUGH < ?", offset, offset);
+    }
+
+    /**
+     * Offset up to which deletion events may have been purged, consumers behind it have missed deletions.
+     */
+    public long findPurgedThrough() {
+        return jdbcTemplate.queryForObject("SELECT PURGED_THROUGH FROM CHANGE_EVENT_WATERMARK", Long.class);
+    }
+
+    public void updatePurgedThrough(long offset) {
+        jdbcTemplate.update("UPDATE CHANGE_EVENT_WATERMARK SET PURGED_THROUGH = ? WHERE PURGED_THROUGH < ?", offset, offset);
+    }
+}
@@ -0,0 +1,21 @@
+package com.wtg.mohanbootcamp.persistence;
+
+import org.springframework.context.annotation.Conditional;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Matches when {@code app.reactive-read.enabled} is true and {@code spring.datasource.url} is an H2 database, the
+ * only one the reactive read path has a driver for. On any other database the reactive beans are left out and the
+ * application starts without the {@code /reactive} endpoints.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Conditional(OnReactiveReadCondition.class)
+public @interface ConditionalOnReactiveRead {
+}
@@ -3,11 +3,15 @@ package com.wtg.mohanbootcamp.persistence;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@DynamicUpdate
 @Table(name = "DEPARTMENT")
 @Getter
 @Setter
@@ -16,10 +20,15 @@ import java.util.Set;
 @AllArgsConstructor
 @Builder
 @JsonIgnoreProperties({"employees"})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Department.CACHE_REGION)
 public class Department {
+
+    public static final String CACHE_REGION = "department";
+
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "SEQ_DEPARTMENT")
-    @SequenceGenerator(name = "SEQ_DEPARTMENT", sequenceName = "SEQ_DEPARTMENT", allocationSize = 1)
+    @SequenceGenerator(name = "SEQ_DEPARTMENT", sequenceName = "SEQ_DEPARTMENT", allocationSize = 50)
     private Long id;
 
     @Column(name = "NAME", nullable = false, unique = true)
@@ -31,6 +40,10 @@ public class Department {
     @Column(name = "MANDATORY")
     private Boolean mandatory;
 
+    @Version
+    @Column(name = "VERSION", nullable = false)
+    private Long version;
+
     @ManyToMany(mappedBy = "departments")
     private Set<Employee> employees = new HashSet<>();
 
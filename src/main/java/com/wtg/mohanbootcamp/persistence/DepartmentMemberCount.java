@@ -0,0 +1,11 @@
+package com.wtg.mohanbootcamp.persistence;
+
+/**
+ * Projection of a department id and its number of members.
+ */
+public interface DepartmentMemberCount {
+
+    Long getId();
+
+    Long getMembers();
+}
@@ -0,0 +1,50 @@
+package com.wtg.mohanbootcamp.persistence;
+
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * R2DBC access to departments for the reactive read path.
+ */
+@Repository
+@ConditionalOnReactiveRead
+public class DepartmentReactiveRepository {
+
+    private static final String SELECT_ALL = "SELECT ID, NAME, READ_ONLY, MANDATORY, VERSION FROM DEPARTMENT ORDER BY ID";
+
+    private final DatabaseClient databaseClient;
+
+    private final Scheduler scheduler;
+
+    public DepartmentReactiveRepository(ReactiveDatabase reactiveDatabase) {
+        this.databaseClient = reactiveDatabase.getDatabaseClient();
+        this.scheduler = reactiveDatabase.getScheduler();
+    }
+
+    public Flux<Department> findAll() {
+        return databaseClient.sql(SELECT_ALL)
+                .map(row -> Department.builder()
+                        .id(row.get("ID", Long.class))
+                        .name(row.get("NAME", String.class))
+                        .readOnly(flag(row, "READ_ONLY"))
+                        .mandatory(flag(row, "MANDATORY"))
+                        .version(row.get("VERSION", Long.class))
+                        .build())
+                .all()
+                .subscribeOn(scheduler);
+    }
+
+    /**
+     * The flags are TINYINT columns, mapped to booleans as Hibernate does.
+     */
+    static Boolean flag(Readable row, String name) {
+        Object value = row.get(name);
+        if (value instanceof Number number) {
+            return number.intValue() != 0;
+        }
+        return (Boolean) value;
+    }
+}
@@ -1,9 +1,79 @@
 package com.wtg.mohanbootcamp.persistence;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface DepartmentRepository extends JpaRepository<Department, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Department> findByMandatory(boolean b);
+
+    /**
+     * Member count of every department, empty departments included, in one grouped scan of the mapping table.
+     */
+    @Query(value = "SELECT d.ID AS id, COUNT(m.ID_EMPLOYEE) AS members FROM DEPARTMENT d " +
+            "LEFT JOIN MAP_EMPLOYEE_DEPARTMENT m ON m.ID_DEPARTMENT = d.ID GROUP BY d.ID", nativeQuery = true)
+    List<DepartmentMemberCount> countMembersByDepartment();
+
+    @Query(value = "SELECT COUNT(DISTINCT ID_EMPLOYEE) FROM MAP_EMPLOYEE_DEPARTMENT", nativeQuery = true)
+    long countDistinctMembers();
+
+    /**
+     * Members of the department that belong to no other department.
+     */
+    @Query(value = "SELECT COUNT(*) FROM MAP_EMPLOYEE_DEPARTMENT m WHERE m.ID_DEPARTMENT = :id AND NOT EXISTS " +
+            "(SELECT 1 FROM MAP_EMPLOYEE_DEPARTMENT o WHERE o.ID_EMPLOYEE = m.ID_EMPLOYEE AND o.ID_DEPARTMENT <> :id)", nativeQuery = true)
+    long countSoleMembersByDepartmentId(@Param("id") Long id);
+
+    @Query(value = "SELECT ID_EMPLOYEE FROM MAP_EMPLOYEE_DEPARTMENT WHERE ID_DEPARTMENT = :id ORDER BY ID_EMPLOYEE", nativeQuery = true)
+    List<Long> findMemberIdsByDepartmentId(@Param("id") Long id);
+
+    @Query(value = "SELECT ID_EMPLOYEE FROM MAP_EMPLOYEE_DEPARTMENT WHERE ID_DEPARTMENT = :id AND ID_EMPLOYEE IN (:employeeIds)", nativeQuery = true)
+    List<Long> findMemberIds(@Param("id") Long id, @Param("employeeIds") Collection<Long> employeeIds);
+
+    @Query(value = "SELECT COUNT(*) FROM EMPLOYEE e WHERE e.ID IN (:employeeIds) AND NOT EXISTS " +
+            "(SELECT 1 FROM MAP_EMPLOYEE_DEPARTMENT m WHERE m.ID_EMPLOYEE = e.ID)", nativeQuery = true)
+    long countWithoutDepartmentByIdIn(@Param("employeeIds") Collection<Long> employeeIds);
+
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "MAP_EMPLOYEE_DEPARTMENT"))
+    @Query(value = "INSERT INTO MAP_EMPLOYEE_DEPARTMENT (ID_EMPLOYEE, ID_DEPARTMENT) SELECT ID, :id FROM EMPLOYEE WHERE ID IN (:employeeIds)", nativeQuery = true)
+    int insertMemberships(@Param("id") Long id, @Param("employeeIds") Collection<Long> employeeIds);
+
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "MAP_EMPLOYEE_DEPARTMENT"))
+    @Query(value = "DELETE FROM MAP_EMPLOYEE_DEPARTMENT WHERE ID_DEPARTMENT = :id AND ID_EMPLOYEE IN (:employeeIds)", nativeQuery = true)
+    int deleteMemberships(@Param("id") Long id, @Param("employeeIds") Collection<Long> employeeIds);
+
+    /**
+     * Bumps the version of every member, so their ETags change when the department is removed from them.
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "EMPLOYEE"))
+    @Query(value = "UPDATE EMPLOYEE SET VERSION = VERSION + 1 WHERE ID IN (SELECT ID_EMPLOYEE FROM MAP_EMPLOYEE_DEPARTMENT WHERE ID_DEPARTMENT = :id)", nativeQuery = true)
+    int incrementMemberVersionsByDepartmentId(@Param("id") Long id);
+
+    /**
+     * Declares the mapping table as the only affected table, so Hibernate evicts just the cached
+     * {@code Employee.departments} collections instead of the whole second-level cache.
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "MAP_EMPLOYEE_DEPARTMENT"))
+    @Query(value = "DELETE FROM MAP_EMPLOYEE_DEPARTMENT WHERE ID_DEPARTMENT = :id", nativeQuery = true)
+    int deleteMembershipsByDepartmentId(@Param("id") Long id);
+
+    /**
+     * Deletes the department row without loading it. Clears the persistence context afterwards, since loaded
+     * employees may still reference the department.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Department d where d.id = :id")
+    int deleteDepartmentById(@Param("id") Long id);
 }
@@ -2,11 +2,15 @@ package com.wtg.mohanbootcamp.persistence;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@DynamicUpdate
 @Table(name = "EMPLOYEE")
 @Getter
 @Setter
@@ -15,9 +19,12 @@ import java.util.Set;
 @AllArgsConstructor
 @Builder
 public class Employee {
+
+    public static final String DEPARTMENTS_CACHE_REGION = "employee.departments";
+
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "SEQ_EMPLOYEE")
-    @SequenceGenerator(name = "SEQ_EMPLOYEE", sequenceName = "SEQ_EMPLOYEE", allocationSize = 1)
+    @SequenceGenerator(name = "SEQ_EMPLOYEE", sequenceName = "SEQ_EMPLOYEE", allocationSize = 50)
     private Long id;
 
     @Column(name = "NAME_FIRST", nullable = false)
@@ -26,7 +33,12 @@ public class Employee {
     @Column(name = "NAME_LAST", nullable = false)
     private String nameLast;
 
+    @Version
+    @Column(name = "VERSION", nullable = false)
+    private Long version;
+
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = DEPARTMENTS_CACHE_REGION)
     @JoinTable(
             name = "MAP_EMPLOYEE_DEPARTMENT",
             joinColumns = @JoinColumn(name = "ID_EMPLOYEE"),
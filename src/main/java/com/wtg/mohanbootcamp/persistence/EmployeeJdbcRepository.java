@@ -0,0 +1,187 @@
+package com.wtg.mohanbootcamp.persistence;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Plain JDBC access to employees for paths where loading entities into a persistence context is too expensive.
+ */
+@Repository
+public class EmployeeJdbcRepository {
+
+    private static final String SELECT_ALL_WITH_DEPARTMENTS =
+            "SELECT e.ID, e.NAME_FIRST, e.NAME_LAST, e.VERSION, d.ID AS ID_DEPARTMENT, d.NAME, d.READ_ONLY, d.MANDATORY " +
+            "FROM EMPLOYEE e " +
+            "LEFT JOIN MAP_EMPLOYEE_DEPARTMENT m ON m.ID_EMPLOYEE = e.ID " +
+            "LEFT JOIN DEPARTMENT d ON d.ID = m.ID_DEPARTMENT " +
+            "ORDER BY e.ID";
+
+    private static final String SELECT_WITH_DEPARTMENTS_BY_IDS =
+            "SELECT e.ID, e.NAME_FIRST, e.NAME_LAST, e.VERSION, d.ID AS ID_DEPARTMENT, d.NAME, d.READ_ONLY, d.MANDATORY " +
+            "FROM EMPLOYEE e " +
+            "LEFT JOIN MAP_EMPLOYEE_DEPARTMENT m ON m.ID_EMPLOYEE = e.ID " +
+            "LEFT JOIN DEPARTMENT d ON d.ID = m.ID_DEPARTMENT " +
+            "WHERE e.ID IN (:ids) " +
+            "ORDER BY e.ID";
+
+    private static final String SELECT_ALL_IDS = "SELECT ID FROM EMPLOYEE ORDER BY ID";
+
+    private static final String SELECT_ALL_DEPARTMENT_IDS = "SELECT ID FROM DEPARTMENT ORDER BY ID";
+
+    private static final String SELECT_ALL_MEMBERSHIPS =
+            "SELECT ID_DEPARTMENT, ID_EMPLOYEE FROM MAP_EMPLOYEE_DEPARTMENT ORDER BY ID_DEPARTMENT, ID_EMPLOYEE";
+
+    private static final String SELECT_NEXT_EMPLOYEE_IDS = "SELECT NEXT VALUE FOR SEQ_EMPLOYEE FROM SYSTEM_RANGE(1, ?)";
+
+    private static final String INSERT_EMPLOYEE = "INSERT INTO EMPLOYEE (ID, NAME_FIRST, NAME_LAST) VALUES (?, ?, ?)";
+
+    private static final String INSERT_EMPLOYEE_DEPARTMENT = "INSERT INTO MAP_EMPLOYEE_DEPARTMENT (ID_EMPLOYEE, ID_DEPARTMENT) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final int idBlockSize;
+
+    public EmployeeJdbcRepository(DataSource dataSource,
+                                  @Value("${app.employee.stream.fetch-size:500}") int fetchSize,
+                                  @Value("${app.id.block-size:50}") int idBlockSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.idBlockSize = idBlockSize;
+    }
+
+    /**
+     * Reads every employee with its departments through a single forward-only cursor and hands each employee to
+     * {@code consumer} as soon as its last row has been read. Only one employee is held in memory at a time.
+     */
+    public void streamAllWithDepartments(Consumer<Employee> consumer) {
+        jdbcTemplate.query(SELECT_ALL_WITH_DEPARTMENTS, new EmployeeExtractor(consumer));
+    }
+
+    /**
+     * Reads the given employees with their departments in one query, in id order.
+     */
+    public void streamWithDepartmentsByIdIn(Collection<Long> ids, Consumer<Employee> consumer) {
+        new NamedParameterJdbcTemplate(jdbcTemplate).query(SELECT_WITH_DEPARTMENTS_BY_IDS, Map.of("ids", ids), new EmployeeExtractor(consumer));
+    }
+
+    /**
+     * Reads every employee id in id order through a forward-only cursor.
+     */
+    public void streamAllIds(LongConsumer consumer) {
+        jdbcTemplate.query(SELECT_ALL_IDS, (RowCallbackHandler) rs -> consumer.accept(rs.getLong(1)));
+    }
+
+    /**
+     * Reads every department id in id order, departments without members included.
+     */
+    public void streamAllDepartmentIds(LongConsumer consumer) {
+        jdbcTemplate.query(SELECT_ALL_DEPARTMENT_IDS, (RowCallbackHandler) rs -> consumer.accept(rs.getLong(1)));
+    }
+
+    /**
+     * Reads every department membership, grouped by department and in employee id order within a department.
+     */
+    public void streamAllMemberships(MembershipConsumer consumer) {
+        jdbcTemplate.query(SELECT_ALL_MEMBERSHIPS, (RowCallbackHandler) rs -> consumer.accept(rs.getLong(1), rs.getLong(2)));
+    }
+
+    /**
+     * Allocates {@code count} employee ids from {@code SEQ_EMPLOYEE} in a single round trip. Each sequence value
+     * reserves a block of {@code app.id.block-size} ids, so only one value per block is fetched.
+     */
+    public List<Long> nextEmployeeIds(int count) {
+        int blocks = (count + idBlockSize - 1) / idBlockSize;
+        List<Long> ids = new ArrayList<>(count);
+        for (Long blockStart : jdbcTemplate.queryForList(SELECT_NEXT_EMPLOYEE_IDS, Long.class, blocks)) {
+            for (int i = 0; i < idBlockSize && ids.size() < count; i++) {
+                ids.add(blockStart + i);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Inserts employees that already carry their ids, together with their department memberships, as two JDBC
+     * batches. Runs in the caller's transaction.
+     */
+    public void insertAll(List<Employee> employees) {
+        jdbcTemplate.batchUpdate(INSERT_EMPLOYEE, employees, employees.size(), (ps, employee) -> {
+            ps.setLong(1, employee.getId());
+            ps.setString(2, employee.getNameFirst());
+            ps.setString(3, employee.getNameLast());
+        });
+
+        List<long[]> memberships = new ArrayList<>();
+        for (Employee employee : employees) {
+            for (Department department : employee.getDepartments()) {
+                memberships.add(new long[]{employee.getId(), department.getId()});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_EMPLOYEE_DEPARTMENT, memberships, memberships.size(), (ps, membership) -> {
+            ps.setLong(1, membership[0]);
+            ps.setLong(2, membership[1]);
+        });
+    }
+
+    @FunctionalInterface
+    public interface MembershipConsumer {
+        void accept(long departmentId, long employeeId);
+    }
+
+    private static final class EmployeeExtractor implements ResultSetExtractor<Void> {
+
+        private final Consumer<Employee> consumer;
+
+        private EmployeeExtractor(Consumer<Employee> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public Void extractData(ResultSet rs) throws SQLException {
+            Employee current = null;
+            while (rs.next()) {
+                long id = rs.getLong("ID");
+                if (current == null || current.getId() != id) {
+                    if (current != null) {
+                        consumer.accept(current);
+                    }
+                    current = Employee.builder()
+                            .id(id)
+                            .nameFirst(rs.getString("NAME_FIRST"))
+                            .nameLast(rs.getString("NAME_LAST"))
+                            .version(rs.getLong("VERSION"))
+                            .departments(new HashSet<>())
+                            .build();
+                }
+                long departmentId = rs.getLong("ID_DEPARTMENT");
+                if (!rs.wasNull()) {
+                    current.getDepartments().add(Department.builder()
+                            .id(departmentId)
+                            .name(rs.getString("NAME"))
+                            .readOnly(rs.getBoolean("READ_ONLY"))
+                            .mandatory(rs.getBoolean("MANDATORY"))
+                            .build());
+                }
+            }
+            if (current != null) {
+                consumer.accept(current);
+            }
+            return null;
+        }
+    }
+}
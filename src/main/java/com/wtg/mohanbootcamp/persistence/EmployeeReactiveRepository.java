@@ -0,0 +1,91 @@
+package com.wtg.mohanbootcamp.persistence;
+
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * R2DBC access to employees with their departments for the reactive read path. One row per membership, in employee
+ * id order, folded into one {@link Employee} per employee as its rows arrive. Rows are only fetched as fast as the
+ * subscriber requests employees.
+ */
+@Repository
+@ConditionalOnReactiveRead
+public class EmployeeReactiveRepository {
+
+    private static final String SELECT_WITH_DEPARTMENTS =
+            "SELECT e.ID, e.NAME_FIRST, e.NAME_LAST, e.VERSION, d.ID AS ID_DEPARTMENT, d.NAME, d.READ_ONLY, d.MANDATORY " +
+            "FROM EMPLOYEE e " +
+            "LEFT JOIN MAP_EMPLOYEE_DEPARTMENT m ON m.ID_EMPLOYEE = e.ID " +
+            "LEFT JOIN DEPARTMENT d ON d.ID = m.ID_DEPARTMENT ";
+
+    private static final String SELECT_ALL_WITH_DEPARTMENTS = SELECT_WITH_DEPARTMENTS + "ORDER BY e.ID";
+
+    private static final String SELECT_WITH_DEPARTMENTS_BY_ID = SELECT_WITH_DEPARTMENTS + "WHERE e.ID = :id";
+
+    private final DatabaseClient databaseClient;
+
+    private final Scheduler scheduler;
+
+    public EmployeeReactiveRepository(ReactiveDatabase reactiveDatabase) {
+        this.databaseClient = reactiveDatabase.getDatabaseClient();
+        this.scheduler = reactiveDatabase.getScheduler();
+    }
+
+    public Flux<Employee> findAllWithDepartments() {
+        return databaseClient.sql(SELECT_ALL_WITH_DEPARTMENTS)
+                .map(EmployeeReactiveRepository::toRow)
+                .all()
+                .bufferUntilChanged(row -> row.employee().getId())
+                .map(EmployeeReactiveRepository::toEmployee)
+                .subscribeOn(scheduler);
+    }
+
+    public Mono<Employee> findWithDepartmentsById(Long id) {
+        return databaseClient.sql(SELECT_WITH_DEPARTMENTS_BY_ID)
+                .bind("id", id)
+                .map(EmployeeReactiveRepository::toRow)
+                .all()
+                .collectList()
+                .filter(rows -> !rows.isEmpty())
+                .map(EmployeeReactiveRepository::toEmployee)
+                .subscribeOn(scheduler);
+    }
+
+    private static EmployeeRow toRow(Readable row) {
+        Employee employee = Employee.builder()
+                .id(row.get("ID", Long.class))
+                .nameFirst(row.get("NAME_FIRST", String.class))
+                .nameLast(row.get("NAME_LAST", String.class))
+                .version(row.get("VERSION", Long.class))
+                .build();
+        Long departmentId = row.get("ID_DEPARTMENT", Long.class);
+        Department department = departmentId == null ? null : Department.builder()
+                .id(departmentId)
+                .name(row.get("NAME", String.class))
+                .readOnly(DepartmentReactiveRepository.flag(row, "READ_ONLY"))
+                .mandatory(DepartmentReactiveRepository.flag(row, "MANDATORY"))
+                .build();
+        return new EmployeeRow(employee, department);
+    }
+
+    private static Employee toEmployee(List<EmployeeRow> rows) {
+        Employee employee = rows.get(0).employee();
+        employee.setDepartments(new HashSet<>());
+        for (EmployeeRow row : rows) {
+            if (row.department() != null) {
+                employee.getDepartments().add(row.department());
+            }
+        }
+        return employee;
+    }
+
+    private record EmployeeRow(Employee employee, Department department) {
+    }
+}
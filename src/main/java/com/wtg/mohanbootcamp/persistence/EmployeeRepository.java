@@ -1,6 +1,74 @@
 package com.wtg.mohanbootcamp.persistence;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+
+    @Override
+    @EntityGraph(attributePaths = "departments")
+    List<Employee> findAll();
+
+    @EntityGraph(attributePaths = "departments")
+    Optional<Employee> findWithDepartmentsById(Long id);
+
+    @EntityGraph(attributePaths = "departments")
+    List<Employee> findWithDepartmentsByIdInOrderByIdAsc(Collection<Long> ids);
+
+    /**
+     * Ids of employees whose last name starts with {@code prefix}, in the order of the last name index. The prefix
+     * is a LIKE pattern escaped with {@code !}.
+     */
+    @Query("select e.id from Employee e where e.nameLast like :prefix escape '!' order by e.nameLast, e.nameFirst, e.id")
+    List<Long> searchIdsByLastName(@Param("prefix") String prefix, Limit limit);
+
+    @Query("select e.id from Employee e where e.nameLast like :prefix escape '!' " +
+            "and exists (select 1 from e.departments d where d.id = :departmentId) " +
+            "order by e.nameLast, e.nameFirst, e.id")
+    List<Long> searchIdsByLastNameInDepartment(@Param("prefix") String prefix, @Param("departmentId") Long departmentId, Limit limit);
+
+    /**
+     * Ids of employees whose first name, but not last name, starts with {@code prefix}, in the order of the first
+     * name index.
+     */
+    @Query("select e.id from Employee e where e.nameFirst like :prefix escape '!' and e.nameLast not like :prefix escape '!' " +
+            "order by e.nameFirst, e.id")
+    List<Long> searchIdsByFirstName(@Param("prefix") String prefix, Limit limit);
+
+    @Query("select e.id from Employee e where e.nameFirst like :prefix escape '!' and e.nameLast not like :prefix escape '!' " +
+            "and exists (select 1 from e.departments d where d.id = :departmentId) " +
+            "order by e.nameFirst, e.id")
+    List<Long> searchIdsByFirstNameInDepartment(@Param("prefix") String prefix, @Param("departmentId") Long departmentId, Limit limit);
+
+    @Query("select e.version from Employee e where e.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Locks the rows of the existing employees among {@code ids} and returns their ids. Locks are taken in id order,
+     * so concurrent callers with overlapping ids cannot deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e.id from Employee e where e.id in :ids order by e.id")
+    List<Long> lockIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update Employee e set e.version = e.version + 1 where e.id in :ids")
+    int incrementVersionsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Keyset page over the primary key index: ids of employees after {@code id}, in id order. Paging on ids keeps
+     * the limit in the database; the departments are then fetched for the page in one further query.
+     */
+    @Query("select e.id from Employee e where e.id > :id order by e.id")
+    List<Long> findIdsAfter(@Param("id") Long id, Limit limit);
 }
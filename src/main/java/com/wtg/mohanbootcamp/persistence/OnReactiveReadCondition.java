@@ -0,0 +1,28 @@
+package com.wtg.mohanbootcamp.persistence;
+
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+/**
+ * See {@link ConditionalOnReactiveRead}.
+ */
+class OnReactiveReadCondition extends SpringBootCondition {
+
+    static final String H2_JDBC_PREFIX = "jdbc:h2:";
+
+    @Override
+    public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+        Environment environment = context.getEnvironment();
+        if (!environment.getProperty("app.reactive-read.enabled", Boolean.class, false)) {
+            return ConditionOutcome.noMatch("Reactive reads are disabled");
+        }
+        String url = environment.getProperty("spring.datasource.url", "");
+        if (!url.startsWith(H2_JDBC_PREFIX)) {
+            return ConditionOutcome.noMatch("Reactive reads support H2 only, not " + url);
+        }
+        return ConditionOutcome.match("Reactive reads are enabled on H2");
+    }
+}
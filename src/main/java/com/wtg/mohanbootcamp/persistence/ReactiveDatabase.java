@@ -0,0 +1,99 @@
+package com.wtg.mohanbootcamp.persistence;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.r2dbc.h2.H2ConnectionConfiguration;
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+
+/**
+ * R2DBC connection pool on the database of {@code spring.datasource.url}, for the reactive read path. The pool is
+ * deliberately not a {@code ConnectionFactory} bean: Spring Boot backs off from the JDBC {@code DataSource} when one
+ * exists, and the JPA write path needs it.
+ * <p>
+ * The H2 driver executes statements on the thread that subscribes, so queries are subscribed on a scheduler with one
+ * thread per pooled connection, never on a request thread. A connection is handed back to the next waiting query on
+ * the thread that released it, so every acquired connection is also published on that scheduler; otherwise one thread
+ * ends up running the queries of all the connections in turn.
+ */
+@Component
+@ConditionalOnReactiveRead
+public class ReactiveDatabase implements DisposableBean, MeterBinder {
+
+    private final ConnectionPool connectionPool;
+
+    private final Scheduler scheduler;
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveDatabase(@Value("${spring.datasource.url}") String url,
+                            @Value("${spring.datasource.username:}") String username,
+                            @Value("${spring.datasource.password:}") String password,
+                            @Value("${app.r2dbc.pool.max-size:${spring.datasource.hikari.maximum-pool-size:10}}") int maxSize,
+                            @Value("${app.r2dbc.pool.max-pending:1000}") int maxPending,
+                            @Value("${app.r2dbc.pool.acquire-timeout:${app.datasource.acquire-timeout:30s}}") Duration acquireTimeout) {
+        H2ConnectionConfiguration configuration = H2ConnectionConfiguration.builder()
+                .url(url.substring(OnReactiveReadCondition.H2_JDBC_PREFIX.length()))
+                .username(username)
+                .password(password)
+                .build();
+        this.scheduler = Schedulers.newBoundedElastic(maxSize, maxPending, "r2dbc-h2");
+        this.connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(new H2ConnectionFactory(configuration))
+                .name("empdept-r2dbc")
+                .initialSize(1)
+                .maxSize(maxSize)
+                .maxAcquireTime(acquireTimeout)
+                .allocatorSubscribeOn(scheduler)
+                .build());
+        this.databaseClient = DatabaseClient.create(new ConnectionFactory() {
+            @Override
+            public Publisher<? extends Connection> create() {
+                return Mono.from(connectionPool.create()).publishOn(scheduler);
+            }
+
+            @Override
+            public ConnectionFactoryMetadata getMetadata() {
+                return connectionPool.getMetadata();
+            }
+        });
+    }
+
+    public DatabaseClient getDatabaseClient() {
+        return databaseClient;
+    }
+
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        connectionPool.getMetrics().ifPresent(metrics -> {
+            Gauge.builder("r2dbc.pool.acquired", metrics, PoolMetrics::acquiredSize).register(registry);
+            Gauge.builder("r2dbc.pool.idle", metrics, PoolMetrics::idleSize).register(registry);
+            Gauge.builder("r2dbc.pool.pending", metrics, PoolMetrics::pendingAcquireSize).register(registry);
+        });
+    }
+
+    @Override
+    public void destroy() {
+        connectionPool.dispose();
+        scheduler.dispose();
+    }
+}
@@ -0,0 +1,95 @@
+package com.wtg.mohanbootcamp.persistence;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Local Caffeine backed JCache regions for the Hibernate second-level cache. Every region is created up front from
+ * {@link SecondLevelCacheProperties}, and Hibernate is configured to fail on regions that are not configured.
+ */
+@Configuration
+@EnableConfigurationProperties(SecondLevelCacheProperties.class)
+public class SecondLevelCacheConfig {
+
+    /**
+     * JCache shares managers per URI, so each application context gets its own URI and therefore its own regions.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(SecondLevelCacheProperties properties) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        URI uri = URI.create("urn:second-level-cache:" + UUID.randomUUID());
+        CacheManager cacheManager = provider.getCacheManager(uri, getClass().getClassLoader());
+        properties.getRegions().forEach((name, region) -> {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(region.getMaxSize()));
+            if (region.getTimeToLive() != null) {
+                configuration.setExpireAfterWrite(OptionalLong.of(region.getTimeToLive().toNanos()));
+            }
+            cacheManager.createCache(name, configuration);
+        });
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    /**
+     * Exports hit and miss counts and the hit ratio of every configured region from the Hibernate statistics.
+     */
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(EntityManagerFactory entityManagerFactory, SecondLevelCacheProperties properties) {
+        return registry -> {
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            for (String region : properties.getRegions().keySet()) {
+                FunctionCounter.builder("hibernate.second.level.cache.requests", statistics, regionStatistic(region, CacheRegionStatistics::getHitCount))
+                        .tag("region", region)
+                        .tag("result", "hit")
+                        .register(registry);
+                FunctionCounter.builder("hibernate.second.level.cache.requests", statistics, regionStatistic(region, CacheRegionStatistics::getMissCount))
+                        .tag("region", region)
+                        .tag("result", "miss")
+                        .register(registry);
+                Gauge.builder("hibernate.second.level.cache.hit.ratio", statistics, regionStatistic(region, SecondLevelCacheConfig::hitRatio))
+                        .tag("region", region)
+                        .register(registry);
+            }
+        };
+    }
+
+    private static ToDoubleFunction<Statistics> regionStatistic(String region, ToDoubleFunction<CacheRegionStatistics> statistic) {
+        return statistics -> {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            return regionStatistics == null ? 0 : statistic.applyAsDouble(regionStatistics);
+        };
+    }
+
+    private static double hitRatio(CacheRegionStatistics statistics) {
+        long requests = statistics.getHitCount() + statistics.getMissCount();
+        return requests == 0 ? 0 : (double) statistics.getHitCount() / requests;
+    }
+}
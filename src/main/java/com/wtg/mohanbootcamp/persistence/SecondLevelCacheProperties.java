@@ -0,0 +1,27 @@
+package com.wtg.mohanbootcamp.persistence;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size and time to live of each Hibernate second-level cache region, keyed by region name.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.cache")
+public class SecondLevelCacheProperties {
+
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Region {
+        private long maxSize = 1000;
+        private Duration timeToLive;
+    }
+}
@@ -0,0 +1,128 @@
+package com.wtg.mohanbootcamp.persistence;
+
+import liquibase.integration.spring.SpringLiquibase;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Skips Liquibase at startup when the changelogs and their parameters hash to the value recorded after the last
+ * successful run. Liquibase would otherwise take its lock, parse every changelog and compare every checksum with
+ * {@code DATABASECHANGELOG} on each start, only to find nothing to apply. Only for databases that are changed
+ * through these changelogs alone.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.liquibase.skip-unchanged", havingValue = "true")
+public class UnchangedChangelogSkipper implements BeanPostProcessor {
+
+    static final String HASH_TABLE = "CHANGELOG_HASH";
+
+    private final Environment environment;
+
+    private final String changelogResources;
+
+    private final Map<String, String> pendingHashes = new HashMap<>();
+
+    public UnchangedChangelogSkipper(Environment environment,
+                                     @Value("${app.liquibase.changelog-resources:classpath*:db/changelog/**/*.yaml}") String changelogResources) {
+        this.environment = environment;
+        this.changelogResources = changelogResources;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+        if (bean instanceof SpringLiquibase liquibase && environment.getProperty("spring.liquibase.enabled", Boolean.class, true)) {
+            String hash = hash(liquibase);
+            if (hash.equals(recordedHash(new JdbcTemplate(liquibase.getDataSource())))) {
+                log.info("Changelogs unchanged since the last migration, skipping Liquibase");
+                liquibase.setShouldRun(false);
+            } else {
+                pendingHashes.put(beanName, hash);
+            }
+        }
+        return bean;
+    }
+
+    /**
+     * Liquibase has run successfully by now, a failed migration would have failed the bean.
+     */
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        String hash = pendingHashes.remove(beanName);
+        if (hash != null && bean instanceof SpringLiquibase liquibase) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(liquibase.getDataSource());
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + HASH_TABLE + " (HASH VARCHAR(64) NOT NULL)");
+            jdbcTemplate.update("DELETE FROM " + HASH_TABLE);
+            jdbcTemplate.update("INSERT INTO " + HASH_TABLE + " (HASH) VALUES (?)", hash);
+        }
+        return bean;
+    }
+
+    private String recordedHash(JdbcTemplate jdbcTemplate) {
+        try {
+            return jdbcTemplate.queryForList("SELECT HASH FROM " + HASH_TABLE, String.class).stream().findFirst().orElse(null);
+        } catch (DataAccessException e) {
+            return null;  // Not migrated with this skipper before
+        }
+    }
+
+    /**
+     * Covers the content of every changelog file and everything that selects or parameterizes changesets.
+     */
+    String hash(SpringLiquibase liquibase) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            Resource[] resources = new PathMatchingResourcePatternResolver().getResources(changelogResources);
+            Arrays.sort(resources, Comparator.comparing(UnchangedChangelogSkipper::path));
+            for (Resource resource : resources) {
+                digest.update(path(resource).getBytes(StandardCharsets.UTF_8));
+                try (InputStream content = resource.getInputStream()) {
+                    digest.update(content.readAllBytes());
+                }
+            }
+            Map<String, String> parameters = Binder.get(environment)
+                    .bind("spring.liquibase.parameters", Bindable.mapOf(String.class, String.class))
+                    .orElse(Map.of());
+            String settings = liquibase.getChangeLog() + '|' + liquibase.getContexts() + '|' + liquibase.getLabelFilter() + '|'
+                    + new TreeMap<>(parameters);
+            digest.update(settings.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read the changelogs", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * File name only, the same changelogs hash the same from a directory and from the packaged jar.
+     */
+    private static String path(Resource resource) {
+        return Objects.requireNonNullElse(resource.getFilename(), "");
+    }
+}
@@ -0,0 +1,79 @@
+package com.wtg.mohanbootcamp.service;
+
+import com.wtg.mohanbootcamp.persistence.ChangeEvent;
+import com.wtg.mohanbootcamp.persistence.ChangeEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Keeps the change outbox bounded. Events older than {@code app.changes.compact-after} are compacted: only the
+ * latest event of each entity is kept, so the log start is a snapshot of the current state and a new consumer reads
+ * each entity once. Deletion events are kept for {@code app.changes.retention} so consumers can catch up on them,
+ * then purged, and consumers behind the purged offset get a 410 telling them to resynchronize in full.
+ * Works in batches of {@code app.changes.compaction-batch-size} offsets, each statement in its own transaction.
+ */
+@Slf4j
+@Component
+public class ChangeEventCompactor {
+
+    private final ChangeEventRepository changeEventRepository;
+
+    private final Duration compactAfter;
+
+    private final Duration retention;
+
+    private final int batchSize;
+
+    public ChangeEventCompactor(ChangeEventRepository changeEventRepository,
+                                @Value("${app.changes.compact-after:1h}") Duration compactAfter,
+                                @Value("${app.changes.retention:7d}") Duration retention,
+                                @Value("${app.changes.compaction-batch-size:10000}") int batchSize) {
+        this.changeEventRepository = changeEventRepository;
+        this.compactAfter = compactAfter;
+        this.retention = retention;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${app.changes.compaction-interval:PT10M}", initialDelayString = "${app.changes.compaction-interval:PT10M}")
+    public void compact() {
+        compact(Instant.now());
+    }
+
+    /**
+     * Each event after the compacted offset deletes the older events of its entity through the entity index, so a
+     * run only reads the events appended since the previous one.
+     */
+    void compact(Instant now) {
+        long compactThrough = changeEventRepository.findLastOffsetBefore(now.minus(compactAfter));
+        long compactedThrough = changeEventRepository.findCompactedThrough();
+        long compacted = 0;
+        while (compactedThrough < compactThrough) {
+            List<ChangeEvent> events = changeEventRepository.findAfter(compactedThrough, batchSize).stream()
+                    .filter(event -> event.getOffset() <= compactThrough)
+                    .toList();
+            if (events.isEmpty()) {
+                break;
+            }
+            changeEventRepository.deleteSupersededBy(events);
+            compactedThrough = events.get(events.size() - 1).getOffset();
+            changeEventRepository.updateCompactedThrough(compactedThrough);
+            compacted += events.size();
+        }
+
+        long purgeThrough = Math.min(compactedThrough, changeEventRepository.findLastOffsetBefore(now.minus(retention)));
+        long purgedThrough = changeEventRepository.findPurgedThrough();
+        for (long from = purgedThrough; from < purgeThrough; from += batchSize) {
+            long lastPurged = changeEventRepository.deleteTombstones(from, Math.min(from + batchSize, purgeThrough));
+            if (lastPurged > 0) {
+                changeEventRepository.updatePurgedThrough(lastPurged);
+            }
+        }
+        log.debug("Compacted {} change events, purged deletions through offset {}", compacted, purgeThrough);
+    }
+}
@@ -0,0 +1,19 @@
+package com.wtg.mohanbootcamp.service;
+
+import java.security.InvalidParameterException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+public interface ChangeFeedService {
+
+    /**
+     * Up to {@code limit} change events after the {@code since} offset, 0 reads from the start of the log.
+     */
+    ChangePage getChanges(long since, int limit) throws InvalidParameterException, ChangesExpiredException;
+
+    /**
+     * Like {@link #getChanges}, but when there is nothing after {@code since} waits up to {@code wait} for the next
+     * commit before completing, with an empty page if none came.
+     */
+    CompletableFuture<ChangePage> awaitChanges(long since, int limit, Duration wait) throws InvalidParameterException, ChangesExpiredException;
+}
@@ -0,0 +1,115 @@
+package com.wtg.mohanbootcamp.service;
+
+import com.wtg.mohanbootcamp.persistence.ChangeEvent;
+import com.wtg.mohanbootcamp.persistence.ChangeEventRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.security.InvalidParameterException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves the change feed from the outbox. The offset up to which every event has been committed is kept in memory,
+ * so consumers that are up to date are answered, or parked, without a query, and no page reaches past it. Parked consumers are woken by the next commit and read on the
+ * application task executor, not on the committing thread.
+ */
+@Service
+@Timed(value = "service.calls", histogram = true)
+public class ChangeFeedServiceImpl implements ChangeFeedService, SmartInitializingSingleton, MeterBinder {
+
+    static final int MAX_LIMIT = 1000;
+
+    /**
+     * Stays below the default async request timeout of the servlet container.
+     */
+    static final Duration MAX_WAIT = Duration.ofSeconds(25);
+
+    private final ChangeEventRepository changeEventRepository;
+
+    private final Executor executor;
+
+    private final Set<CompletableFuture<Void>> waiters = ConcurrentHashMap.newKeySet();
+
+    private volatile long lastOffset;
+
+    public ChangeFeedServiceImpl(ChangeEventRepository changeEventRepository,
+                                 @Qualifier("applicationTaskExecutor") Executor executor) {
+        this.changeEventRepository = changeEventRepository;
+        this.executor = executor;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        lastOffset = Math.max(lastOffset, changeEventRepository.findLastOffset());
+    }
+
+    @Override
+    public ChangePage getChanges(long since, int limit) throws InvalidParameterException, ChangesExpiredException {
+        validate(since, limit);
+        if (since >= lastOffset) {
+            return new ChangePage(List.of(), since);
+        }
+        if (since > 0 && since < changeEventRepository.findPurgedThrough()) {
+            throw new ChangesExpiredException("Changes since " + since + " are no longer available, resynchronize in full");
+        }
+        List<ChangeEvent> events = changeEventRepository.findAfter(since, lastOffset, limit);
+        return new ChangePage(events, events.isEmpty() ? since : events.get(events.size() - 1).getOffset());
+    }
+
+    @Override
+    public CompletableFuture<ChangePage> awaitChanges(long since, int limit, Duration wait) throws InvalidParameterException, ChangesExpiredException {
+        validate(since, limit);
+        if (wait.isNegative() || wait.compareTo(MAX_WAIT) > 0) {
+            throw new InvalidParameterException("Wait must be between 0 and " + MAX_WAIT.toSeconds() + " seconds");
+        }
+        if (since < lastOffset || wait.isZero()) {
+            return CompletableFuture.completedFuture(getChanges(since, limit));
+        }
+
+        CompletableFuture<Void> waiter = new CompletableFuture<>();
+        waiters.add(waiter);
+        // A commit between the check above and registering would not have woken this waiter
+        if (since < lastOffset) {
+            waiter.complete(null);
+        }
+        waiter.completeOnTimeout(null, wait.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((ignored, ex) -> waiters.remove(waiter));
+        return waiter.thenApplyAsync(ignored -> getChanges(since, limit), executor);
+    }
+
+    @EventListener
+    public void onChangesAppended(ChangesAppendedEvent event) {
+        synchronized (this) {
+            lastOffset = Math.max(lastOffset, event.getLastOffset());
+        }
+        for (CompletableFuture<Void> waiter : waiters) {
+            waiter.complete(null);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("changes.feed.waiters", waiters, Set::size).register(registry);
+    }
+
+    private void validate(long since, int limit) throws InvalidParameterException {
+        if (since < 0) {
+            throw new InvalidParameterException("Since can't be negative");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new InvalidParameterException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.wtg.mohanbootcamp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wtg.mohanbootcamp.persistence.ChangeEvent;
+import com.wtg.mohanbootcamp.persistence.ChangeEventRepository;
+import com.wtg.mohanbootcamp.persistence.Department;
+import com.wtg.mohanbootcamp.persistence.Employee;
+import com.wtg.mohanbootcamp.persistence.EmployeeJdbcRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Appends a {@link ChangeEvent} for every employee and department change to the change outbox, in the transaction
+ * that made the change. The events of a transaction are collected while it runs and inserted as one batch just
+ * before it commits. Transactions commit concurrently, so one may commit its offsets before another that allocated
+ * lower ones. The outbox keeps the first offset of each transaction still in flight and publishes, in a
+ * {@link ChangesAppendedEvent}, only the offsets below all of them: a consumer that has read up to a published offset
+ * never misses an event committed later with a lower one. Only the offset allocation itself is serialized.
+ */
+@Component
+public class ChangeOutbox implements MeterBinder {
+
+    /**
+     * Employee ids per query when loading the employees changed by a bulk membership write or a department deletion.
+     */
+    static final int LOAD_CHUNK_SIZE = 1000;
+
+    private final ChangeEventRepository changeEventRepository;
+
+    private final EmployeeJdbcRepository employeeJdbcRepository;
+
+    private final EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    /**
+     * Held while offsets are allocated and registered as in flight, so no offset is allocated without being in
+     * {@link #inFlight} until its transaction completes.
+     */
+    private final ReentrantLock allocation = new ReentrantLock();
+
+    private final NavigableSet<Long> inFlight = new ConcurrentSkipListSet<>();
+
+    private volatile long allocatedThrough;
+
+    public ChangeOutbox(ChangeEventRepository changeEventRepository,
+                        EmployeeJdbcRepository employeeJdbcRepository,
+                        EntityManager entityManager,
+                        ObjectMapper objectMapper,
+                        ApplicationEventPublisher applicationEventPublisher) {
+        this.changeEventRepository = changeEventRepository;
+        this.employeeJdbcRepository = employeeJdbcRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    @EventListener
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        if (event.isDeleted()) {
+            append(List.of(deleted(ChangeEvent.EMPLOYEE, event.getId())));
+            return;
+        }
+        Map<String, Object> payload = employeePayload(event.getId(), event.getNameFirst(), event.getNameLast(), event.getVersion(),
+                event.getDepartmentIds().stream().sorted().toList());
+        append(List.of(saved(ChangeEvent.EMPLOYEE, event.getId(), event.getVersion(), payload)));
+    }
+
+    /**
+     * A deleted department is followed by the new state of each of its members, see {@link ChangeEvent}.
+     */
+    @EventListener
+    public void onDepartmentChanged(DepartmentChangedEvent event) {
+        if (event.isDeleted()) {
+            List<ChangeEvent> events = new ArrayList<>(event.getMemberIds().size() + 1);
+            events.add(deleted(ChangeEvent.DEPARTMENT, event.getId()));
+            events.addAll(employeesSaved(event.getMemberIds()));
+            append(events);
+        } else {
+            append(List.of(saved(ChangeEvent.DEPARTMENT, event.getId(), null, event.getDepartment())));
+        }
+    }
+
+    @EventListener
+    public void onDepartmentMembersChanged(DepartmentMembersChangedEvent event) {
+        append(employeesSaved(event.getEmployeeIds()));
+    }
+
+    /**
+     * Reads the employees after the membership statements, in the same transaction, so they carry the new versions.
+     */
+    private List<ChangeEvent> employeesSaved(List<Long> employeeIds) {
+        List<ChangeEvent> events = new ArrayList<>(employeeIds.size());
+        for (int from = 0; from < employeeIds.size(); from += LOAD_CHUNK_SIZE) {
+            List<Long> chunk = employeeIds.subList(from, Math.min(from + LOAD_CHUNK_SIZE, employeeIds.size()));
+            employeeJdbcRepository.streamWithDepartmentsByIdIn(chunk, employee -> {
+                List<Long> departmentIds = employee.getDepartments().stream().map(Department::getId).sorted().toList();
+                events.add(saved(ChangeEvent.EMPLOYEE, employee.getId(), employee.getVersion(), employeePayload(employee, departmentIds)));
+            });
+        }
+        return events;
+    }
+
+    private void append(List<ChangeEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<Long> offsets = allocate(events.size());
+            try {
+                changeEventRepository.insertAll(events, offsets);
+            } finally {
+                complete(offsets.get(0));
+            }
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<ChangeEvent> pending = (List<ChangeEvent>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(new OutboxSynchronization(pending));
+        }
+        pending.addAll(events);
+    }
+
+    /**
+     * Allocates the offsets and registers the first one as in flight.
+     */
+    private List<Long> allocate(int count) {
+        allocation.lock();
+        try {
+            List<Long> offsets = changeEventRepository.nextOffsets(count);
+            inFlight.add(offsets.get(0));
+            allocatedThrough = Math.max(allocatedThrough, offsets.get(offsets.size() - 1));
+            return offsets;
+        } finally {
+            allocation.unlock();
+        }
+    }
+
+    /**
+     * Called once the transaction holding the offsets from {@code firstOffset} has committed or rolled back. Either
+     * way the offsets below the remaining transactions in flight can now be read.
+     */
+    private void complete(long firstOffset) {
+        inFlight.remove(firstOffset);
+        applicationEventPublisher.publishEvent(new ChangesAppendedEvent(visibleThrough()));
+    }
+
+    /**
+     * Highest offset below which no transaction is in flight. {@link #allocatedThrough} is read first: an offset at
+     * or below it was registered before it was raised and is in {@link #inFlight} until its transaction completes.
+     */
+    long visibleThrough() {
+        long allocated = allocatedThrough;
+        Long first = inFlight.isEmpty() ? null : inFlight.first();
+        return first == null ? allocated : Math.min(allocated, first - 1);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("change.outbox.commits.in.flight", inFlight, NavigableSet::size).register(registry);
+        Gauge.builder("change.outbox.offsets.invisible", this, outbox -> outbox.allocatedThrough - outbox.visibleThrough()).register(registry);
+    }
+
+    private static ChangeEvent deleted(String entityType, Long entityId) {
+        return ChangeEvent.builder()
+                .entityType(entityType)
+                .entityId(entityId)
+                .operation(ChangeEvent.DELETED)
+                .createdAt(Instant.now())
+                .build();
+    }
+
+    private ChangeEvent saved(String entityType, Long entityId, Long version, Object payload) {
+        try {
+            return ChangeEvent.builder()
+                    .entityType(entityType)
+                    .entityId(entityId)
+                    .operation(ChangeEvent.SAVED)
+                    .version(version)
+                    .payload(objectMapper.writeValueAsString(payload))
+                    .createdAt(Instant.now())
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Change event payload could not be written", e);
+        }
+    }
+
+    private static Map<String, Object> employeePayload(Employee employee, List<Long> departmentIds) {
+        return employeePayload(employee.getId(), employee.getNameFirst(), employee.getNameLast(), employee.getVersion(), departmentIds);
+    }
+
+    private static Map<String, Object> employeePayload(Long id, String nameFirst, String nameLast, Long version, List<Long> departmentIds) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", id);
+        payload.put("nameFirst", nameFirst);
+        payload.put("nameLast", nameLast);
+        payload.put("version", version);
+        payload.put("departmentIds", departmentIds);
+        return payload;
+    }
+
+    /**
+     * Runs after the other synchronizations' {@code beforeCommit}, and flushes the persistence context before
+     * allocating the offsets, so a transaction is only in flight for the outbox insert and the commit itself.
+     */
+    private class OutboxSynchronization implements TransactionSynchronization {
+
+        private final List<ChangeEvent> pending;
+
+        private Long firstOffset;
+
+        OutboxSynchronization(List<ChangeEvent> pending) {
+            this.pending = pending;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            entityManager.flush();
+            List<Long> offsets = allocate(pending.size());
+            firstOffset = offsets.get(0);
+            changeEventRepository.insertAll(pending, offsets);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ChangeOutbox.this);
+            if (firstOffset != null) {
+                complete(firstOffset);
+            }
+        }
+    }
+}
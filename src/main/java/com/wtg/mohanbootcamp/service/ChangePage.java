@@ -0,0 +1,17 @@
+package com.wtg.mohanbootcamp.service;
+
+import com.wtg.mohanbootcamp.persistence.ChangeEvent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Change events in offset order. {@code next} is the offset to continue from, the requested one when there are none.
+ */
+@Getter
+@AllArgsConstructor
+public class ChangePage {
+    private List<ChangeEvent> events;
+    private long next;
+}
@@ -0,0 +1,14 @@
+package com.wtg.mohanbootcamp.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published once every change event up to {@code lastOffset} has been committed to the change outbox, or rolled
+ * back. Consumers may read up to it without missing a later commit.
+ */
+@Getter
+@AllArgsConstructor
+public class ChangesAppendedEvent {
+    private long lastOffset;
+}
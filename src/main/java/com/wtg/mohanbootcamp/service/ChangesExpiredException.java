@@ -0,0 +1,11 @@
+package com.wtg.mohanbootcamp.service;
+
+/**
+ * Thrown when the requested offset is behind the purged deletion events, the consumer has to resynchronize in full.
+ */
+public class ChangesExpiredException extends RuntimeException {
+
+    public ChangesExpiredException(String message) {
+        super(message);
+    }
+}
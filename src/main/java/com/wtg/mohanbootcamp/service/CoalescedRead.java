@@ -0,0 +1,18 @@
+package com.wtg.mohanbootcamp.service;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a service method that reads the database only through the {@link EntityReadCoalescer}. The
+ * {@link ConnectionConcurrencyLimiter} leaves it out and takes its permit around the shared load instead, so callers
+ * waiting for a load already in flight hold no permit.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CoalescedRead {
+}
@@ -0,0 +1,104 @@
+package com.wtg.mohanbootcamp.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Bounds the number of concurrent service calls to the size of the connection pool when requests run on virtual
+ * threads. Tomcat's platform thread pool used to cap this implicitly, without it every blocked request would queue
+ * inside Hikari and fail with a connection timeout instead of waiting here. {@link CoalescedRead} methods are left
+ * out; the {@link EntityReadCoalescer} takes the permit around the load it shares.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class ConnectionConcurrencyLimiter implements MeterBinder {
+
+    private final Semaphore permits;
+
+    private final int limit;
+
+    private final Duration acquireTimeout;
+
+    /**
+     * Service calls nested in a call that already holds a permit must not take a second one.
+     */
+    private final ThreadLocal<Boolean> holdsPermit = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    public ConnectionConcurrencyLimiter(@Value("${app.datasource.concurrency-limit:${spring.datasource.hikari.maximum-pool-size:10}}") int limit,
+                                        @Value("${app.datasource.acquire-timeout:30s}") Duration acquireTimeout) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Concurrency limit must be at least 1");
+        }
+        this.permits = new Semaphore(limit, true);
+        this.limit = limit;
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    @Around("execution(public * com.wtg.mohanbootcamp.service.*ServiceImpl.*(..)) && !@annotation(com.wtg.mohanbootcamp.service.CoalescedRead)")
+    public Object limit(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (holdsPermit.get()) {
+            return joinPoint.proceed();
+        }
+        acquire();
+        holdsPermit.set(Boolean.TRUE);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            holdsPermit.remove();
+            permits.release();
+        }
+    }
+
+    /**
+     * Runs {@code call} holding a permit, for database access outside the service calls above.
+     */
+    public <T> T limit(Supplier<T> call) {
+        if (holdsPermit.get()) {
+            return call.get();
+        }
+        acquire();
+        holdsPermit.set(Boolean.TRUE);
+        try {
+            return call.get();
+        } finally {
+            holdsPermit.remove();
+            permits.release();
+        }
+    }
+
+    private void acquire() {
+        try {
+            if (!permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new CannotGetJdbcConnectionException("No database connection available within " + acquireTimeout);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CannotGetJdbcConnectionException("Interrupted while waiting for a database connection");
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("service.concurrency.limit", () -> limit).register(registry);
+        Gauge.builder("service.concurrency.active", permits, semaphore -> limit - semaphore.availablePermits()).register(registry);
+        Gauge.builder("service.concurrency.queued", permits, Semaphore::getQueueLength).register(registry);
+    }
+}
@@ -0,0 +1,33 @@
+package com.wtg.mohanbootcamp.service;
+
+import com.wtg.mohanbootcamp.persistence.Department;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Published when a department is created, updated or deleted. {@code department} is null for a deleted department,
+ * which was removed from all its members with their versions bumped by one; {@code memberIds} are those members and
+ * {@code orphanedMembers} counts the ones left without any department.
+ */
+@Getter
+@AllArgsConstructor
+public class DepartmentChangedEvent {
+    private Long id;
+    private DepartmentView department;
+    private List<Long> memberIds;
+    private long orphanedMembers;
+
+    public static DepartmentChangedEvent saved(Department department) {
+        return new DepartmentChangedEvent(department.getId(), DepartmentView.from(department), List.of(), 0);
+    }
+
+    public static DepartmentChangedEvent deleted(Long id, List<Long> memberIds, long orphanedMembers) {
+        return new DepartmentChangedEvent(id, null, List.copyOf(memberIds), orphanedMembers);
+    }
+
+    public boolean isDeleted() {
+        return department == null;
+    }
+}
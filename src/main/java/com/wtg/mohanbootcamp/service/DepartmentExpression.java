@@ -0,0 +1,201 @@
+package com.wtg.mohanbootcamp.service;
+
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+
+import java.security.InvalidParameterException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.LongFunction;
+
+/**
+ * Boolean expression over department ids, such as {@code 3 AND (5 OR 8) AND NOT 13}, evaluated to the bitmap of the
+ * employees it selects. {@code NOT} binds tighter than {@code AND}, which binds tighter than {@code OR}; the operators
+ * are case insensitive. Evaluation never modifies the bitmaps it is given.
+ */
+sealed interface DepartmentExpression {
+
+    int MAX_LENGTH = 1000;
+
+    /**
+     * @param members   the members of a department, or null when it does not exist
+     * @param employees every employee, the universe a {@code NOT} is taken against
+     */
+    Roaring64Bitmap evaluate(LongFunction<Roaring64Bitmap> members, Roaring64Bitmap employees);
+
+    void collectDepartmentIds(Set<Long> departmentIds);
+
+    default Set<Long> departmentIds() {
+        Set<Long> departmentIds = new TreeSet<>();
+        collectDepartmentIds(departmentIds);
+        return departmentIds;
+    }
+
+    static DepartmentExpression parse(String expression) throws InvalidParameterException {
+        if (expression == null || expression.isBlank()) {
+            throw new InvalidParameterException("Query expression is required");
+        }
+        if (expression.length() > MAX_LENGTH) {
+            throw new InvalidParameterException("Query expression must be at most " + MAX_LENGTH + " characters");
+        }
+        return new Parser(expression).parse();
+    }
+
+    record Department(long id) implements DepartmentExpression {
+
+        @Override
+        public Roaring64Bitmap evaluate(LongFunction<Roaring64Bitmap> members, Roaring64Bitmap employees) {
+            Roaring64Bitmap departmentMembers = members.apply(id);
+            return departmentMembers == null ? new Roaring64Bitmap() : departmentMembers;
+        }
+
+        @Override
+        public void collectDepartmentIds(Set<Long> departmentIds) {
+            departmentIds.add(id);
+        }
+    }
+
+    record Not(DepartmentExpression operand) implements DepartmentExpression {
+
+        @Override
+        public Roaring64Bitmap evaluate(LongFunction<Roaring64Bitmap> members, Roaring64Bitmap employees) {
+            return Roaring64Bitmap.andNot(employees, operand.evaluate(members, employees));
+        }
+
+        @Override
+        public void collectDepartmentIds(Set<Long> departmentIds) {
+            operand.collectDepartmentIds(departmentIds);
+        }
+    }
+
+    /**
+     * {@code a AND NOT b} is evaluated as one difference, without the complement of {@code b}.
+     */
+    record And(DepartmentExpression left, DepartmentExpression right) implements DepartmentExpression {
+
+        @Override
+        public Roaring64Bitmap evaluate(LongFunction<Roaring64Bitmap> members, Roaring64Bitmap employees) {
+            if (right instanceof Not not) {
+                return Roaring64Bitmap.andNot(left.evaluate(members, employees), not.operand().evaluate(members, employees));
+            }
+            if (left instanceof Not not) {
+                return Roaring64Bitmap.andNot(right.evaluate(members, employees), not.operand().evaluate(members, employees));
+            }
+            return Roaring64Bitmap.and(left.evaluate(members, employees), right.evaluate(members, employees));
+        }
+
+        @Override
+        public void collectDepartmentIds(Set<Long> departmentIds) {
+            left.collectDepartmentIds(departmentIds);
+            right.collectDepartmentIds(departmentIds);
+        }
+    }
+
+    record Or(DepartmentExpression left, DepartmentExpression right) implements DepartmentExpression {
+
+        @Override
+        public Roaring64Bitmap evaluate(LongFunction<Roaring64Bitmap> members, Roaring64Bitmap employees) {
+            return Roaring64Bitmap.or(left.evaluate(members, employees), right.evaluate(members, employees));
+        }
+
+        @Override
+        public void collectDepartmentIds(Set<Long> departmentIds) {
+            left.collectDepartmentIds(departmentIds);
+            right.collectDepartmentIds(departmentIds);
+        }
+    }
+
+    /**
+     * Recursive descent over the tokens: {@code or := and (OR and)*}, {@code and := not (AND not)*},
+     * {@code not := NOT not | id | ( or )}.
+     */
+    final class Parser {
+
+        private final List<String> tokens = new ArrayList<>();
+
+        private int position;
+
+        private Parser(String expression) {
+            StringBuilder token = new StringBuilder();
+            for (char c : expression.toCharArray()) {
+                if (Character.isWhitespace(c) || c == '(' || c == ')') {
+                    if (!token.isEmpty()) {
+                        tokens.add(token.toString().toUpperCase(Locale.ROOT));
+                        token.setLength(0);
+                    }
+                    if (!Character.isWhitespace(c)) {
+                        tokens.add(String.valueOf(c));
+                    }
+                } else {
+                    token.append(c);
+                }
+            }
+            if (!token.isEmpty()) {
+                tokens.add(token.toString().toUpperCase(Locale.ROOT));
+            }
+        }
+
+        private DepartmentExpression parse() {
+            DepartmentExpression expression = parseOr();
+            if (position < tokens.size()) {
+                throw unexpected();
+            }
+            return expression;
+        }
+
+        private DepartmentExpression parseOr() {
+            DepartmentExpression expression = parseAnd();
+            while (accept("OR")) {
+                expression = new Or(expression, parseAnd());
+            }
+            return expression;
+        }
+
+        private DepartmentExpression parseAnd() {
+            DepartmentExpression expression = parseNot();
+            while (accept("AND")) {
+                expression = new And(expression, parseNot());
+            }
+            return expression;
+        }
+
+        private DepartmentExpression parseNot() {
+            if (accept("NOT")) {
+                return new Not(parseNot());
+            }
+            if (accept("(")) {
+                DepartmentExpression expression = parseOr();
+                if (!accept(")")) {
+                    throw unexpected();
+                }
+                return expression;
+            }
+            if (position == tokens.size()) {
+                throw unexpected();
+            }
+            try {
+                long id = Long.parseLong(tokens.get(position));
+                position++;
+                return new Department(id);
+            } catch (NumberFormatException e) {
+                throw unexpected();
+            }
+        }
+
+        private boolean accept(String token) {
+            if (position < tokens.size() && tokens.get(position).equals(token)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private InvalidParameterException unexpected() {
+            return new InvalidParameterException(position < tokens.size()
+                    ? "Unexpected '" + tokens.get(position) + "' in query expression"
+                    : "Query expression ends unexpectedly");
+        }
+    }
+}
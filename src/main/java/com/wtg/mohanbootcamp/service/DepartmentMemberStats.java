@@ -0,0 +1,12 @@
+package com.wtg.mohanbootcamp.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class DepartmentMemberStats {
+    private Long id;
+    private String name;
+    private long members;
+}
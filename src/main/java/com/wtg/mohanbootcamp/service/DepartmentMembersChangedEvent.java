@@ -0,0 +1,20 @@
+package com.wtg.mohanbootcamp.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Published when employees are added to or removed from a department in bulk, with the ids of the employees whose
+ * membership changed. Their versions were bumped by one. {@code unassigned} counts the employees among them that had
+ * no department before being added, or have none left after being removed.
+ */
+@Getter
+@AllArgsConstructor
+public class DepartmentMembersChangedEvent {
+    private Long departmentId;
+    private boolean added;
+    private List<Long> employeeIds;
+    private long unassigned;
+}
@@ -0,0 +1,16 @@
+package com.wtg.mohanbootcamp.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of a bulk membership change: {@code changed} excludes the requested employees that were already members,
+ * or already not members.
+ */
+@Getter
+@AllArgsConstructor
+public class DepartmentMembersResult {
+    private Long departmentId;
+    private int requested;
+    private int changed;
+}
@@ -0,0 +1,192 @@
+package com.wtg.mohanbootcamp.service;
+
+import com.wtg.mohanbootcamp.persistence.EmployeeJdbcRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.roaringbitmap.longlong.PeekableLongIterator;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * One compressed bitmap of employee ids per department, plus one of every employee, so set algebra over department
+ * memberships never reads the membership table. Loaded once at startup and then maintained from the committed
+ * {@link EmployeeChangedEvent}s, {@link DepartmentChangedEvent}s and {@link DepartmentMembersChangedEvent}s.
+ * Queries share a read lock and run concurrently; events take the write lock.
+ */
+@Component
+@RequiredArgsConstructor
+public class DepartmentMembershipIndex implements SmartInitializingSingleton, MeterBinder {
+
+    private static final double MILLION = 1_000_000d;
+
+    private final EmployeeJdbcRepository employeeJdbcRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Roaring64Bitmap> departments = new HashMap<>();
+
+    private final Roaring64Bitmap employees = new Roaring64Bitmap();
+
+    /**
+     * Runs before the web server accepts requests, so no write can race the initial load. Every department gets a
+     * bitmap, an empty department is as queryable after a restart as it was after it was created.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            employeeJdbcRepository.streamAllIds(employees::addLong);
+            employeeJdbcRepository.streamAllDepartmentIds(this::members);
+            employeeJdbcRepository.streamAllMemberships((departmentId, employeeId) -> members(departmentId).addLong(employeeId));
+            employees.runOptimize();
+            departments.values().forEach(Roaring64Bitmap::runOptimize);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Counts the employees selected by {@code expression} and returns up to {@code limit} of their ids greater than
+     * {@code afterId}, in id order. A limit of zero only counts.
+     */
+    public EmployeeQueryResult query(DepartmentExpression expression, long afterId, int limit) throws EntityNotFoundException {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            Set<Long> departmentIds = expression.departmentIds();
+            if (!departments.keySet().containsAll(departmentIds)) {
+                throw new EntityNotFoundException("One or more departments not found");
+            }
+            Roaring64Bitmap selected = expression.evaluate(departments::get, employees);
+            List<Long> ids = new ArrayList<>(Math.min(limit, 64));
+            PeekableLongIterator iterator = selected.getLongIteratorFrom(afterId + 1);
+            while (limit > 0 && ids.size() < limit && iterator.hasNext()) {
+                ids.add(iterator.next());
+            }
+            String nextCursor = !ids.isEmpty() && iterator.hasNext() ? EmployeeCursor.encode(ids.get(ids.size() - 1)) : null;
+            return new EmployeeQueryResult(selected.getLongCardinality(), ids, nextCursor);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    public long getMemberships() {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return departments.values().stream().mapToLong(Roaring64Bitmap::getLongCardinality).sum();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    public long getSizeInBytes() {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return employees.getLongSizeInBytes() + departments.values().stream().mapToLong(Roaring64Bitmap::getLongSizeInBytes).sum();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Heap used by the bitmaps, scaled to one million memberships.
+     */
+    public double getBytesPerMillionMemberships() {
+        long memberships = getMemberships();
+        return memberships == 0 ? 0 : getSizeInBytes() * MILLION / memberships;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            long id = event.getId();
+            for (Long departmentId : event.getPreviousDepartmentIds()) {
+                Roaring64Bitmap members = departments.get(departmentId);
+                if (members != null && !event.getDepartmentIds().contains(departmentId)) {
+                    members.removeLong(id);
+                }
+            }
+            if (event.isDeleted()) {
+                employees.removeLong(id);
+                return;
+            }
+            employees.addLong(id);
+            for (Long departmentId : event.getDepartmentIds()) {
+                members(departmentId).addLong(id);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDepartmentMembersChanged(DepartmentMembersChangedEvent event) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            if (event.isAdded()) {
+                Roaring64Bitmap members = members(event.getDepartmentId());
+                event.getEmployeeIds().forEach(members::addLong);
+                return;
+            }
+            Roaring64Bitmap members = departments.get(event.getDepartmentId());
+            if (members != null) {
+                event.getEmployeeIds().forEach(members::removeLong);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Deleting a department removed its memberships, its bitmap goes with it.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDepartmentChanged(DepartmentChangedEvent event) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            if (event.isDeleted()) {
+                departments.remove(event.getId());
+            } else {
+                members(event.getId());
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("employee.membership.index.memberships", this, DepartmentMembershipIndex::getMemberships).register(registry);
+        Gauge.builder("employee.membership.index.size", this, DepartmentMembershipIndex::getSizeInBytes)
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("employee.membership.index.size.per.million.memberships", this, DepartmentMembershipIndex::getBytesPerMillionMemberships)
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private Roaring64Bitmap members(long departmentId) {
+        return departments.computeIfAbsent(departmentId, id -> new Roaring64Bitmap());
+    }
+}
@@ -1,8 +1,10 @@
 package com.wtg.mohanbootcamp.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.wtg.mohanbootcamp.persistence.Department;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
 
 import java.security.InvalidParameterException;
 import java.util.List;
@@ -15,7 +17,32 @@ public interface DepartmentService {
 
     Department getDepartmentById(Long id) throws EntityNotFoundException;
 
-    Department updateDepartment(Department departmentRequest) throws EntityNotFoundException, UnsupportedOperationException;
+    /**
+     * Overwrites the department. A non-null version in the request must match the stored one.
+     */
+    Department updateDepartment(Department departmentRequest) throws EntityNotFoundException, UnsupportedOperationException, OptimisticLockingFailureException;
+
+    /**
+     * Applies a JSON Merge Patch of {@code name}, {@code readOnly} and {@code mandatory}, writing only the changed
+     * columns. The rules of an update apply to the patched department.
+     */
+    Department patchDepartment(Long id, JsonNode patch) throws EntityNotFoundException, InvalidParameterException, UnsupportedOperationException, DuplicateKeyException, OptimisticLockingFailureException;
 
     Boolean deleteDepartment(Long id) throws EntityNotFoundException, UnsupportedOperationException;
+
+    /**
+     * Adds the employees to the department with set-based statements, without loading or merging them. Employees that
+     * are already members are left unchanged.
+     */
+    DepartmentMembersResult addMembers(Long id, List<Long> employeeIds) throws EntityNotFoundException, UnsupportedOperationException, InvalidParameterException, DuplicateKeyException;
+
+    /**
+     * Removes the employees from the department. Members of a mandatory department cannot be removed.
+     */
+    DepartmentMembersResult removeMembers(Long id, List<Long> employeeIds) throws EntityNotFoundException, UnsupportedOperationException, InvalidParameterException, DuplicateKeyException;
+
+    /**
+     * Served from in-memory counters, it never reads the employees or their memberships.
+     */
+    DepartmentStats getDepartmentStats();
 }
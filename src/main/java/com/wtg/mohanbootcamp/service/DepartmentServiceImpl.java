@@ -1,77 +1,274 @@
 package com.wtg.mohanbootcamp.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.wtg.mohanbootcamp.persistence.Department;
 import com.wtg.mohanbootcamp.persistence.DepartmentRepository;
-import com.wtg.mohanbootcamp.persistence.Employee;
+import com.wtg.mohanbootcamp.persistence.EmployeeRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.security.InvalidParameterException;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
+@Timed(value = "service.calls", histogram = true)
 @RequiredArgsConstructor
 public class DepartmentServiceImpl implements DepartmentService {
 
+    /**
+     * Employee ids per membership statement, keeps the IN lists well below database limits.
+     */
+    static final int MEMBERS_CHUNK_SIZE = 1000;
+
+    private static final Set<String> PATCH_FIELDS = Set.of("id", "version", "name", "readOnly", "mandatory");
+
     private final DepartmentRepository departmentRepository;
 
+    private final EmployeeRepository employeeRepository;
+
+    private final MandatoryDepartmentCache mandatoryDepartmentCache;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final DepartmentStatsCounters departmentStatsCounters;
+
+    private final EntityReadCoalescer entityReadCoalescer;
+
+    @Override
+    @Transactional(readOnly = true)
     public List<Department> getAllDepartments() {
         return departmentRepository.findAll();
     }
 
     @Override
+    @Transactional
     public Department createDepartment(Department department) throws UnsupportedOperationException, InvalidParameterException, DuplicateKeyException {
         if (department.getId() != null) {
             throw new UnsupportedOperationException("Please use update department if id already exist");
         }
         validateMandatoryFields(department);
 
+        department.setVersion(null);
         try {
-            return departmentRepository.save(department);
+            Department createdDepartment = departmentRepository.saveAndFlush(department);
+            mandatoryDepartmentCache.invalidateAfterCommit();
+            applicationEventPublisher.publishEvent(DepartmentChangedEvent.saved(createdDepartment));
+            return createdDepartment;
         } catch (DataIntegrityViolationException e) {
             throw new DuplicateKeyException("Department Name should be unique");
         }
     }
 
+    /**
+     * Concurrent reads of the same department share one lookup, the writes below load their own.
+     */
     @Override
+    @CoalescedRead
     public Department getDepartmentById(Long id) throws EntityNotFoundException {
-        return departmentRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Department Not Found"));
+        return entityReadCoalescer.getDepartment(id, this::findDepartment);
     }
 
+    /**
+     * Flushes inside the method so that a duplicate name or a concurrent change surfaces here rather than at commit.
+     */
     @Override
-    public Department updateDepartment(Department departmentRequest) throws EntityNotFoundException, UnsupportedOperationException {
+    @Transactional
+    public Department updateDepartment(Department departmentRequest) throws EntityNotFoundException, UnsupportedOperationException, OptimisticLockingFailureException {
         validateMandatoryFields(departmentRequest);
 
-        Department existingDepartment = getDepartmentById(departmentRequest.getId());
+        Department existingDepartment = findDepartment(departmentRequest.getId());
+        if (departmentRequest.getVersion() != null && !departmentRequest.getVersion().equals(existingDepartment.getVersion())) {
+            throw new OptimisticLockingFailureException("Department has been modified, reload it and retry");
+        }
         if (departmentRequest.getReadOnly() && existingDepartment.getReadOnly()) {
             throw new UnsupportedOperationException("Cannot modify a readonly department");
         }
 
+        departmentRequest.setVersion(existingDepartment.getVersion());
         try {
-            return departmentRepository.save(departmentRequest);
+            Department updatedDepartment = departmentRepository.saveAndFlush(departmentRequest);
+            mandatoryDepartmentCache.invalidateAfterCommit();
+            applicationEventPublisher.publishEvent(DepartmentChangedEvent.saved(updatedDepartment));
+            return updatedDepartment;
         } catch (DataIntegrityViolationException e) {
             throw new DuplicateKeyException("Department Name should be unique");
         }
     }
 
+    /**
+     * Changes the loaded department in place, so only the changed columns are written. A patch that changes nothing
+     * writes nothing, a read-only department still has to be made writable first.
+     */
     @Override
+    @Transactional
+    public Department patchDepartment(Long id, JsonNode patch) throws EntityNotFoundException, InvalidParameterException, UnsupportedOperationException, DuplicateKeyException, OptimisticLockingFailureException {
+        JsonMergePatch mergePatch = JsonMergePatch.of(patch, PATCH_FIELDS);
+        mergePatch.validateId(id);
+
+        Department department = findDepartment(id);
+        Long version = mergePatch.getLong("version");
+        if (version != null && !version.equals(department.getVersion())) {
+            throw new OptimisticLockingFailureException("Department has been modified, reload it and retry");
+        }
+        Department patched = Department.builder()
+                .name(mergePatch.has("name") ? mergePatch.getText("name") : department.getName())
+                .readOnly(mergePatch.has("readOnly") ? mergePatch.getBoolean("readOnly") : department.getReadOnly())
+                .mandatory(mergePatch.has("mandatory") ? mergePatch.getBoolean("mandatory") : department.getMandatory())
+                .build();
+        validateMandatoryFields(patched);
+        if (patched.getReadOnly() && Boolean.TRUE.equals(department.getReadOnly())) {
+            throw new UnsupportedOperationException("Cannot modify a readonly department");
+        }
+        if (patched.getName().equals(department.getName()) && patched.getReadOnly().equals(department.getReadOnly())
+                && patched.getMandatory().equals(department.getMandatory())) {
+            return department;
+        }
+
+        department.setName(patched.getName());
+        department.setReadOnly(patched.getReadOnly());
+        department.setMandatory(patched.getMandatory());
+        try {
+            Department patchedDepartment = departmentRepository.saveAndFlush(department);
+            mandatoryDepartmentCache.invalidateAfterCommit();
+            applicationEventPublisher.publishEvent(DepartmentChangedEvent.saved(patchedDepartment));
+            return patchedDepartment;
+        } catch (DataIntegrityViolationException e) {
+            throw new DuplicateKeyException("Department Name should be unique");
+        }
+    }
+
+    @Override
+    @Transactional
     public Boolean deleteDepartment(Long id) throws EntityNotFoundException, UnsupportedOperationException {
-        Department department = getDepartmentById(id);
+        Department department = findDepartment(id);
 
         if (Boolean.TRUE.equals(department.getReadOnly())) {
             throw new UnsupportedOperationException("Cannot delete a readonly department");
         }
 
-        for (Employee employee : department.getEmployees()) {
-            employee.getDepartments().remove(department);
+        List<Long> memberIds = departmentRepository.findMemberIdsByDepartmentId(id);
+        long orphanedMembers = departmentRepository.countSoleMembersByDepartmentId(id);
+        departmentRepository.incrementMemberVersionsByDepartmentId(id);
+        departmentRepository.deleteMembershipsByDepartmentId(id);
+        departmentRepository.deleteDepartmentById(id);
+        mandatoryDepartmentCache.invalidateAfterCommit();
+        applicationEventPublisher.publishEvent(DepartmentChangedEvent.deleted(id, memberIds, orphanedMembers));
+        return Boolean.TRUE;
+    }
+
+    /**
+     * Per chunk: locks the employee rows, finds the ones not yet members, bumps their versions so their ETags change,
+     * and inserts their memberships with a single statement.
+     */
+    @Override
+    @Transactional
+    public DepartmentMembersResult addMembers(Long id, List<Long> employeeIds) throws EntityNotFoundException, UnsupportedOperationException, InvalidParameterException, DuplicateKeyException {
+        validateMembersChangeAllowed(findDepartment(id));
+        List<Long> sortedIds = validateEmployeeIds(employeeIds);
+
+        List<Long> changedIds = new ArrayList<>();
+        long unassigned = 0;
+        for (List<Long> chunk : chunks(sortedIds)) {
+            lockEmployees(chunk);
+            Set<Long> memberIds = new HashSet<>(departmentRepository.findMemberIds(id, chunk));
+            List<Long> joiningIds = chunk.stream().filter(employeeId -> !memberIds.contains(employeeId)).toList();
+            if (joiningIds.isEmpty()) {
+                continue;
+            }
+            unassigned += departmentRepository.countWithoutDepartmentByIdIn(joiningIds);
+            employeeRepository.incrementVersionsByIdIn(joiningIds);
+            departmentRepository.insertMemberships(id, joiningIds);
+            changedIds.addAll(joiningIds);
         }
+        return membersChanged(id, true, sortedIds.size(), changedIds, unassigned);
+    }
 
-        departmentRepository.deleteById(id);
-        return Boolean.TRUE;
+    @Override
+    @Transactional
+    public DepartmentMembersResult removeMembers(Long id, List<Long> employeeIds) throws EntityNotFoundException, UnsupportedOperationException, InvalidParameterException, DuplicateKeyException {
+        Department department = findDepartment(id);
+        validateMembersChangeAllowed(department);
+        if (Boolean.TRUE.equals(department.getMandatory())) {
+            throw new UnsupportedOperationException("Cannot remove members from a mandatory department");
+        }
+        List<Long> sortedIds = validateEmployeeIds(employeeIds);
+
+        List<Long> changedIds = new ArrayList<>();
+        long unassigned = 0;
+        for (List<Long> chunk : chunks(sortedIds)) {
+            lockEmployees(chunk);
+            List<Long> leavingIds = departmentRepository.findMemberIds(id, chunk);
+            if (leavingIds.isEmpty()) {
+                continue;
+            }
+            employeeRepository.incrementVersionsByIdIn(leavingIds);
+            departmentRepository.deleteMemberships(id, leavingIds);
+            unassigned += departmentRepository.countWithoutDepartmentByIdIn(leavingIds);
+            changedIds.addAll(leavingIds);
+        }
+        return membersChanged(id, false, sortedIds.size(), changedIds, unassigned);
+    }
+
+    @Override
+    public DepartmentStats getDepartmentStats() {
+        return departmentStatsCounters.snapshot();
+    }
+
+    private Department findDepartment(Long id) throws EntityNotFoundException {
+        return departmentRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Department Not Found"));
+    }
+
+    private void validateMembersChangeAllowed(Department department) throws UnsupportedOperationException {
+        if (Boolean.TRUE.equals(department.getReadOnly())) {
+            throw new UnsupportedOperationException("Cannot change the members of a readonly department");
+        }
+    }
+
+    /**
+     * Returns the ids sorted, the order in which their rows are locked.
+     */
+    private List<Long> validateEmployeeIds(List<Long> employeeIds) throws InvalidParameterException, DuplicateKeyException {
+        if (employeeIds == null || employeeIds.isEmpty() || employeeIds.stream().anyMatch(Objects::isNull)) {
+            throw new InvalidParameterException("Employee ids can't be null or empty");
+        }
+        List<Long> sortedIds = employeeIds.stream().sorted().distinct().toList();
+        if (sortedIds.size() != employeeIds.size()) {
+            throw new DuplicateKeyException("Employee ids are duplicated");
+        }
+        return sortedIds;
+    }
+
+    private void lockEmployees(List<Long> employeeIds) throws EntityNotFoundException {
+        if (employeeRepository.lockIdsByIdIn(employeeIds).size() != employeeIds.size()) {
+            throw new EntityNotFoundException("One or more employees not found");
+        }
+    }
+
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>((ids.size() + MEMBERS_CHUNK_SIZE - 1) / MEMBERS_CHUNK_SIZE);
+        for (int from = 0; from < ids.size(); from += MEMBERS_CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + MEMBERS_CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+
+    private DepartmentMembersResult membersChanged(Long id, boolean added, int requested, List<Long> changedIds, long unassigned) {
+        if (!changedIds.isEmpty()) {
+            applicationEventPublisher.publishEvent(new DepartmentMembersChangedEvent(id, added, List.copyOf(changedIds), unassigned));
+        }
+        return new DepartmentMembersResult(id, requested, changedIds.size());
     }
 
     private void validateMandatoryFields(Department department) throws InvalidParameterException {
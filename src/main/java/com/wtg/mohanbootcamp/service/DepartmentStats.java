@@ -0,0 +1,16 @@
+package com.wtg.mohanbootcamp.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Member counts of every department, ordered by id, and the number of employees in at least one department.
+ */
+@Getter
+@AllArgsConstructor
+public class DepartmentStats {
+    private long distinctEmployees;
+    private List<DepartmentMemberStats> departments;
+}
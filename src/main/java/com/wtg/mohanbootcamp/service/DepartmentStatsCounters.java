@@ -0,0 +1,122 @@
+package com.wtg.mohanbootcamp.service;
+
+import com.wtg.mohanbootcamp.persistence.Department;
+import com.wtg.mohanbootcamp.persistence.DepartmentMemberCount;
+import com.wtg.mohanbootcamp.persistence.DepartmentRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Department member counts, counted once at startup and then kept up to date from the committed
+ * {@link EmployeeChangedEvent}s, {@link DepartmentChangedEvent}s and {@link DepartmentMembersChangedEvent}s, so the
+ * stats never scan the membership table. Each event carries what changed, and deltas commute, so events of concurrent
+ * transactions can be applied in any order. Concurrent writes to the same employee are serialized by its version.
+ * A membership may commit just before the department's own event is applied, its counter is then created nameless.
+ */
+@Component
+@RequiredArgsConstructor
+public class DepartmentStatsCounters implements SmartInitializingSingleton, MeterBinder {
+
+    private final DepartmentRepository departmentRepository;
+
+    private final Map<Long, Counter> departments = new TreeMap<>();
+
+    private long distinctEmployees;
+
+    /**
+     * Runs before the web server accepts requests, so no write can race the initial count.
+     */
+    @Override
+    public synchronized void afterSingletonsInstantiated() {
+        for (Department department : departmentRepository.findAll()) {
+            departments.put(department.getId(), new Counter(department.getName()));
+        }
+        for (DepartmentMemberCount count : departmentRepository.countMembersByDepartment()) {
+            Counter counter = departments.get(count.getId());
+            if (counter != null) {
+                counter.members = count.getMembers();
+            }
+        }
+        distinctEmployees = departmentRepository.countDistinctMembers();
+    }
+
+    public synchronized long getDistinctEmployees() {
+        return distinctEmployees;
+    }
+
+    public synchronized DepartmentStats snapshot() {
+        List<DepartmentMemberStats> stats = new ArrayList<>(departments.size());
+        departments.forEach((id, counter) -> stats.add(new DepartmentMemberStats(id, counter.name, counter.members)));
+        return new DepartmentStats(distinctEmployees, stats);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onEmployeeChanged(EmployeeChangedEvent event) {
+        Set<Long> previous = event.getPreviousDepartmentIds();
+        Set<Long> current = event.getDepartmentIds();
+        for (Long departmentId : current) {
+            if (!previous.contains(departmentId)) {
+                departments.computeIfAbsent(departmentId, id -> new Counter(null)).members++;
+            }
+        }
+        for (Long departmentId : previous) {
+            Counter counter = departments.get(departmentId);
+            if (counter != null && !current.contains(departmentId)) {
+                counter.members--;
+            }
+        }
+        if (previous.isEmpty() && !current.isEmpty()) {
+            distinctEmployees++;
+        } else if (!previous.isEmpty() && current.isEmpty()) {
+            distinctEmployees--;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onDepartmentMembersChanged(DepartmentMembersChangedEvent event) {
+        long delta = event.isAdded() ? 1 : -1;
+        Counter counter = departments.get(event.getDepartmentId());
+        if (counter != null) {
+            counter.members += delta * event.getEmployeeIds().size();
+        }
+        distinctEmployees += delta * event.getUnassigned();
+    }
+
+    /**
+     * Deleting a department removed its memberships, the members without another department no longer count.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onDepartmentChanged(DepartmentChangedEvent event) {
+        if (event.isDeleted()) {
+            departments.remove(event.getId());
+            distinctEmployees -= event.getOrphanedMembers();
+            return;
+        }
+        departments.computeIfAbsent(event.getId(), id -> new Counter(null)).name = event.getDepartment().getName();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("department.stats.distinct.employees", this, DepartmentStatsCounters::getDistinctEmployees).register(registry);
+    }
+
+    private static final class Counter {
+        private String name;
+        private long members;
+
+        private Counter(String name) {
+            this.name = name;
+        }
+    }
+}
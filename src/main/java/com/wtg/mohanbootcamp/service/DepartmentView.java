@@ -0,0 +1,21 @@
+package com.wtg.mohanbootcamp.service;
+
+import com.wtg.mohanbootcamp.persistence.Department;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Read-only projection of a department, detached from the persistence context.
+ */
+@Getter
+@AllArgsConstructor
+public class DepartmentView {
+    private Long id;
+    private String name;
+    private Boolean readOnly;
+    private Boolean mandatory;
+
+    public static DepartmentView from(Department department) {
+        return new DepartmentView(department.getId(), department.getName(), department.getReadOnly(), department.getMandatory());
+    }
+}
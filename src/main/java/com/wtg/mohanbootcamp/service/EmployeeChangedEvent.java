@@ -0,0 +1,45 @@
+package com.wtg.mohanbootcamp.service;
+
+import com.wtg.mohanbootcamp.persistence.Department;
+import com.wtg.mohanbootcamp.persistence.Employee;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Published when an employee is created, updated or deleted, with the state it was saved with and the departments
+ * it belonged to before. Listeners that keep derived data receive it after the transaction commits.
+ */
+@Getter
+@AllArgsConstructor
+public class EmployeeChangedEvent {
+    private Long id;
+    private String nameFirst;
+    private String nameLast;
+    private Long version;
+    private Set<Long> departmentIds;
+    private Set<Long> previousDepartmentIds;
+
+    public static EmployeeChangedEvent created(Employee employee) {
+        return updated(employee, Set.of());
+    }
+
+    public static EmployeeChangedEvent updated(Employee employee, Set<Long> previousDepartmentIds) {
+        return new EmployeeChangedEvent(employee.getId(), employee.getNameFirst(), employee.getNameLast(), employee.getVersion(),
+                departmentIds(employee), previousDepartmentIds);
+    }
+
+    public static EmployeeChangedEvent deleted(Long id, Set<Long> previousDepartmentIds) {
+        return new EmployeeChangedEvent(id, null, null, null, Set.of(), previousDepartmentIds);
+    }
+
+    public static Set<Long> departmentIds(Employee employee) {
+        return employee.getDepartments().stream().map(Department::getId).collect(Collectors.toUnmodifiableSet());
+    }
+
+    public boolean isDeleted() {
+        return nameFirst == null;
+    }
+}
@@ -0,0 +1,37 @@
+package com.wtg.mohanbootcamp.service;
+
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidParameterException;
+import java.util.Base64;
+
+/**
+ * Encodes the keyset position of an employee page as an opaque, URL safe token.
+ */
+final class EmployeeCursor {
+
+    private static final String PREFIX = "employee:";
+
+    private EmployeeCursor() {
+    }
+
+    static String encode(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Long decode(String cursor) throws InvalidParameterException {
+        if (!StringUtils.hasLength(cursor)) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(PREFIX)) {
+                throw new InvalidParameterException("Invalid cursor");
+            }
+            return Long.parseLong(decoded.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidParameterException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.wtg.mohanbootcamp.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class EmployeeImportResult {
+    private int rows;
+    private int created;
+    private int failed;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private List<EmployeeImportRowResult> results;
+}
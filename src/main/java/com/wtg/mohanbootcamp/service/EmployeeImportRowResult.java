@@ -0,0 +1,23 @@
+package com.wtg.mohanbootcamp.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of one row of a bulk import. Exactly one of {@code id} and {@code error} is set.
+ */
+@Getter
+@AllArgsConstructor
+public class EmployeeImportRowResult {
+    private int index;
+    private Long id;
+    private String error;
+
+    static EmployeeImportRowResult created(int index, Long id) {
+        return new EmployeeImportRowResult(index, id, null);
+    }
+
+    static EmployeeImportRowResult failed(int index, String error) {
+        return new EmployeeImportRowResult(index, null, error);
+    }
+}
@@ -0,0 +1,10 @@
+package com.wtg.mohanbootcamp.service;
+
+import com.wtg.mohanbootcamp.persistence.Employee;
+
+import java.util.Iterator;
+
+public interface EmployeeImportService {
+
+    EmployeeImportResult importEmployees(Iterator<Employee> employees);
+}
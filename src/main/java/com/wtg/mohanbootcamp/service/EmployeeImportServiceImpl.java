@@ -0,0 +1,174 @@
+package com.wtg.mohanbootcamp.service;
+
+import com.wtg.mohanbootcamp.persistence.Department;
+import com.wtg.mohanbootcamp.persistence.DepartmentRepository;
+import com.wtg.mohanbootcamp.persistence.Employee;
+import com.wtg.mohanbootcamp.persistence.EmployeeJdbcRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Imports employees in chunks. Each chunk validates its department ids with one lookup, allocates its employee ids
+ * in one sequence round trip and is written with JDBC batch inserts in its own transaction, so a failing chunk
+ * doesn't roll back the chunks before it.
+ */
+@Service
+@Timed(value = "service.calls", histogram = true)
+public class EmployeeImportServiceImpl implements EmployeeImportService {
+
+    private final EmployeeJdbcRepository employeeJdbcRepository;
+
+    private final DepartmentRepository departmentRepository;
+
+    private final MandatoryDepartmentCache mandatoryDepartmentCache;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int chunkSize;
+
+    public EmployeeImportServiceImpl(EmployeeJdbcRepository employeeJdbcRepository,
+                                     DepartmentRepository departmentRepository,
+                                     MandatoryDepartmentCache mandatoryDepartmentCache,
+                                     ApplicationEventPublisher applicationEventPublisher,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${app.employee.import.chunk-size:500}") int chunkSize) {
+        this.employeeJdbcRepository = employeeJdbcRepository;
+        this.departmentRepository = departmentRepository;
+        this.mandatoryDepartmentCache = mandatoryDepartmentCache;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public EmployeeImportResult importEmployees(Iterator<Employee> employees) {
+        long start = System.nanoTime();
+        List<EmployeeImportRowResult> results = new ArrayList<>();
+        List<Employee> chunk = new ArrayList<>(chunkSize);
+        while (employees.hasNext()) {
+            chunk.add(employees.next());
+            if (chunk.size() == chunkSize) {
+                results.addAll(importChunk(chunk, results.size()));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(importChunk(chunk, results.size()));
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        int created = (int) results.stream().filter(result -> result.getId() != null).count();
+        double rowsPerSecond = elapsedNanos > 0 ? created / (elapsedNanos / 1_000_000_000.0) : 0;
+        return new EmployeeImportResult(results.size(), created, results.size() - created,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), rowsPerSecond, results);
+    }
+
+    private List<EmployeeImportRowResult> importChunk(List<Employee> chunk, int firstIndex) {
+        EmployeeImportRowResult[] results = new EmployeeImportRowResult[chunk.size()];
+        Set<Long> existingDepartmentIds = findExistingDepartmentIds(chunk);
+        List<Department> mandatoryDepartments = mandatoryDepartmentCache.getMandatoryDepartments();
+
+        List<Integer> validPositions = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            Employee employee = chunk.get(i);
+            String error = validate(employee, existingDepartmentIds);
+            if (error != null) {
+                results[i] = EmployeeImportRowResult.failed(firstIndex + i, error);
+            } else {
+                addMandatoryDepartments(employee, mandatoryDepartments);
+                validPositions.add(i);
+            }
+        }
+        if (validPositions.isEmpty()) {
+            return Arrays.asList(results);
+        }
+
+        List<Employee> validEmployees = validPositions.stream().map(chunk::get).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Long> ids = employeeJdbcRepository.nextEmployeeIds(validEmployees.size());
+                for (int i = 0; i < validEmployees.size(); i++) {
+                    validEmployees.get(i).setId(ids.get(i));
+                    validEmployees.get(i).setVersion(0L);
+                }
+                employeeJdbcRepository.insertAll(validEmployees);
+                validEmployees.forEach(employee -> applicationEventPublisher.publishEvent(EmployeeChangedEvent.created(employee)));
+            });
+            for (int position : validPositions) {
+                results[position] = EmployeeImportRowResult.created(firstIndex + position, chunk.get(position).getId());
+            }
+        } catch (DataAccessException e) {
+            for (int position : validPositions) {
+                results[position] = EmployeeImportRowResult.failed(firstIndex + position, "Chunk could not be saved");
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private Set<Long> findExistingDepartmentIds(List<Employee> chunk) {
+        Set<Long> requestedIds = chunk.stream()
+                .map(Employee::getDepartments)
+                .filter(Objects::nonNull)
+                .flatMap(Set::stream)
+                .map(Department::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (requestedIds.isEmpty()) {
+            return Set.of();
+        }
+        return departmentRepository.findAllById(requestedIds).stream().map(Department::getId).collect(Collectors.toSet());
+    }
+
+    private String validate(Employee employee, Set<Long> existingDepartmentIds) {
+        if (employee.getId() != null) {
+            return "Please use update employee if id already exists";
+        }
+        if (!StringUtils.hasLength(employee.getNameFirst())) {
+            return "First Name can't be null or empty";
+        }
+        if (!StringUtils.hasLength(employee.getNameLast())) {
+            return "Last Name can't be null or empty";
+        }
+        if (employee.getDepartments() == null) {
+            return null;
+        }
+        Set<Long> departmentIds = employee.getDepartments().stream().map(Department::getId).collect(Collectors.toSet());
+        if (departmentIds.size() != employee.getDepartments().size()) {
+            return "Department ids are duplicated";
+        }
+        if (!existingDepartmentIds.containsAll(departmentIds)) {
+            return "One or more departments not found";
+        }
+        return null;
+    }
+
+    private void addMandatoryDepartments(Employee employee, List<Department> mandatoryDepartments) {
+        if (employee.getDepartments() == null) {
+            employee.setDepartments(new HashSet<>());
+        }
+        Set<Long> departmentIds = employee.getDepartments().stream().map(Department::getId).collect(Collectors.toSet());
+        for (Department mandatoryDepartment : mandatoryDepartments) {
+            if (!departmentIds.contains(mandatoryDepartment.getId())) {
+                employee.getDepartments().add(mandatoryDepartment);
+            }
+        }
+    }
+}
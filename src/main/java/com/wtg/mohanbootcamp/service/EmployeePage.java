@@ -0,0 +1,16 @@
+package com.wtg.mohanbootcamp.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * One keyset page of employees. {@code nextCursor} is null on the last page.
+ */
+@Getter
+@AllArgsConstructor
+public class EmployeePage {
+    private List<EmployeeView> items;
+    private String nextCursor;
+}
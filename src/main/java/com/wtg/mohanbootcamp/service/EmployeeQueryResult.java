@@ -0,0 +1,18 @@
+package com.wtg.mohanbootcamp.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Employees selected by a department expression: how many there are in total and one page of their ids, in id order.
+ * {@code nextCursor} is null on the last page.
+ */
+@Getter
+@AllArgsConstructor
+public class EmployeeQueryResult {
+    private long count;
+    private List<Long> ids;
+    private String nextCursor;
+}
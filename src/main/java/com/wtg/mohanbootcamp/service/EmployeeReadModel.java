@@ -0,0 +1,450 @@
+package com.wtg.mohanbootcamp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wtg.mohanbootcamp.persistence.ChangeEvent;
+import com.wtg.mohanbootcamp.persistence.ChangeEventRepository;
+import com.wtg.mohanbootcamp.persistence.Department;
+import com.wtg.mohanbootcamp.persistence.DepartmentRepository;
+import com.wtg.mohanbootcamp.persistence.EmployeeJdbcRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Optional in-memory read model of the employees, serving their reads without Hibernate. The employees are kept in
+ * the primitive id-sorted columns of an {@link EmployeeReadTable}, each with its department ids as a sorted
+ * {@code int[]}; departments are kept once as {@link DepartmentView}s. Maintained from the committed
+ * {@link EmployeeChangedEvent}s,
+ * {@link DepartmentChangedEvent}s and {@link DepartmentMembersChangedEvent}s.
+ * <p>
+ * With {@code app.employee.read-model.snapshot.path} set, the model is written to that file every
+ * {@code snapshot.interval} and at shutdown, together with the last change outbox offset it contains. A restart maps
+ * the file and replays the outbox from that offset instead of reading every employee. Outbox events carry the full
+ * state of their entity, so replaying events the snapshot already contains is harmless. The database is read instead
+ * when deletions after the offset have been purged from the outbox, or the outbox is behind the snapshot.
+ */
+@Slf4j
+@Component
+public class EmployeeReadModel implements SmartInitializingSingleton, DisposableBean, MeterBinder {
+
+    private static final int SNAPSHOT_MAGIC = 0x45445231;  // "EDR1"
+
+    private static final int REPLAY_BATCH_SIZE = 1000;
+
+    /**
+     * Employees per read of the table when visiting all of them, writes are applied between pages.
+     */
+    private static final int PAGE_SIZE = 1000;
+
+    private static final int[] NO_DEPARTMENTS = new int[0];
+
+    private final EmployeeJdbcRepository employeeJdbcRepository;
+
+    private final DepartmentRepository departmentRepository;
+
+    private final ChangeEventRepository changeEventRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final boolean enabled;
+
+    private final Path snapshotPath;
+
+    private final EmployeeReadTable employees = new EmployeeReadTable();
+
+    private final Map<Long, DepartmentView> departments = new ConcurrentHashMap<>();
+
+    private final AtomicLong appliedOffset = new AtomicLong();
+
+    private final Object snapshotLock = new Object();
+
+    private volatile boolean ready;
+
+    public EmployeeReadModel(EmployeeJdbcRepository employeeJdbcRepository,
+                             DepartmentRepository departmentRepository,
+                             ChangeEventRepository changeEventRepository,
+                             ObjectMapper objectMapper,
+                             @Value("${app.employee.read-model.enabled:false}") boolean enabled,
+                             @Value("${app.employee.read-model.snapshot.path:}") String snapshotPath) {
+        this.employeeJdbcRepository = employeeJdbcRepository;
+        this.departmentRepository = departmentRepository;
+        this.changeEventRepository = changeEventRepository;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.snapshotPath = StringUtils.hasText(snapshotPath) ? Path.of(snapshotPath) : null;
+    }
+
+    /**
+     * Runs before the web server accepts requests, so no write can race the initial load.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        boolean fromSnapshot = loadFromSnapshot();
+        if (!fromSnapshot) {
+            loadFromDatabase();
+        }
+        ready = true;
+        log.info("Loaded {} employees into the read model from the {} in {} ms", employees.size(),
+                fromSnapshot ? "snapshot" : "database", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return employees.size();
+    }
+
+    public Optional<EmployeeView> getEmployeeView(long id) {
+        EmployeeReadTable.Row row = employees.get(id);
+        return row == null ? Optional.empty() : Optional.of(toView(row));
+    }
+
+    public Optional<Long> getEmployeeVersion(long id) {
+        EmployeeReadTable.Row row = employees.get(id);
+        return row == null ? Optional.empty() : Optional.of(row.version());
+    }
+
+    /**
+     * Up to {@code limit} employees with an id greater than {@code afterId}, in id order.
+     */
+    public List<EmployeeView> getEmployeesAfter(long afterId, int limit) {
+        return employees.after(afterId, limit).stream().map(this::toView).toList();
+    }
+
+    public void forEachEmployee(Consumer<EmployeeView> consumer) {
+        forEachRow(row -> consumer.accept(toView(row)));
+    }
+
+    /**
+     * Replaces the model with the employees and departments in the database. The outbox offset is read first, so a
+     * snapshot taken later replays anything committed while the employees were read.
+     */
+    public void loadFromDatabase() {
+        long offset = changeEventRepository.findLastOffset();
+        departments.clear();
+        for (Department department : departmentRepository.findAll()) {
+            departments.put(department.getId(), DepartmentView.from(department));
+        }
+        EmployeeReadTable.Builder builder = new EmployeeReadTable.Builder();
+        employeeJdbcRepository.streamAllWithDepartments(employee -> builder.add(employee.getId(), employee.getNameFirst(),
+                employee.getNameLast(), versionOf(employee.getVersion()),
+                departmentIds(employee.getDepartments().stream().mapToLong(Department::getId).toArray())));
+        employees.replace(builder);
+        appliedOffset.set(offset);
+    }
+
+    /**
+     * Replaces the model with the snapshot and replays the outbox after it. Returns false, leaving the model to be
+     * loaded from the database, when there is no usable snapshot or the outbox can no longer bring it up to date.
+     */
+    public boolean loadFromSnapshot() {
+        if (snapshotPath == null || !Files.isReadable(snapshotPath)) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                log.warn("Read model snapshot {} is too large to map, loading from the database", snapshotPath);
+                return false;
+            }
+            MappedByteBuffer snapshot = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (snapshot.remaining() < Integer.BYTES + Long.BYTES || snapshot.getInt() != SNAPSHOT_MAGIC) {
+                log.warn("{} is not a read model snapshot, loading from the database", snapshotPath);
+                return false;
+            }
+            long offset = snapshot.getLong();
+            if (offset > changeEventRepository.findLastOffset() || offset < changeEventRepository.findPurgedThrough()) {
+                log.info("Read model snapshot at offset {} does not match the change outbox, loading from the database", offset);
+                return false;
+            }
+            departments.clear();
+            readSnapshot(snapshot);
+            appliedOffset.set(offset);
+        } catch (IOException | BufferUnderflowException e) {
+            log.warn("Read model snapshot {} could not be read, loading from the database", snapshotPath, e);
+            return false;
+        }
+        replayChangesAfter(appliedOffset.get());
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${app.employee.read-model.snapshot.interval:PT5M}",
+            initialDelayString = "${app.employee.read-model.snapshot.interval:PT5M}")
+    public void scheduledSnapshot() {
+        if (ready && snapshotPath != null) {
+            writeSnapshot();
+        }
+    }
+
+    /**
+     * Writes the model to a temporary file next to the snapshot and moves it into place. The offset is read before
+     * the employees: writes applied while they are written may or may not be included, and are replayed either way.
+     */
+    public void writeSnapshot() {
+        synchronized (snapshotLock) {
+            write(appliedOffset.get());
+        }
+    }
+
+    private void write(long offset) {
+        long start = System.nanoTime();
+        Path temporary = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeLong(offset);
+                List<DepartmentView> departmentViews = List.copyOf(departments.values());
+                out.writeInt(departmentViews.size());
+                for (DepartmentView department : departmentViews) {
+                    out.writeLong(department.getId());
+                    writeString(out, department.getName());
+                    out.writeByte(flag(department.getReadOnly()));
+                    out.writeByte(flag(department.getMandatory()));
+                }
+                forEachRow(row -> {
+                    try {
+                        out.writeLong(row.id());
+                        out.writeLong(row.version());
+                        writeString(out, row.nameFirst());
+                        writeString(out, row.nameLast());
+                        out.writeShort(row.departmentIds().length);
+                        for (int departmentId : row.departmentIds()) {
+                            out.writeInt(departmentId);
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                out.writeLong(-1);
+            }
+            Files.move(temporary, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Wrote the read model snapshot at offset {} in {} ms", offset, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Read model snapshot {} could not be written", snapshotPath, e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (ready && snapshotPath != null) {
+            writeSnapshot();
+        }
+    }
+
+    /**
+     * The outbox publishes its offset after the listeners below have applied the changes of the transaction.
+     */
+    @EventListener
+    public void onChangesAppended(ChangesAppendedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        appliedOffset.accumulateAndGet(event.getLastOffset(), Math::max);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.isDeleted()) {
+            employees.remove(event.getId());
+        } else {
+            employees.put(new EmployeeReadTable.Row(event.getId(), event.getNameFirst(), event.getNameLast(), versionOf(event.getVersion()),
+                    departmentIds(event.getDepartmentIds().stream().mapToLong(Long::longValue).toArray())));
+        }
+    }
+
+    /**
+     * Deleting a department removed its memberships and bumped the version of its members.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDepartmentChanged(DepartmentChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (!event.isDeleted()) {
+            departments.put(event.getId(), event.getDepartment());
+            return;
+        }
+        removeDepartment(event.getId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDepartmentMembersChanged(DepartmentMembersChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        for (Long employeeId : event.getEmployeeIds()) {
+            employees.update(employeeId, row -> event.isAdded()
+                    ? row.withDepartment(event.getDepartmentId())
+                    : row.withoutDepartment(event.getDepartmentId()));
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("employee.read.model.size", employees, EmployeeReadTable::size).register(registry);
+    }
+
+    private void readSnapshot(ByteBuffer snapshot) {
+        int departmentCount = snapshot.getInt();
+        for (int i = 0; i < departmentCount; i++) {
+            long id = snapshot.getLong();
+            departments.put(id, new DepartmentView(id, readString(snapshot), snapshot.get() == 1, snapshot.get() == 1));
+        }
+        EmployeeReadTable.Builder builder = new EmployeeReadTable.Builder();
+        for (long id = snapshot.getLong(); id != -1; id = snapshot.getLong()) {
+            long version = snapshot.getLong();
+            String nameFirst = readString(snapshot);
+            String nameLast = readString(snapshot);
+            int[] departmentIds = new int[snapshot.getShort()];
+            for (int i = 0; i < departmentIds.length; i++) {
+                departmentIds[i] = snapshot.getInt();
+            }
+            builder.add(id, nameFirst, nameLast, version, departmentIds);
+        }
+        employees.replace(builder);
+    }
+
+    private void replayChangesAfter(long offset) {
+        long replayed = 0;
+        List<ChangeEvent> events;
+        do {
+            events = changeEventRepository.findAfter(offset, REPLAY_BATCH_SIZE);
+            for (ChangeEvent event : events) {
+                replay(event);
+                offset = event.getOffset();
+            }
+            replayed += events.size();
+        } while (events.size() == REPLAY_BATCH_SIZE);
+        appliedOffset.set(offset);
+        log.debug("Replayed {} change events onto the read model snapshot", replayed);
+    }
+
+    private void replay(ChangeEvent event) {
+        boolean employee = ChangeEvent.EMPLOYEE.equals(event.getEntityType());
+        if (ChangeEvent.DELETED.equals(event.getOperation())) {
+            if (employee) {
+                employees.remove(event.getEntityId());
+            } else {
+                removeDepartment(event.getEntityId());
+            }
+            return;
+        }
+        try {
+            JsonNode payload = objectMapper.readTree(event.getPayload());
+            if (employee) {
+                long[] departmentIds = new long[payload.path("departmentIds").size()];
+                for (int i = 0; i < departmentIds.length; i++) {
+                    departmentIds[i] = payload.path("departmentIds").get(i).asLong();
+                }
+                employees.put(new EmployeeReadTable.Row(event.getEntityId(), payload.path("nameFirst").asText(), payload.path("nameLast").asText(),
+                        payload.path("version").asLong(), departmentIds(departmentIds)));
+            } else {
+                departments.put(event.getEntityId(), new DepartmentView(event.getEntityId(), payload.path("name").asText(),
+                        payload.path("readOnly").asBoolean(), payload.path("mandatory").asBoolean()));
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Change event " + event.getOffset() + " could not be replayed", e);
+        }
+    }
+
+    private void removeDepartment(long departmentId) {
+        departments.remove(departmentId);
+        employees.removeDepartment(Math.toIntExact(departmentId));
+    }
+
+    /**
+     * Visits every employee in id order a page at a time, so writes are not held up for the whole visit.
+     */
+    private void forEachRow(Consumer<EmployeeReadTable.Row> consumer) {
+        List<EmployeeReadTable.Row> page = employees.after(Long.MIN_VALUE, PAGE_SIZE);
+        while (!page.isEmpty()) {
+            page.forEach(consumer);
+            page = page.size() < PAGE_SIZE ? List.of() : employees.after(page.get(page.size() - 1).id(), PAGE_SIZE);
+        }
+    }
+
+    private EmployeeView toView(EmployeeReadTable.Row row) {
+        List<DepartmentView> views = new ArrayList<>(row.departmentIds().length);
+        for (int departmentId : row.departmentIds()) {
+            DepartmentView view = departments.get((long) departmentId);
+            if (view != null) {
+                views.add(view);
+            }
+        }
+        return new EmployeeView(row.id(), row.nameFirst(), row.nameLast(), row.version(), views);
+    }
+
+    /**
+     * Department ids come from {@code SEQ_DEPARTMENT} and are far below the {@code int} range; one that is not would
+     * fail here rather than be truncated.
+     */
+    private static int[] departmentIds(long[] ids) {
+        int[] departmentIds = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            departmentIds[i] = Math.toIntExact(ids[i]);
+        }
+        Arrays.sort(departmentIds);
+        return departmentIds.length == 0 ? NO_DEPARTMENTS : departmentIds;
+    }
+
+    private static long versionOf(Long version) {
+        return version == null ? 0 : version;
+    }
+
+    private static int flag(Boolean value) {
+        return Boolean.TRUE.equals(value) ? 1 : 0;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
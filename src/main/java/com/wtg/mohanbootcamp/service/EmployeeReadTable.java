@@ -0,0 +1,375 @@
+package com.wtg.mohanbootcamp.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * The employees of the {@link EmployeeReadModel} as columns sorted by id: ids and versions in {@code long[]}s, names
+ * and department ids in arrays alongside, so an employee costs no map node, boxed key or entry object. Employees
+ * already in the columns are updated in place and deleted ones leave a gap. New employees go to a sorted overlay that
+ * is merged into new columns once it holds {@link #MERGE_THRESHOLD} rows, as are the gaps once there are as many.
+ * Reads share a read lock and writes take the write lock; the rows handed out are copies.
+ */
+final class EmployeeReadTable {
+
+    static final int MERGE_THRESHOLD = 4096;
+
+    private static final int[] NO_DEPARTMENTS = new int[0];
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final TreeMap<Long, Row> overlay = new TreeMap<>();
+
+    private Columns columns = new Builder().build();
+
+    private int gaps;
+
+    private int size;
+
+    int size() {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return size;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    Row get(long id) {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            Row row = overlay.get(id);
+            if (row != null) {
+                return row;
+            }
+            int index = columns.indexOf(id);
+            return index < 0 || columns.isGap(index) ? null : columns.row(index);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} rows with an id greater than {@code afterId}, in id order.
+     */
+    List<Row> after(long afterId, int limit) {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            List<Row> rows = new ArrayList<>(Math.min(limit, size));
+            int index = columns.indexAfter(afterId);
+            Iterator<Row> added = overlay.tailMap(afterId, false).values().iterator();
+            Row next = added.hasNext() ? added.next() : null;
+            while (rows.size() < limit) {
+                while (index < columns.length && columns.isGap(index)) {
+                    index++;
+                }
+                boolean fromColumns = index < columns.length && (next == null || columns.ids[index] < next.id());
+                if (fromColumns) {
+                    rows.add(columns.row(index++));
+                } else if (next != null) {
+                    rows.add(next);
+                    next = added.hasNext() ? added.next() : null;
+                } else {
+                    break;
+                }
+            }
+            return rows;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Replaces every row with the ones built.
+     */
+    void replace(Builder builder) {
+        Columns built = builder.build();
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            columns = built;
+            overlay.clear();
+            gaps = 0;
+            size = built.length;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    void put(Row row) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            int index = columns.indexOf(row.id());
+            if (index >= 0) {
+                if (columns.isGap(index)) {
+                    gaps--;
+                    size++;
+                }
+                columns.set(index, row);
+                return;
+            }
+            if (overlay.put(row.id(), row) == null) {
+                size++;
+            }
+            if (overlay.size() >= MERGE_THRESHOLD) {
+                merge();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    void remove(long id) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            if (overlay.remove(id) != null) {
+                size--;
+                return;
+            }
+            int index = columns.indexOf(id);
+            if (index >= 0 && !columns.isGap(index)) {
+                columns.clear(index);
+                gaps++;
+                size--;
+                if (gaps >= MERGE_THRESHOLD) {
+                    merge();
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Replaces the row of {@code id}, if there is one, with the result of {@code update}.
+     */
+    void update(long id, UnaryOperator<Row> update) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            Row row = overlay.get(id);
+            if (row != null) {
+                overlay.put(id, update.apply(row));
+                return;
+            }
+            int index = columns.indexOf(id);
+            if (index >= 0 && !columns.isGap(index)) {
+                columns.set(index, update.apply(columns.row(index)));
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Removes the department from every row, bumping the version of the rows it is removed from.
+     */
+    void removeDepartment(int departmentId) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            for (int index = 0; index < columns.length; index++) {
+                int[] departmentIds = columns.departmentIds[index];
+                if (departmentIds != null && Arrays.binarySearch(departmentIds, departmentId) >= 0) {
+                    columns.departmentIds[index] = without(departmentIds, departmentId);
+                    columns.versions[index]++;
+                }
+            }
+            overlay.replaceAll((id, row) -> row.withoutDepartment(departmentId));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Writes the rows of the columns and the overlay, gaps left out, into new columns. Runs under the write lock.
+     */
+    private void merge() {
+        Builder builder = new Builder(size);
+        int index = 0;
+        for (Row row : overlay.values()) {
+            for (; index < columns.length && columns.ids[index] < row.id(); index++) {
+                builder.addFrom(columns, index);
+            }
+            builder.add(row);
+        }
+        for (; index < columns.length; index++) {
+            builder.addFrom(columns, index);
+        }
+        columns = builder.build();
+        overlay.clear();
+        gaps = 0;
+    }
+
+    private static int[] without(int[] departmentIds, int departmentId) {
+        int[] ids = IntStream.of(departmentIds).filter(id -> id != departmentId).toArray();
+        return ids.length == 0 ? NO_DEPARTMENTS : ids;
+    }
+
+    /**
+     * One employee, department ids sorted. Membership changes bump the version by one, as the database does.
+     */
+    record Row(long id, String nameFirst, String nameLast, long version, int[] departmentIds) {
+
+        Row withDepartment(long departmentId) {
+            int id = Math.toIntExact(departmentId);
+            if (Arrays.binarySearch(departmentIds, id) >= 0) {
+                return this;
+            }
+            int[] ids = Arrays.copyOf(departmentIds, departmentIds.length + 1);
+            ids[departmentIds.length] = id;
+            Arrays.sort(ids);
+            return new Row(this.id, nameFirst, nameLast, version + 1, ids);
+        }
+
+        Row withoutDepartment(long departmentId) {
+            int id = Math.toIntExact(departmentId);
+            if (Arrays.binarySearch(departmentIds, id) < 0) {
+                return this;
+            }
+            return new Row(this.id, nameFirst, nameLast, version + 1, without(departmentIds, id));
+        }
+    }
+
+    /**
+     * Collects rows in increasing id order into new columns, growing them as needed.
+     */
+    static final class Builder {
+
+        private long[] ids;
+
+        private long[] versions;
+
+        private String[] namesFirst;
+
+        private String[] namesLast;
+
+        private int[][] departmentIds;
+
+        private int length;
+
+        Builder() {
+            this(16);
+        }
+
+        Builder(int capacity) {
+            capacity = Math.max(capacity, 16);
+            ids = new long[capacity];
+            versions = new long[capacity];
+            namesFirst = new String[capacity];
+            namesLast = new String[capacity];
+            departmentIds = new int[capacity][];
+        }
+
+        void add(Row row) {
+            add(row.id(), row.nameFirst(), row.nameLast(), row.version(), row.departmentIds());
+        }
+
+        void add(long id, String nameFirst, String nameLast, long version, int[] departmentIds) {
+            if (length > 0 && id <= ids[length - 1]) {
+                throw new IllegalStateException("Employee " + id + " is not after employee " + ids[length - 1]);
+            }
+            if (length == ids.length) {
+                int capacity = length + (length >> 1);
+                ids = Arrays.copyOf(ids, capacity);
+                versions = Arrays.copyOf(versions, capacity);
+                namesFirst = Arrays.copyOf(namesFirst, capacity);
+                namesLast = Arrays.copyOf(namesLast, capacity);
+                this.departmentIds = Arrays.copyOf(this.departmentIds, capacity);
+            }
+            ids[length] = id;
+            versions[length] = version;
+            namesFirst[length] = nameFirst;
+            namesLast[length] = nameLast;
+            this.departmentIds[length] = departmentIds.length == 0 ? NO_DEPARTMENTS : departmentIds;
+            length++;
+        }
+
+        private void addFrom(Columns columns, int index) {
+            if (!columns.isGap(index)) {
+                add(columns.ids[index], columns.namesFirst[index], columns.namesLast[index], columns.versions[index], columns.departmentIds[index]);
+            }
+        }
+
+        private Columns build() {
+            Columns columns = new Columns(Arrays.copyOf(ids, length), Arrays.copyOf(versions, length),
+                    Arrays.copyOf(namesFirst, length), Arrays.copyOf(namesLast, length), Arrays.copyOf(departmentIds, length));
+            ids = null;
+            versions = null;
+            namesFirst = null;
+            namesLast = null;
+            departmentIds = null;
+            return columns;
+        }
+    }
+
+    /**
+     * A gap is marked by a null first name; its id stays, so the ids remain sorted for the binary search.
+     */
+    private static final class Columns {
+
+        private final long[] ids;
+
+        private final long[] versions;
+
+        private final String[] namesFirst;
+
+        private final String[] namesLast;
+
+        private final int[][] departmentIds;
+
+        private final int length;
+
+        private Columns(long[] ids, long[] versions, String[] namesFirst, String[] namesLast, int[][] departmentIds) {
+            this.ids = ids;
+            this.versions = versions;
+            this.namesFirst = namesFirst;
+            this.namesLast = namesLast;
+            this.departmentIds = departmentIds;
+            this.length = ids.length;
+        }
+
+        private int indexOf(long id) {
+            return Arrays.binarySearch(ids, id);
+        }
+
+        private int indexAfter(long id) {
+            int index = Arrays.binarySearch(ids, id);
+            return index >= 0 ? index + 1 : -index - 1;
+        }
+
+        private boolean isGap(int index) {
+            return namesFirst[index] == null;
+        }
+
+        private Row row(int index) {
+            return new Row(ids[index], namesFirst[index], namesLast[index], versions[index], departmentIds[index]);
+        }
+
+        private void set(int index, Row row) {
+            versions[index] = row.version();
+            namesFirst[index] = row.nameFirst();
+            namesLast[index] = row.nameLast();
+            departmentIds[index] = row.departmentIds();
+        }
+
+        private void clear(int index) {
+            namesFirst[index] = null;
+            namesLast[index] = null;
+            departmentIds[index] = null;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.wtg.mohanbootcamp.service;
+
+import com.wtg.mohanbootcamp.persistence.Department;
+import com.wtg.mohanbootcamp.persistence.DepartmentRepository;
+import com.wtg.mohanbootcamp.persistence.EmployeeJdbcRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.LongStream;
+
+/**
+ * Optional in-memory index of employee names for typeahead search. Loaded once at startup and then maintained from
+ * the committed {@link EmployeeChangedEvent}s, {@link DepartmentChangedEvent}s and
+ * {@link DepartmentMembersChangedEvent}s. Answers with the same matches and order as the database search: last name
+ * prefix matches by last name, first name, id, then the remaining first name prefix matches by first name, id.
+ */
+@Component
+public class EmployeeSearchIndex implements SmartInitializingSingleton, MeterBinder {
+
+    private static final Comparator<Entry> BY_LAST_NAME = Comparator.comparing(Entry::nameLast)
+            .thenComparing(Entry::nameFirst)
+            .thenComparingLong(Entry::id);
+
+    private static final Comparator<Entry> BY_FIRST_NAME = Comparator.comparing(Entry::nameFirst)
+            .thenComparingLong(Entry::id);
+
+    private final EmployeeJdbcRepository employeeJdbcRepository;
+
+    private final DepartmentRepository departmentRepository;
+
+    private final boolean enabled;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    private final NavigableSet<Entry> byLastName = new ConcurrentSkipListSet<>(BY_LAST_NAME);
+
+    private final NavigableSet<Entry> byFirstName = new ConcurrentSkipListSet<>(BY_FIRST_NAME);
+
+    private final Map<Long, DepartmentView> departments = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+
+    public EmployeeSearchIndex(EmployeeJdbcRepository employeeJdbcRepository,
+                               DepartmentRepository departmentRepository,
+                               @Value("${app.employee.search.index.enabled:false}") boolean enabled) {
+        this.employeeJdbcRepository = employeeJdbcRepository;
+        this.departmentRepository = departmentRepository;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Runs before the web server accepts requests, so no write can race the initial load.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        for (Department department : departmentRepository.findAll()) {
+            departments.put(department.getId(), DepartmentView.from(department));
+        }
+        employeeJdbcRepository.streamAllWithDepartments(employee -> put(EmployeeChangedEvent.created(employee)));
+        ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<EmployeeView> search(String prefix, Long departmentId, int limit) {
+        if (departmentId != null && !departments.containsKey(departmentId)) {
+            return List.of();
+        }
+        List<EmployeeView> results = new ArrayList<>(limit);
+        for (Entry entry : byLastName.tailSet(new Entry(Long.MIN_VALUE, "", prefix, null, null), true)) {
+            if (results.size() == limit || !entry.nameLast().startsWith(prefix)) {
+                break;
+            }
+            if (entry.isMemberOf(departmentId)) {
+                results.add(toView(entry));
+            }
+        }
+        if (prefix.isEmpty()) {
+            return results;
+        }
+        for (Entry entry : byFirstName.tailSet(new Entry(Long.MIN_VALUE, prefix, "", null, null), true)) {
+            if (results.size() == limit || !entry.nameFirst().startsWith(prefix)) {
+                break;
+            }
+            if (!entry.nameLast().startsWith(prefix) && entry.isMemberOf(departmentId)) {
+                results.add(toView(entry));
+            }
+        }
+        return results;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.isDeleted()) {
+            remove(event.getId());
+        } else {
+            put(event);
+        }
+    }
+
+    /**
+     * Deleting a department removed its memberships and bumped the version of its members.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onDepartmentChanged(DepartmentChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (!event.isDeleted()) {
+            departments.put(event.getId(), event.getDepartment());
+            return;
+        }
+        departments.remove(event.getId());
+        long departmentId = event.getId();
+        for (Entry entry : List.copyOf(entries.values())) {
+            if (entry.isMemberOf(departmentId)) {
+                long[] departmentIds = Arrays.stream(entry.departmentIds()).filter(id -> id != departmentId).toArray();
+                Long version = entry.version() == null ? null : entry.version() + 1;
+                replace(new Entry(entry.id(), entry.nameFirst(), entry.nameLast(), version, departmentIds));
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onDepartmentMembersChanged(DepartmentMembersChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        long departmentId = event.getDepartmentId();
+        for (Long id : event.getEmployeeIds()) {
+            Entry entry = entries.get(id);
+            if (entry == null) {
+                continue;
+            }
+            long[] departmentIds = event.isAdded()
+                    ? LongStream.concat(Arrays.stream(entry.departmentIds()), LongStream.of(departmentId)).distinct().sorted().toArray()
+                    : Arrays.stream(entry.departmentIds()).filter(memberOf -> memberOf != departmentId).toArray();
+            Long version = entry.version() == null ? null : entry.version() + 1;
+            replace(new Entry(entry.id(), entry.nameFirst(), entry.nameLast(), version, departmentIds));
+        }
+    }
+
+    private synchronized void put(EmployeeChangedEvent event) {
+        long[] departmentIds = event.getDepartmentIds().stream().mapToLong(Long::longValue).sorted().toArray();
+        replace(new Entry(event.getId(), event.getNameFirst(), event.getNameLast(), event.getVersion(), departmentIds));
+    }
+
+    private synchronized void remove(Long id) {
+        Entry existing = entries.remove(id);
+        if (existing != null) {
+            byLastName.remove(existing);
+            byFirstName.remove(existing);
+        }
+    }
+
+    private void replace(Entry entry) {
+        Entry existing = entries.put(entry.id(), entry);
+        if (existing != null) {
+            byLastName.remove(existing);
+            byFirstName.remove(existing);
+        }
+        byLastName.add(entry);
+        byFirstName.add(entry);
+    }
+
+    private EmployeeView toView(Entry entry) {
+        List<DepartmentView> views = new ArrayList<>(entry.departmentIds().length);
+        for (long departmentId : entry.departmentIds()) {
+            DepartmentView view = departments.get(departmentId);
+            if (view != null) {
+                views.add(view);
+            }
+        }
+        return new EmployeeView(entry.id(), entry.nameFirst(), entry.nameLast(), entry.version(), views);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("employee.search.index.size", entries, Map::size).register(registry);
+    }
+
+    /**
+     * Department ids are sorted, matching the department order of {@link EmployeeView}.
+     */
+    private record Entry(long id, String nameFirst, String nameLast, Long version, long[] departmentIds) {
+
+        boolean isMemberOf(Long departmentId) {
+            return departmentId == null || Arrays.binarySearch(departmentIds, departmentId) >= 0;
+        }
+    }
+}
@@ -1,20 +1,54 @@
 package com.wtg.mohanbootcamp.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.wtg.mohanbootcamp.persistence.Employee;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
 
 import java.security.InvalidParameterException;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface EmployeeService {
 
     List<Employee> getAllEmployees();
 
+    EmployeePage getEmployeePage(String cursor, int limit) throws InvalidParameterException;
+
+    /**
+     * Employees whose last or first name starts with {@code name}, optionally only members of {@code departmentId}.
+     * Last name matches come first.
+     */
+    List<EmployeeView> searchEmployees(String name, Long departmentId, int limit) throws InvalidParameterException;
+
+    /**
+     * Employees selected by a boolean expression over department ids, such as {@code 3 AND (5 OR 8) AND NOT 13},
+     * counted in full and paged by id. A limit of zero only counts.
+     */
+    EmployeeQueryResult queryEmployees(String expression, String cursor, int limit) throws InvalidParameterException, EntityNotFoundException;
+
+    void streamAllEmployees(Consumer<EmployeeView> consumer);
+
     Employee createEmployee(Employee employee) throws UnsupportedOperationException, InvalidParameterException;
 
     Employee getEmployeeById(Long id) throws EntityNotFoundException;
 
-    Employee updateEmployee(Employee employeeRequest) throws EntityNotFoundException, InvalidParameterException;
+    EmployeeView getEmployeeView(Long id) throws EntityNotFoundException;
+
+    Long getEmployeeVersion(Long id) throws EntityNotFoundException;
+
+    /**
+     * Overwrites the employee. A non-null version in the request must match the stored one.
+     */
+    Employee updateEmployee(Employee employeeRequest) throws EntityNotFoundException, InvalidParameterException, OptimisticLockingFailureException;
+
+    /**
+     * Applies a JSON Merge Patch of {@code nameFirst}, {@code nameLast} and {@code departments}. Only the changed columns
+     * are written, and the memberships only when the departments change. A non-null {@code version} in the patch must
+     * match the stored one.
+     */
+    Employee patchEmployee(Long id, JsonNode patch) throws EntityNotFoundException, InvalidParameterException, DuplicateKeyException, OptimisticLockingFailureException;
 
     Boolean deleteEmployee(Long id) throws EntityNotFoundException;
 }
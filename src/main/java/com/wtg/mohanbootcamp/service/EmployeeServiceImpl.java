@@ -1,75 +1,294 @@
 package com.wtg.mohanbootcamp.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.wtg.mohanbootcamp.persistence.Department;
 import com.wtg.mohanbootcamp.persistence.DepartmentRepository;
 import com.wtg.mohanbootcamp.persistence.Employee;
+import com.wtg.mohanbootcamp.persistence.EmployeeJdbcRepository;
 import com.wtg.mohanbootcamp.persistence.EmployeeRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.security.InvalidParameterException;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "service.calls", histogram = true)
 @RequiredArgsConstructor
 public class EmployeeServiceImpl implements EmployeeService {
 
+    static final int MAX_PAGE_LIMIT = 1000;
+
+    static final int MAX_SEARCH_LIMIT = 100;
+
+    private static final char LIKE_ESCAPE = '!';
+
+    private static final Set<String> PATCH_FIELDS = Set.of("id", "version", "nameFirst", "nameLast", "departments");
+
     private final EmployeeRepository employeeRepository;
 
+    private final EmployeeJdbcRepository employeeJdbcRepository;
+
     private final DepartmentRepository departmentRepository;
 
+    private final MandatoryDepartmentCache mandatoryDepartmentCache;
+
+    private final EmployeeSearchIndex employeeSearchIndex;
+
+    private final DepartmentMembershipIndex departmentMembershipIndex;
+
+    private final EmployeeReadModel employeeReadModel;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final EntityReadCoalescer entityReadCoalescer;
+
     @Override
+    @Transactional(readOnly = true)
     public List<Employee> getAllEmployees() {
         return employeeRepository.findAll();
     }
 
+    /**
+     * Served from the {@link EmployeeReadModel} when it is enabled. Not transactional, so the read model path never
+     * takes a connection; each repository query runs in its own read-only transaction.
+     */
+    @Override
+    public EmployeePage getEmployeePage(String cursor, int limit) throws InvalidParameterException {
+        if (limit < 1 || limit > MAX_PAGE_LIMIT) {
+            throw new InvalidParameterException("Limit must be between 1 and " + MAX_PAGE_LIMIT);
+        }
+        Long afterId = EmployeeCursor.decode(cursor);
+        if (employeeReadModel.isReady()) {
+            List<EmployeeView> items = employeeReadModel.getEmployeesAfter(afterId, limit + 1);
+            boolean hasMore = items.size() > limit;
+            if (hasMore) {
+                items = items.subList(0, limit);
+            }
+            return new EmployeePage(items, hasMore ? EmployeeCursor.encode(items.get(limit - 1).getId()) : null);
+        }
+
+        // Fetch one extra id so the last page can be detected without another query
+        List<Long> ids = employeeRepository.findIdsAfter(afterId, Limit.of(limit + 1));
+        boolean hasMore = ids.size() > limit;
+        if (hasMore) {
+            ids = ids.subList(0, limit);
+        }
+        if (ids.isEmpty()) {
+            return new EmployeePage(List.of(), null);
+        }
+
+        List<EmployeeView> items = employeeRepository.findWithDepartmentsByIdInOrderByIdAsc(ids).stream()
+                .map(EmployeeView::from)
+                .toList();
+        return new EmployeePage(items, hasMore ? EmployeeCursor.encode(ids.get(limit - 1)) : null);
+    }
+
+    /**
+     * Served from the {@link EmployeeSearchIndex} when it is enabled, otherwise by two index range scans: last name
+     * matches first, then first name matches, each stopping at the limit. The scans and the load of the matches share
+     * one read-only transaction.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<EmployeeView> searchEmployees(String name, Long departmentId, int limit) throws InvalidParameterException {
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new InvalidParameterException("Limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+        if (!StringUtils.hasLength(name) && departmentId == null) {
+            throw new InvalidParameterException("Name or department is required");
+        }
+        String prefix = name == null ? "" : name;
+        if (employeeSearchIndex.isReady()) {
+            return employeeSearchIndex.search(prefix, departmentId, limit);
+        }
+
+        String pattern = escapeLike(prefix) + "%";
+        List<Long> ids = new ArrayList<>(departmentId == null
+                ? employeeRepository.searchIdsByLastName(pattern, Limit.of(limit))
+                : employeeRepository.searchIdsByLastNameInDepartment(pattern, departmentId, Limit.of(limit)));
+        if (!prefix.isEmpty() && ids.size() < limit) {
+            Limit remaining = Limit.of(limit - ids.size());
+            ids.addAll(departmentId == null
+                    ? employeeRepository.searchIdsByFirstName(pattern, remaining)
+                    : employeeRepository.searchIdsByFirstNameInDepartment(pattern, departmentId, remaining));
+        }
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Employee> employees = employeeRepository.findWithDepartmentsByIdInOrderByIdAsc(ids).stream()
+                .collect(Collectors.toMap(Employee::getId, Function.identity()));
+        return ids.stream().map(employees::get).filter(Objects::nonNull).map(EmployeeView::from).toList();
+    }
+
+    /**
+     * Evaluated entirely on the {@link DepartmentMembershipIndex}.
+     */
+    @Override
+    public EmployeeQueryResult queryEmployees(String expression, String cursor, int limit) throws InvalidParameterException, EntityNotFoundException {
+        if (limit < 0 || limit > MAX_PAGE_LIMIT) {
+            throw new InvalidParameterException("Limit must be between 0 and " + MAX_PAGE_LIMIT);
+        }
+        return departmentMembershipIndex.query(DepartmentExpression.parse(expression), EmployeeCursor.decode(cursor), limit);
+    }
+
     @Override
+    public void streamAllEmployees(Consumer<EmployeeView> consumer) {
+        if (employeeReadModel.isReady()) {
+            employeeReadModel.forEachEmployee(consumer);
+            return;
+        }
+        employeeJdbcRepository.streamAllWithDepartments(employee -> consumer.accept(EmployeeView.from(employee)));
+    }
+
+    @Override
+    @Transactional
     public Employee createEmployee(Employee employee) throws UnsupportedOperationException, InvalidParameterException {
         if (employee.getId() != null) {
             throw new UnsupportedOperationException("Please use update employee if id already exists");
         }
         validateEmployeeNames(employee);
-        validateDepartmentIds(employee.getDepartments());
+        employee.setDepartments(validateDepartmentIds(employee.getDepartments()));
 
         addMandatoryDepartments(employee);
 
-        return employeeRepository.save(employee);
+        employee.setVersion(null);
+        Employee createdEmployee = employeeRepository.save(employee);
+        applicationEventPublisher.publishEvent(EmployeeChangedEvent.created(createdEmployee));
+        return createdEmployee;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Employee getEmployeeById(Long id) throws EntityNotFoundException {
         return employeeRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Employee Not Found"));
     }
 
+    /**
+     * Served from the {@link EmployeeReadModel} when it is enabled, otherwise concurrent reads of the same employee
+     * share one lookup. Not transactional, so callers waiting for a shared
+     * lookup hold neither a connection nor a concurrency permit; the repository query runs in its own read-only
+     * transaction.
+     */
+    @Override
+    @CoalescedRead
+    public EmployeeView getEmployeeView(Long id) throws EntityNotFoundException {
+        if (employeeReadModel.isReady()) {
+            return employeeReadModel.getEmployeeView(id).orElseThrow(() -> new EntityNotFoundException("Employee Not Found"));
+        }
+        return entityReadCoalescer.getEmployeeView(id, employeeId -> employeeRepository.findWithDepartmentsById(employeeId)
+                .map(EmployeeView::from)
+                .orElseThrow(() -> new EntityNotFoundException("Employee Not Found")));
+    }
+
     @Override
-    public Employee updateEmployee(Employee employeeRequest) throws EntityNotFoundException, InvalidParameterException {
+    public Long getEmployeeVersion(Long id) throws EntityNotFoundException {
+        if (employeeReadModel.isReady()) {
+            return employeeReadModel.getEmployeeVersion(id).orElseThrow(() -> new EntityNotFoundException("Employee Not Found"));
+        }
+        return employeeRepository.findVersionById(id).orElseThrow(() -> new EntityNotFoundException("Employee Not Found"));
+    }
+
+    /**
+     * The merge reuses the employee loaded for the checks, and the update is conditional on its version, so a
+     * concurrent change fails instead of being overwritten. Flushed here so the event carries the new version.
+     */
+    @Override
+    @Transactional
+    public Employee updateEmployee(Employee employeeRequest) throws EntityNotFoundException, InvalidParameterException, OptimisticLockingFailureException {
         validateEmployeeNames(employeeRequest);
 
         Employee existingEmployee = getEmployeeById(employeeRequest.getId());
-        validateDepartmentIds(employeeRequest.getDepartments());
+        validateVersion(employeeRequest.getVersion(), existingEmployee.getVersion());
+        Set<Long> previousDepartmentIds = EmployeeChangedEvent.departmentIds(existingEmployee);
+        employeeRequest.setDepartments(validateDepartmentIds(employeeRequest.getDepartments()));
 
         addMandatoryDepartmentsForUpdate(employeeRequest, existingEmployee);
 
-        return employeeRepository.save(employeeRequest);
+        employeeRequest.setVersion(existingEmployee.getVersion());
+        Employee updatedEmployee = employeeRepository.saveAndFlush(employeeRequest);
+        applicationEventPublisher.publishEvent(EmployeeChangedEvent.updated(updatedEmployee, previousDepartmentIds));
+        return updatedEmployee;
     }
 
+    /**
+     * Changes the loaded employee in place, so the dirty check writes only the changed columns, and applies only the
+     * differences to its departments, which Hibernate writes as single membership row inserts and deletes. A patch
+     * that changes nothing writes nothing and publishes no event.
+     */
     @Override
+    @Transactional
+    public Employee patchEmployee(Long id, JsonNode patch) throws EntityNotFoundException, InvalidParameterException, DuplicateKeyException, OptimisticLockingFailureException {
+        JsonMergePatch mergePatch = JsonMergePatch.of(patch, PATCH_FIELDS);
+        mergePatch.validateId(id);
+
+        Employee employee = getEmployeeById(id);
+        validateVersion(mergePatch.getLong("version"), employee.getVersion());
+        Employee patched = Employee.builder()
+                .nameFirst(mergePatch.has("nameFirst") ? mergePatch.getText("nameFirst") : employee.getNameFirst())
+                .nameLast(mergePatch.has("nameLast") ? mergePatch.getText("nameLast") : employee.getNameLast())
+                .build();
+        validateEmployeeNames(patched);
+        Set<Long> previousDepartmentIds = EmployeeChangedEvent.departmentIds(employee);
+
+        boolean changed = !patched.getNameFirst().equals(employee.getNameFirst()) || !patched.getNameLast().equals(employee.getNameLast());
+        employee.setNameFirst(patched.getNameFirst());
+        employee.setNameLast(patched.getNameLast());
+        if (mergePatch.has("departments")) {
+            changed |= patchDepartments(employee, previousDepartmentIds, mergePatch.getIds("departments"));
+        }
+        if (!changed) {
+            return employee;
+        }
+
+        Employee patchedEmployee = employeeRepository.saveAndFlush(employee);
+        applicationEventPublisher.publishEvent(EmployeeChangedEvent.updated(patchedEmployee, previousDepartmentIds));
+        return patchedEmployee;
+    }
+
+    /**
+     * Loads the employee, which the repository's delete did anyway, to publish the departments it leaves.
+     */
+    @Override
+    @Transactional
     public Boolean deleteEmployee(Long id) throws EntityNotFoundException {
-        validateEmployeeExist(id);
-        employeeRepository.deleteById(id);
+        Employee employee = getEmployeeById(id);
+        Set<Long> previousDepartmentIds = EmployeeChangedEvent.departmentIds(employee);
+        employeeRepository.delete(employee);
+        applicationEventPublisher.publishEvent(EmployeeChangedEvent.deleted(id, previousDepartmentIds));
         return Boolean.TRUE;
     }
 
-    private void validateEmployeeExist(Long id) throws EntityNotFoundException {
-        if (!employeeRepository.existsById(id)) {
-            throw new EntityNotFoundException("Employee Not Found");
+    private static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == LIKE_ESCAPE || c == '%' || c == '_') {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    private void validateVersion(Long expectedVersion, Long currentVersion) throws OptimisticLockingFailureException {
+        if (expectedVersion != null && !expectedVersion.equals(currentVersion)) {
+            throw new OptimisticLockingFailureException("Employee has been modified, reload it and retry");
         }
     }
 
@@ -82,9 +301,12 @@ public class EmployeeServiceImpl implements EmployeeService {
         }
     }
 
-    private void validateDepartmentIds(Set<Department> departmentList) throws DuplicateKeyException, EntityNotFoundException {
+    /**
+     * Returns the loaded departments, which replace the id-only departments of the request.
+     */
+    private Set<Department> validateDepartmentIds(Set<Department> departmentList) throws DuplicateKeyException, EntityNotFoundException {
         if (Objects.isNull(departmentList)) {
-            return;
+            return new HashSet<>();
         }
         Set<Long> departmentIdSet = departmentList.stream().map(Department::getId).collect(Collectors.toSet());
         if (departmentList.size() != departmentIdSet.size()) {
@@ -94,10 +316,35 @@ public class EmployeeServiceImpl implements EmployeeService {
         if (departmentList.size() != result.size()) {
             throw new EntityNotFoundException("One or more departments not found");
         }
+        return new HashSet<>(result);
+    }
+
+    /**
+     * Removes the departments the employee leaves and adds the ones it joins, loading only those. Mandatory departments
+     * the employee is in are kept, as on update. Returns whether the departments changed.
+     */
+    private boolean patchDepartments(Employee employee, Set<Long> currentIds, List<Long> requestedIds) throws DuplicateKeyException, EntityNotFoundException {
+        Set<Long> departmentIds = new HashSet<>(requestedIds);
+        if (departmentIds.size() != requestedIds.size()) {
+            throw new DuplicateKeyException("Department ids are duplicated");
+        }
+        mandatoryDepartmentCache.getMandatoryDepartments().stream()
+                .map(Department::getId)
+                .filter(currentIds::contains)
+                .forEach(departmentIds::add);
+
+        Set<Long> joiningIds = departmentIds.stream().filter(departmentId -> !currentIds.contains(departmentId)).collect(Collectors.toSet());
+        List<Department> joining = joiningIds.isEmpty() ? List.of() : departmentRepository.findAllById(joiningIds);
+        if (joining.size() != joiningIds.size()) {
+            throw new EntityNotFoundException("One or more departments not found");
+        }
+        boolean left = employee.getDepartments().removeIf(department -> !departmentIds.contains(department.getId()));
+        employee.getDepartments().addAll(joining);
+        return left || !joining.isEmpty();
     }
 
     private void addMandatoryDepartments(Employee employee) {
-        List<Department> mandatoryDepartmentList = departmentRepository.findByMandatory(Boolean.TRUE);
+        List<Department> mandatoryDepartmentList = mandatoryDepartmentCache.getMandatoryDepartments();
         if (employee.getDepartments() == null) {
             employee.setDepartments(new HashSet<>());
         }
@@ -111,9 +358,11 @@ public class EmployeeServiceImpl implements EmployeeService {
     }
 
     private void addMandatoryDepartmentsForUpdate(Employee newEmployee, Employee oldEmployee) {
-        List<Department> mandatoryDepartmentList = departmentRepository.findByMandatory(Boolean.TRUE);
-        Set<Department> oldDepartments = oldEmployee.getDepartments();
-        Set<Department> oldDepartmentsToRetain = mandatoryDepartmentList.stream().filter(oldDepartments::contains).collect(Collectors.toSet());
+        List<Department> mandatoryDepartmentList = mandatoryDepartmentCache.getMandatoryDepartments();
+        Set<Long> mandatoryDepartmentIdList = mandatoryDepartmentList.stream().map(Department::getId).collect(Collectors.toSet());
+        Set<Department> oldDepartmentsToRetain = oldEmployee.getDepartments().stream()
+                .filter(department -> mandatoryDepartmentIdList.contains(department.getId()))
+                .collect(Collectors.toSet());
 
         if (newEmployee.getDepartments() == null) {
             newEmployee.setDepartments(new HashSet<>());
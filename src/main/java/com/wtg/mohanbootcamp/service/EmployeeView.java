@@ -0,0 +1,30 @@
+package com.wtg.mohanbootcamp.service;
+
+import com.wtg.mohanbootcamp.persistence.Employee;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Read-only projection of an employee and its departments. Built while the departments are loaded so that
+ * serialization never touches a lazy association.
+ */
+@Getter
+@AllArgsConstructor
+public class EmployeeView {
+    private Long id;
+    private String nameFirst;
+    private String nameLast;
+    private Long version;
+    private List<DepartmentView> departments;
+
+    public static EmployeeView from(Employee employee) {
+        List<DepartmentView> departments = employee.getDepartments().stream()
+                .map(DepartmentView::from)
+                .sorted(Comparator.comparing(DepartmentView::getId))
+                .toList();
+        return new EmployeeView(employee.getId(), employee.getNameFirst(), employee.getNameLast(), employee.getVersion(), departments);
+    }
+}
@@ -0,0 +1,83 @@
+package com.wtg.mohanbootcamp.service;
+
+import com.wtg.mohanbootcamp.persistence.Department;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Single-flight reads of employees and departments by id, so a burst of requests for the same popular id shares one
+ * database fetch. Results are kept for {@code app.read-coalescing.ttl}, 0 only shares loads that are in flight.
+ * Entries are dropped once a write commits: employee views embed their departments, so any department change drops
+ * all of them. With a {@link ConnectionConcurrencyLimiter}, only the caller that runs a load holds a permit.
+ */
+@Component
+public class EntityReadCoalescer implements MeterBinder {
+
+    private final SingleFlight<Long, EmployeeView> employeeViews;
+
+    private final SingleFlight<Long, Department> departments;
+
+    private final ObjectProvider<ConnectionConcurrencyLimiter> connectionConcurrencyLimiter;
+
+    public EntityReadCoalescer(@Value("${app.read-coalescing.ttl:0s}") Duration ttl,
+                               ObjectProvider<ConnectionConcurrencyLimiter> connectionConcurrencyLimiter) {
+        this.employeeViews = new SingleFlight<>(ttl);
+        this.departments = new SingleFlight<>(ttl);
+        this.connectionConcurrencyLimiter = connectionConcurrencyLimiter;
+    }
+
+    public EmployeeView getEmployeeView(Long id, Function<Long, EmployeeView> loader) {
+        return employeeViews.get(id, limited(loader));
+    }
+
+    public Department getDepartment(Long id, Function<Long, Department> loader) {
+        return departments.get(id, limited(loader));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        employeeViews.invalidate(event.getId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDepartmentChanged(DepartmentChangedEvent event) {
+        departments.invalidate(event.getId());
+        employeeViews.invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDepartmentMembersChanged(DepartmentMembersChangedEvent event) {
+        event.getEmployeeIds().forEach(employeeViews::invalidate);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bind(registry, "employee", employeeViews);
+        bind(registry, "department", departments);
+    }
+
+    private <V> Function<Long, V> limited(Function<Long, V> loader) {
+        ConnectionConcurrencyLimiter limiter = connectionConcurrencyLimiter.getIfAvailable();
+        return limiter == null ? loader : id -> limiter.limit(() -> loader.apply(id));
+    }
+
+    private static void bind(MeterRegistry registry, String entity, SingleFlight<Long, ?> singleFlight) {
+        FunctionCounter.builder("read.coalescing.requests", singleFlight, SingleFlight::getLoads)
+                .tags("entity", entity, "result", "load")
+                .register(registry);
+        FunctionCounter.builder("read.coalescing.requests", singleFlight, SingleFlight::getShared)
+                .tags("entity", entity, "result", "shared")
+                .register(registry);
+        FunctionCounter.builder("read.coalescing.requests", singleFlight, SingleFlight::getCached)
+                .tags("entity", entity, "result", "cached")
+                .register(registry);
+    }
+}
@@ -0,0 +1,106 @@
+package com.wtg.mohanbootcamp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.security.InvalidParameterException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A JSON Merge Patch (RFC 7396) on a flat resource: a member that is absent leaves its field unchanged, {@code null}
+ * clears it and any other value replaces it. Arrays are replaced as a whole. Members other than the resource's fields
+ * are rejected rather than ignored, a misspelt field would otherwise be a silent no-op.
+ */
+final class JsonMergePatch {
+
+    private final JsonNode patch;
+
+    private JsonMergePatch(JsonNode patch) {
+        this.patch = patch;
+    }
+
+    static JsonMergePatch of(JsonNode patch, Set<String> fields) throws InvalidParameterException {
+        if (patch == null || !patch.isObject()) {
+            throw new InvalidParameterException("Patch must be a JSON object");
+        }
+        for (Iterator<String> names = patch.fieldNames(); names.hasNext(); ) {
+            String name = names.next();
+            if (!fields.contains(name)) {
+                throw new InvalidParameterException("Unknown field in patch: " + name);
+            }
+        }
+        return new JsonMergePatch(patch);
+    }
+
+    boolean has(String field) {
+        return patch.has(field);
+    }
+
+    String getText(String field) throws InvalidParameterException {
+        JsonNode value = patch.get(field);
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        if (!value.isTextual()) {
+            throw new InvalidParameterException(field + " must be a string");
+        }
+        return value.textValue();
+    }
+
+    Boolean getBoolean(String field) throws InvalidParameterException {
+        JsonNode value = patch.get(field);
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        if (!value.isBoolean()) {
+            throw new InvalidParameterException(field + " must be a boolean");
+        }
+        return value.booleanValue();
+    }
+
+    Long getLong(String field) throws InvalidParameterException {
+        JsonNode value = patch.get(field);
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        if (!value.canConvertToExactIntegral() || !value.canConvertToLong()) {
+            throw new InvalidParameterException(field + " must be an integer");
+        }
+        return value.longValue();
+    }
+
+    /**
+     * Ids of an array of objects with an {@code id} each, as the resource represents its references. Empty for
+     * {@code null}.
+     */
+    List<Long> getIds(String field) throws InvalidParameterException {
+        JsonNode value = patch.get(field);
+        if (value == null || value.isNull()) {
+            return List.of();
+        }
+        if (!value.isArray()) {
+            throw new InvalidParameterException(field + " must be an array");
+        }
+        List<Long> ids = new ArrayList<>(value.size());
+        for (JsonNode element : value) {
+            JsonNode id = element.get("id");
+            if (id == null || !id.canConvertToExactIntegral() || !id.canConvertToLong()) {
+                throw new InvalidParameterException(field + " must be objects with an integer id");
+            }
+            ids.add(id.longValue());
+        }
+        return ids;
+    }
+
+    /**
+     * Checks that an {@code id} member, if any, is the id of the patched resource.
+     */
+    void validateId(Long id) throws InvalidParameterException {
+        if (has("id") && !Objects.equals(getLong("id"), id)) {
+            throw new InvalidParameterException("Id in patch does not match the path");
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.wtg.mohanbootcamp.service;
+
+import com.wtg.mohanbootcamp.persistence.Department;
+import com.wtg.mohanbootcamp.persistence.DepartmentRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Immutable in-memory snapshot of the mandatory departments, so employee writes don't query for them every time.
+ * The snapshot is swapped atomically; department writes invalidate it once their transaction has committed.
+ */
+@Component
+@RequiredArgsConstructor
+public class MandatoryDepartmentCache implements MeterBinder {
+
+    private final DepartmentRepository departmentRepository;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot(0, null));
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong rebuilds = new AtomicLong();
+
+    public List<Department> getMandatoryDepartments() {
+        Snapshot current = snapshot.get();
+        if (current.departments() != null) {
+            hits.incrementAndGet();
+            return current.departments();
+        }
+        misses.incrementAndGet();
+        return rebuild(current);
+    }
+
+    public void invalidate() {
+        snapshot.updateAndGet(current -> new Snapshot(current.generation() + 1, null));
+    }
+
+    /**
+     * Invalidates once the surrounding transaction commits, or immediately when there is none. Invalidating before
+     * commit would let a concurrent reader rebuild the snapshot from the not yet committed state.
+     */
+    public void invalidateAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate();
+            }
+        });
+    }
+
+    private List<Department> rebuild(Snapshot stale) {
+        List<Department> departments = departmentRepository.findByMandatory(Boolean.TRUE).stream()
+                .map(MandatoryDepartmentCache::copyOf)
+                .toList();
+        rebuilds.incrementAndGet();
+        // Only publish if nothing invalidated the snapshot while the query was running
+        snapshot.compareAndSet(stale, new Snapshot(stale.generation(), departments));
+        return departments;
+    }
+
+    private static Department copyOf(Department department) {
+        return Department.builder()
+                .id(department.getId())
+                .name(department.getName())
+                .readOnly(department.getReadOnly())
+                .mandatory(department.getMandatory())
+                .version(department.getVersion())
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("mandatory.department.cache.requests", hits, AtomicLong::get)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("mandatory.department.cache.requests", misses, AtomicLong::get)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("mandatory.department.cache.rebuilds", rebuilds, AtomicLong::get)
+                .register(registry);
+    }
+
+    private record Snapshot(long generation, List<Department> departments) {
+    }
+}
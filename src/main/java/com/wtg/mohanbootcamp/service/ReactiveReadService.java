@@ -0,0 +1,26 @@
+package com.wtg.mohanbootcamp.service;
+
+import com.wtg.mohanbootcamp.persistence.Department;
+import jakarta.persistence.EntityNotFoundException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking reads of employees and departments over R2DBC. Results are read from the database on subscription,
+ * without the second-level cache or read coalescing of the blocking services. Writes stay on {@link EmployeeService}
+ * and {@link DepartmentService}.
+ */
+public interface ReactiveReadService {
+
+    /**
+     * Emits every employee in id order, reading further rows only as the subscriber requests them.
+     */
+    Flux<EmployeeView> getAllEmployees();
+
+    /**
+     * Signals {@link EntityNotFoundException} when there is no employee with the id.
+     */
+    Mono<EmployeeView> getEmployeeView(Long id);
+
+    Flux<Department> getAllDepartments();
+}
@@ -0,0 +1,38 @@
+package com.wtg.mohanbootcamp.service;
+
+import com.wtg.mohanbootcamp.persistence.ConditionalOnReactiveRead;
+import com.wtg.mohanbootcamp.persistence.Department;
+import com.wtg.mohanbootcamp.persistence.DepartmentReactiveRepository;
+import com.wtg.mohanbootcamp.persistence.EmployeeReactiveRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@ConditionalOnReactiveRead
+@RequiredArgsConstructor
+public class ReactiveReadServiceImpl implements ReactiveReadService {
+
+    private final EmployeeReactiveRepository employeeReactiveRepository;
+
+    private final DepartmentReactiveRepository departmentReactiveRepository;
+
+    @Override
+    public Flux<EmployeeView> getAllEmployees() {
+        return employeeReactiveRepository.findAllWithDepartments().map(EmployeeView::from);
+    }
+
+    @Override
+    public Mono<EmployeeView> getEmployeeView(Long id) {
+        return employeeReactiveRepository.findWithDepartmentsById(id)
+                .map(EmployeeView::from)
+                .switchIfEmpty(Mono.error(() -> new EntityNotFoundException("Employee Not Found")));
+    }
+
+    @Override
+    public Flux<Department> getAllDepartments() {
+        return departmentReactiveRepository.findAll();
+    }
+}
@@ -0,0 +1,115 @@
+package com.wtg.mohanbootcamp.service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Coalesces concurrent loads of the same key: the first caller runs the loader, callers arriving while it runs wait
+ * for and share its result or exception. With a positive {@code ttl} the result is kept and served for that long.
+ * {@link #invalidate} drops the key, a load already running then completes for its waiters but isn't kept, and
+ * later callers start a new one.
+ */
+public class SingleFlight<K, V> {
+
+    private final long ttlNanos;
+
+    private final Map<K, Flight<V>> flights = new ConcurrentHashMap<>();
+
+    private final LongAdder loads = new LongAdder();
+
+    private final LongAdder shared = new LongAdder();
+
+    private final LongAdder cached = new LongAdder();
+
+    public SingleFlight(Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        while (true) {
+            Flight<V> flight = flights.get(key);
+            if (flight != null && !flight.isExpired()) {
+                (flight.future.isDone() ? cached : shared).increment();
+                return join(flight.future);
+            }
+            Flight<V> leader = new Flight<>();
+            boolean won = flight == null ? flights.putIfAbsent(key, leader) == null : flights.replace(key, flight, leader);
+            if (won) {
+                loads.increment();
+                return load(key, leader, loader);
+            }
+        }
+    }
+
+    public void invalidate(K key) {
+        flights.remove(key);
+    }
+
+    public void invalidateAll() {
+        flights.clear();
+    }
+
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    public long getShared() {
+        return shared.sum();
+    }
+
+    public long getCached() {
+        return cached.sum();
+    }
+
+    private V load(K key, Flight<V> leader, Function<? super K, ? extends V> loader) {
+        V value;
+        try {
+            value = loader.apply(key);
+        } catch (RuntimeException | Error e) {
+            flights.remove(key, leader);
+            leader.future.completeExceptionally(e);
+            throw e;
+        }
+        if (ttlNanos > 0) {
+            leader.expiresAt = System.nanoTime() + ttlNanos;
+        } else {
+            flights.remove(key, leader);
+        }
+        leader.future.complete(value);
+        return value;
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private static class Flight<V> {
+
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+
+        /**
+         * Set once the value is loaded, 0 while the load runs.
+         */
+        private volatile long expiresAt;
+
+        boolean isExpired() {
+            long expires = expiresAt;
+            return expires != 0 && System.nanoTime() - expires > 0;
+        }
+    }
+}
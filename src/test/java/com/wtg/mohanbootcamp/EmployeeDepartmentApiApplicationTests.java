@@ -1,15 +1,482 @@
 package com.wtg.mohanbootcamp;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.jayway.jsonpath.JsonPath;
+import com.wtg.mohanbootcamp.api.StreamingFormats;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import com.wtg.mohanbootcamp.persistence.ChangeEventRepository;
+import com.wtg.mohanbootcamp.persistence.DepartmentRepository;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
 @AutoConfigureMockMvc
+@AutoConfigureObservability
 class EmployeeDepartmentApiApplicationTests {
 
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private ChangeEventRepository changeEventRepository;
+
     @Test
     void contextLoads() {
     }
 
+    @Test
+    void getAllEmployees_streamsEmployeesWithDepartments() throws Exception {
+        mockMvc.perform(post("/employee").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nameFirst\":\"Stream\",\"nameLast\":\"Tester\"}"))
+                .andExpect(status().isOk());
+
+        MvcResult result = mockMvc.perform(get("/employee")).andExpect(request().asyncStarted()).andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[?(@.nameFirst == 'Stream')].departments[0].name").value("Organisation"));
+    }
+
+    @Test
+    void getAllEmployees_ndjson_oneEmployeePerLine() throws Exception {
+        mockMvc.perform(post("/employee").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nameFirst\":\"Format\",\"nameLast\":\"Tester\"}"))
+                .andExpect(status().isOk());
+
+        MvcResult result = mockMvc.perform(get("/employee").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertTrue(body.endsWith("\n"));
+        for (String line : lines) {
+            assertNotNull(JsonPath.parse(line).read("$.id", Long.class));
+        }
+    }
+
+    @Test
+    void getAllEmployeesAndDepartments_smileAndCbor_readBack() throws Exception {
+        mockMvc.perform(post("/employee").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nameFirst\":\"Format\",\"nameLast\":\"Tester\"}"))
+                .andExpect(status().isOk());
+
+        MvcResult result = mockMvc.perform(get("/employee").accept(StreamingFormats.APPLICATION_SMILE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] smile = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(StreamingFormats.APPLICATION_SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertTrue(new ObjectMapper(new SmileFactory()).readTree(smile).get(0).has("departments"));
+
+        byte[] cbor = mockMvc.perform(get("/department").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals("Organisation", new ObjectMapper(new CBORFactory()).readTree(cbor).get(0).get("name").asText());
+    }
+
+    @Test
+    void getEmployeePage_returnsItemsAndCursor() throws Exception {
+        mockMvc.perform(get("/employee").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items").isArray());
+    }
+
+    @Test
+    void importEmployees_jsonArrayAndNdjson_rowsCreated() throws Exception {
+        mockMvc.perform(post("/employee/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"nameFirst\":\"Batch\",\"nameLast\":\"One\",\"departments\":[{\"id\":1}]},{\"nameFirst\":\"\",\"nameLast\":\"Two\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.results[1].error").value("First Name can't be null or empty"));
+
+        MvcResult result = mockMvc.perform(post("/employee/batch").contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"nameFirst\":\"Batch\",\"nameLast\":\"Three\"}\n{\"nameFirst\":\"Batch\",\"nameLast\":\"Four\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andReturn();
+
+        Long id = JsonPath.parse(result.getResponse().getContentAsString()).read("$.results[1].id", Long.class);
+        mockMvc.perform(get("/employee/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nameLast").value("Four"))
+                .andExpect(jsonPath("$.departments[0].name").value("Organisation"));
+    }
+
+    @Test
+    void importEmployees_malformedElement_badRequestWithPosition() throws Exception {
+        mockMvc.perform(post("/employee/batch").contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"nameFirst\":\"Batch\",\"nameLast\":\"Five\"}\n{\"nameFirst\":\"Batch\",\"departments\":\"none\"}\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("Malformed element at line 2, column ")));
+    }
+
+    @Test
+    void deleteDepartment_withMembers_membershipsRemoved() throws Exception {
+        MvcResult department = mockMvc.perform(post("/department").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Temporary\",\"readOnly\":false,\"mandatory\":false}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        Long departmentId = JsonPath.parse(department.getResponse().getContentAsString()).read("$.id", Long.class);
+        MvcResult employee = mockMvc.perform(post("/employee").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nameFirst\":\"Member\",\"nameLast\":\"Tester\",\"departments\":[{\"id\":" + departmentId + "}]}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        Long employeeId = JsonPath.parse(employee.getResponse().getContentAsString()).read("$.id", Long.class);
+
+        mockMvc.perform(delete("/department/{id}", departmentId)).andExpect(status().isOk());
+
+        mockMvc.perform(get("/department/{id}", departmentId)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/employee/{id}", employeeId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.departments.length()").value(1))
+                .andExpect(jsonPath("$.departments[0].name").value("Organisation"));
+    }
+
+    @Test
+    void departmentStats_countersFollowWrites() throws Exception {
+        MvcResult department = mockMvc.perform(post("/department").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Counted\",\"readOnly\":false,\"mandatory\":false}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        Long departmentId = JsonPath.parse(department.getResponse().getContentAsString()).read("$.id", Long.class);
+        String members = "$.departments[?(@.id == " + departmentId + ")].members";
+
+        MvcResult employee = mockMvc.perform(post("/employee").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nameFirst\":\"Counted\",\"nameLast\":\"Tester\",\"departments\":[{\"id\":" + departmentId + "}]}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        Long employeeId = JsonPath.parse(employee.getResponse().getContentAsString()).read("$.id", Long.class);
+        mockMvc.perform(get("/department/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(members).value(1))
+                .andExpect(jsonPath("$.departments[?(@.id == " + departmentId + ")].name").value("Counted"));
+
+        mockMvc.perform(put("/employee").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":" + employeeId + ",\"nameFirst\":\"Counted\",\"nameLast\":\"Tester\",\"departments\":[]}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/department/stats")).andExpect(jsonPath(members).value(0));
+
+        mockMvc.perform(delete("/employee/{id}", employeeId)).andExpect(status().isOk());
+        mockMvc.perform(delete("/department/{id}", departmentId)).andExpect(status().isOk());
+        mockMvc.perform(get("/department/stats"))
+                .andExpect(jsonPath(members).isEmpty())
+                .andExpect(jsonPath("$.distinctEmployees").value(departmentRepository.countDistinctMembers()))
+                .andExpect(jsonPath("$.departments[?(@.id == 1)].members").value(
+                        (int) departmentRepository.countMembersByDepartment().stream().filter(count -> count.getId() == 1L).findFirst().orElseThrow().getMembers().longValue()));
+    }
+
+    @Test
+    void queryEmployees_followsMembershipChanges() throws Exception {
+        MvcResult department = mockMvc.perform(post("/department").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Queried\",\"readOnly\":false,\"mandatory\":false}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        Long departmentId = JsonPath.parse(department.getResponse().getContentAsString()).read("$.id", Long.class);
+        MvcResult member = mockMvc.perform(post("/employee").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nameFirst\":\"Member\",\"nameLast\":\"Tester\",\"departments\":[{\"id\":" + departmentId + "}]}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        Long memberId = JsonPath.parse(member.getResponse().getContentAsString()).read("$.id", Long.class);
+        MvcResult other = mockMvc.perform(post("/employee").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nameFirst\":\"Other\",\"nameLast\":\"Tester\"}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        Long otherId = JsonPath.parse(other.getResponse().getContentAsString()).read("$.id", Long.class);
+
+        mockMvc.perform(get("/employee/query").param("q", "1 and " + departmentId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(1))
+                .andExpect(jsonPath("$.ids[0]").value(memberId))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+        mockMvc.perform(get("/employee/query").param("q", "1 AND NOT " + departmentId).param("limit", "0"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ids").isEmpty());
+
+        mockMvc.perform(post("/department/{id}/members", departmentId).contentType(MediaType.APPLICATION_JSON).content("[" + otherId + "]"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/employee/query").param("q", String.valueOf(departmentId)).param("limit", "1"))
+                .andExpect(jsonPath("$.count").value(2))
+                .andExpect(jsonPath("$.ids.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").exists());
+
+        mockMvc.perform(get("/employee/query").param("q", departmentId + " AND")).andExpect(status().isBadRequest());
+        mockMvc.perform(delete("/department/{id}", departmentId)).andExpect(status().isOk());
+        mockMvc.perform(get("/employee/query").param("q", String.valueOf(departmentId))).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void departmentMembers_bulkAddAndRemove() throws Exception {
+        MvcResult department = mockMvc.perform(post("/department").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Reorganised\",\"readOnly\":false,\"mandatory\":false}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        Long departmentId = JsonPath.parse(department.getResponse().getContentAsString()).read("$.id", Long.class);
+        MvcResult employee = mockMvc.perform(post("/employee").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nameFirst\":\"Moved\",\"nameLast\":\"Tester\"}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        Long employeeId = JsonPath.parse(employee.getResponse().getContentAsString()).read("$.id", Long.class);
+        String members = "$.departments[?(@.id == " + departmentId + ")].members";
+
+        mockMvc.perform(post("/department/{id}/members", departmentId).contentType(MediaType.APPLICATION_JSON).content("[" + employeeId + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed").value(1));
+        mockMvc.perform(post("/department/{id}/members", departmentId).contentType(MediaType.APPLICATION_JSON).content("[" + employeeId + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed").value(0));
+        mockMvc.perform(get("/employee/{id}", employeeId))
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.departments.length()").value(2));
+        mockMvc.perform(get("/department/stats")).andExpect(jsonPath(members).value(1));
+
+        mockMvc.perform(delete("/department/{id}/members", departmentId).contentType(MediaType.APPLICATION_JSON).content("[" + employeeId + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed").value(1));
+        mockMvc.perform(get("/employee/{id}", employeeId))
+                .andExpect(header().string("ETag", "\"2\""))
+                .andExpect(jsonPath("$.departments.length()").value(1));
+        mockMvc.perform(get("/department/stats")).andExpect(jsonPath(members).value(0));
+
+        mockMvc.perform(delete("/department/{id}/members", 1).contentType(MediaType.APPLICATION_JSON).content("[" + employeeId + "]"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/department/{id}/members", departmentId).contentType(MediaType.APPLICATION_JSON).content("[" + employeeId + ", -1]"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void searchEmployees_namePrefixAndDepartment() throws Exception {
+        mockMvc.perform(post("/employee").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nameFirst\":\"Quentin\",\"nameLast\":\"Quokka\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/employee").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nameFirst\":\"Quokkaline\",\"nameLast\":\"Adams\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/employee/search").param("name", "Quok").param("departmentId", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].nameLast").value("Quokka"))
+                .andExpect(jsonPath("$[1].nameFirst").value("Quokkaline"))
+                .andExpect(jsonPath("$[1].departments[0].name").value("Organisation"));
+        mockMvc.perform(get("/employee/search").param("name", "Quok").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+        mockMvc.perform(get("/employee/search").param("name", "Q%"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+        mockMvc.perform(get("/employee/search"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void employeeETag_conditionalGetAndPut() throws Exception {
+        MvcResult created = mockMvc.perform(post("/employee").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nameFirst\":\"Versioned\",\"nameLast\":\"Tester\"}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        Long id = JsonPath.parse(created.getResponse().getContentAsString()).read("$.id", Long.class);
+
+        String eTag = mockMvc.perform(get("/employee/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""))
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/employee/{id}", id).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        String update = "{\"id\":" + id + ",\"nameFirst\":\"Renamed\",\"nameLast\":\"Tester\"}";
+        mockMvc.perform(put("/employee").header("If-Match", eTag).contentType(MediaType.APPLICATION_JSON).content(update))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.version").value(1));
+        mockMvc.perform(put("/employee").header("If-Match", eTag).contentType(MediaType.APPLICATION_JSON).content(update))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(get("/employee/{id}", id).header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nameFirst").value("Renamed"));
+    }
+
+    @Test
+    void departmentETag_conditionalGetAndPut() throws Exception {
+        MvcResult created = mockMvc.perform(post("/department").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Versioned\",\"readOnly\":false,\"mandatory\":false}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        Long id = JsonPath.parse(created.getResponse().getContentAsString()).read("$.id", Long.class);
+
+        mockMvc.perform(get("/department/{id}", id).header("If-None-Match", "\"0\""))
+                .andExpect(status().isNotModified());
+
+        String update = "{\"id\":" + id + ",\"name\":\"Versioned Renamed\",\"readOnly\":false,\"mandatory\":false}";
+        mockMvc.perform(put("/department").header("If-Match", "\"5\"").contentType(MediaType.APPLICATION_JSON).content(update))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/department").header("If-Match", "\"0\"").contentType(MediaType.APPLICATION_JSON).content(update))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""));
+    }
+
+    @Test
+    void patchEmployeeAndDepartment_mergePatchWithIfMatch() throws Exception {
+        MediaType mergePatch = MediaType.parseMediaType("application/merge-patch+json");
+        MvcResult created = mockMvc.perform(post("/employee").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nameFirst\":\"Patched\",\"nameLast\":\"Tpyo\"}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        Long id = JsonPath.parse(created.getResponse().getContentAsString()).read("$.id", Long.class);
+
+        mockMvc.perform(patch("/employee/{id}", id).contentType(MediaType.APPLICATION_JSON).content("{\"nameLast\":\"Typo\"}"))
+                .andExpect(status().isUnsupportedMediaType());
+        mockMvc.perform(patch("/employee/{id}", id).contentType(mergePatch).content("{\"lastName\":\"Typo\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/employee/{id}", id).header("If-Match", "\"0\"").contentType(mergePatch).content("{\"nameLast\":\"Typo\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.nameFirst").value("Patched"))
+                .andExpect(jsonPath("$.nameLast").value("Typo"));
+        mockMvc.perform(patch("/employee/{id}", id).header("If-Match", "\"0\"").contentType(mergePatch).content("{\"nameFirst\":\"Stale\"}"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(patch("/employee/{id}", 0).contentType(mergePatch).content("{\"nameLast\":\"Typo\"}"))
+                .andExpect(status().isNotFound());
+
+        MvcResult department = mockMvc.perform(post("/department").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Patched\",\"readOnly\":false,\"mandatory\":false}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        Long departmentId = JsonPath.parse(department.getResponse().getContentAsString()).read("$.id", Long.class);
+        mockMvc.perform(patch("/department/{id}", departmentId).header("If-Match", "\"0\"").contentType(mergePatch).content("{\"name\":\"Patched Renamed\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.name").value("Patched Renamed"))
+                .andExpect(jsonPath("$.readOnly").value(false));
+    }
+
+    @Test
+    void patch_corsPreflightFromFrontend_allowed() throws Exception {
+        mockMvc.perform(options("/employee/{id}", 1L)
+                        .header("Origin", "http://localhost:4200")
+                        .header("Access-Control-Request-Method", "PATCH"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Access-Control-Allow-Origin", "http://localhost:4200"))
+                .andExpect(header().string("Access-Control-Allow-Methods", containsString("PATCH")));
+    }
+
+    @Test
+    void getChanges_writesAppendedInCommitOrder() throws Exception {
+        long since = changeEventRepository.findLastOffset();
+        MvcResult department = mockMvc.perform(post("/department").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Feed\",\"readOnly\":false,\"mandatory\":false}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        Long departmentId = JsonPath.parse(department.getResponse().getContentAsString()).read("$.id", Long.class);
+        MvcResult employee = mockMvc.perform(post("/employee").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nameFirst\":\"Feed\",\"nameLast\":\"Tester\"}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        Long employeeId = JsonPath.parse(employee.getResponse().getContentAsString()).read("$.id", Long.class);
+        mockMvc.perform(post("/department/{id}/members", departmentId).contentType(MediaType.APPLICATION_JSON).content("[" + employeeId + "]"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/department/{id}", departmentId)).andExpect(status().isOk());
+
+        MvcResult changes = mockMvc.perform(get("/changes").param("since", String.valueOf(since)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult page = mockMvc.perform(asyncDispatch(changes))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.events.length()").value(5))
+                .andExpect(jsonPath("$.events[0].entityType").value("DEPARTMENT"))
+                .andExpect(jsonPath("$.events[0].payload.name").value("Feed"))
+                .andExpect(jsonPath("$.events[1].payload.departmentIds[0]").value(1))
+                .andExpect(jsonPath("$.events[2].payload.departmentIds.length()").value(2))
+                .andExpect(jsonPath("$.events[2].version").value(1))
+                .andExpect(jsonPath("$.events[3].entityId").value(departmentId))
+                .andExpect(jsonPath("$.events[3].operation").value("DELETED"))
+                .andExpect(jsonPath("$.events[3].payload").doesNotExist())
+                .andExpect(jsonPath("$.events[4].entityId").value(employeeId))
+                .andExpect(jsonPath("$.events[4].version").value(2))
+                .andExpect(jsonPath("$.events[4].payload.departmentIds.length()").value(1))
+                .andReturn();
+        long next = JsonPath.parse(page.getResponse().getContentAsString()).read("$.next", Long.class);
+
+        MvcResult waiting = mockMvc.perform(get("/changes").param("since", String.valueOf(next)).param("wait", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(waiting))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.events.length()").value(0))
+                .andExpect(jsonPath("$.next").value(next));
+    }
+
+    @Test
+    void reactiveReads_matchBlockingReads() throws Exception {
+        MvcResult created = mockMvc.perform(post("/employee").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nameFirst\":\"Reactive\",\"nameLast\":\"Tester\"}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        Long id = JsonPath.parse(created.getResponse().getContentAsString()).read("$.id", Long.class);
+        String blocking = mockMvc.perform(get("/employee/{id}", id)).andReturn().getResponse().getContentAsString();
+
+        MvcResult employee = mockMvc.perform(get("/reactive/employee/{id}", id)).andExpect(request().asyncStarted()).andReturn();
+        mockMvc.perform(asyncDispatch(employee))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""))
+                .andExpect(content().json(blocking, true));
+
+        MvcResult missing = mockMvc.perform(get("/reactive/employee/{id}", Long.MAX_VALUE)).andExpect(request().asyncStarted()).andReturn();
+        mockMvc.perform(asyncDispatch(missing)).andExpect(status().isNotFound());
+
+        MvcResult employees = mockMvc.perform(get("/reactive/employee").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String lines = mockMvc.perform(asyncDispatch(employees))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        assertTrue(lines.contains(blocking + "\n"));
+
+        MvcResult departments = mockMvc.perform(get("/reactive/department").accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(departments))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Organisation"))
+                .andExpect(jsonPath("$[0].version").value(0));
+    }
+
+    @Test
+    void prometheus_exposesEndpointServiceRepositoryAndExceptionMetrics() throws Exception {
+        mockMvc.perform(get("/employee").param("limit", "5")).andExpect(status().isOk());
+        mockMvc.perform(get("/department/{id}", Long.MAX_VALUE)).andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+                .andExpect(content().string(containsString("http_server_requests_statements_count{method=\"GET\",uri=\"/employee\"}")))
+                .andExpect(content().string(containsString("service_calls_seconds_bucket")))
+                .andExpect(content().string(containsString("spring_data_repository_invocations_seconds_bucket")))
+                .andExpect(content().string(containsString("http_server_exceptions_total{exception=\"EntityNotFoundException\",status=\"404\"}")))
+                .andExpect(content().string(containsString("hibernate_query_executions_total")))
+                .andExpect(content().string(containsString("hikaricp_connections_active")));
+    }
 }
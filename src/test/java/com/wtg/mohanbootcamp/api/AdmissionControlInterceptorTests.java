@@ -0,0 +1,149 @@
+package com.wtg.mohanbootcamp.api;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdmissionControlInterceptorTests {
+
+    private AdmissionControlInterceptor ref;
+
+    private AdmissionControlProperties properties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private HandlerMethod cheapHandler;
+
+    private HandlerMethod expensiveHandler;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        properties = new AdmissionControlProperties();
+        properties.setCheap(new AdmissionControlProperties.Budget(1, 3));
+        properties.setExpensive(new AdmissionControlProperties.Budget(1, 5));
+        properties.setExpensiveMaxConcurrent(1);
+        meterRegistry = new SimpleMeterRegistry();
+        ref = new AdmissionControlInterceptor(properties, meterRegistry);
+        cheapHandler = new HandlerMethod(this, Handlers.class.getMethod("cheap"));
+        expensiveHandler = new HandlerMethod(this, Handlers.class.getMethod("expensive"));
+    }
+
+    @Test
+    public void testPreHandle_burstExhausted_rejectedWithRetryAfter() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(ref.preHandle(request("a"), new MockHttpServletResponse(), cheapHandler));
+        }
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class,
+                () -> ref.preHandle(request("a"), new MockHttpServletResponse(), cheapHandler));
+
+        assertTrue(exception.getRetryAfter().compareTo(Duration.ZERO) > 0);
+        assertTrue(exception.getRetryAfter().compareTo(Duration.ofSeconds(1)) <= 0);
+        assertTrue(ref.preHandle(request("b"), new MockHttpServletResponse(), cheapHandler));
+        assertEquals(1.0, meterRegistry.get("admission.rejections").tag("reason", "rate").counter().count());
+        assertEquals(1.0, meterRegistry.get("admission.buckets.throttled").tag("budget", "cheap").gauge().value());
+    }
+
+    @Test
+    public void testPreHandle_expensiveInProgress_rejectedUntilCompleted() {
+        MockHttpServletRequest first = request("a");
+        ref.preHandle(first, new MockHttpServletResponse(), expensiveHandler);
+
+        assertThrows(TooManyRequestsException.class, () -> ref.preHandle(request("b"), new MockHttpServletResponse(), expensiveHandler));
+        assertTrue(ref.preHandle(request("b"), new MockHttpServletResponse(), cheapHandler));
+        assertEquals(1.0, meterRegistry.get("admission.expensive.active").gauge().value());
+
+        ref.afterCompletion(first, new MockHttpServletResponse(), expensiveHandler, null);
+        ref.afterCompletion(first, new MockHttpServletResponse(), expensiveHandler, null);  // Released once only
+        assertTrue(ref.preHandle(request("b"), new MockHttpServletResponse(), expensiveHandler));
+        assertEquals(1.0, meterRegistry.get("admission.rejections").tag("reason", "concurrency").counter().count());
+    }
+
+    @Test
+    public void testPreHandle_asyncDispatch_notChargedAgain() {
+        MockHttpServletRequest request = request("a");
+        ref.preHandle(request, new MockHttpServletResponse(), expensiveHandler);
+        request.setDispatcherType(DispatcherType.ASYNC);
+
+        assertTrue(ref.preHandle(request, new MockHttpServletResponse(), expensiveHandler));
+    }
+
+    @Test
+    public void testPreHandle_untrustedClientHeader_keyedOnRemoteAddress() {
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest request = request("a");
+            request.addHeader("X-Client-Id", "spoofed-" + i);
+            assertTrue(ref.preHandle(request, new MockHttpServletResponse(), cheapHandler));
+        }
+
+        assertThrows(TooManyRequestsException.class, () -> ref.preHandle(request("a"), new MockHttpServletResponse(), cheapHandler));
+        assertEquals(1.0, meterRegistry.get("admission.buckets").tag("budget", "cheap").gauge().value());
+    }
+
+    @Test
+    public void testPreHandle_trustedClientHeader_keyedOnHeader() {
+        properties.setClientHeader("X-Client-Id");
+        ref = new AdmissionControlInterceptor(properties, new SimpleMeterRegistry());
+        for (int i = 0; i < 3; i++) {
+            assertTrue(ref.preHandle(proxied("a"), new MockHttpServletResponse(), cheapHandler));
+        }
+
+        assertThrows(TooManyRequestsException.class, () -> ref.preHandle(proxied("a"), new MockHttpServletResponse(), cheapHandler));
+        assertTrue(ref.preHandle(proxied("b"), new MockHttpServletResponse(), cheapHandler));
+    }
+
+    @Test
+    public void testPreHandle_maxClientsReached_furtherClientsShareOverflowBucket() {
+        properties.setMaxClients(1);
+        meterRegistry = new SimpleMeterRegistry();
+        ref = new AdmissionControlInterceptor(properties, meterRegistry);
+        assertTrue(ref.preHandle(request("a"), new MockHttpServletResponse(), cheapHandler));
+        for (int i = 0; i < 3; i++) {
+            assertTrue(ref.preHandle(request("b" + i), new MockHttpServletResponse(), cheapHandler));
+        }
+
+        assertThrows(TooManyRequestsException.class, () -> ref.preHandle(request("c"), new MockHttpServletResponse(), cheapHandler));
+        assertTrue(ref.preHandle(request("a"), new MockHttpServletResponse(), cheapHandler));
+        assertEquals(1.0, meterRegistry.get("admission.buckets").tag("budget", "cheap").gauge().value());
+    }
+
+    @Test
+    public void testTokenBucket_refillsAtRate() {
+        TokenBucket bucket = new TokenBucket(10, 2, 0);
+
+        assertEquals(0, bucket.tryTake(0));
+        assertEquals(0, bucket.tryTake(0));
+        assertEquals(100_000_000L, bucket.tryTake(0));
+        assertEquals(0, bucket.tryTake(100_000_000L));
+        assertEquals(1.0, bucket.availableTokens(200_000_000L), 0.001);
+        assertFalse(bucket.isFull(200_000_000L));
+        assertTrue(bucket.isFull(300_000_000L));
+    }
+
+    private static MockHttpServletRequest request(String remoteAddress) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/employee");
+        request.setRemoteAddr(remoteAddress);
+        return request;
+    }
+
+    private static MockHttpServletRequest proxied(String client) {
+        MockHttpServletRequest request = request("10.0.0.1");
+        request.addHeader("X-Client-Id", client);
+        return request;
+    }
+
+    public interface Handlers {
+
+        void cheap();
+
+        @ExpensiveRequest
+        void expensive();
+    }
+}
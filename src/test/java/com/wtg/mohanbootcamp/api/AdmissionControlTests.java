@@ -0,0 +1,47 @@
+package com.wtg.mohanbootcamp.api;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "app.admission.enabled=true",
+        "app.admission.expensive.rate=0.01",
+        "app.admission.expensive.burst=2",
+        "spring.datasource.url=jdbc:h2:mem:admission-control;DB_CLOSE_DELAY=-1"})
+@AutoConfigureMockMvc
+public class AdmissionControlTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void testExpensiveBudgetExhausted_429WithRetryAfter() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/employee").param("limit", "1").with(from("10.0.0.1")))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(get("/employee").param("limit", "1").with(from("10.0.0.1")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "100"))
+                .andExpect(jsonPath("$.message").value("Request rate limit exceeded, please retry later"));
+        mockMvc.perform(get("/department/{id}", 1L).with(from("10.0.0.1")))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/employee").param("limit", "1").with(from("10.0.0.2")))
+                .andExpect(status().isOk());
+    }
+
+    private static RequestPostProcessor from(String remoteAddress) {
+        return request -> {
+            request.setRemoteAddr(remoteAddress);
+            return request;
+        };
+    }
+}
@@ -0,0 +1,102 @@
+package com.wtg.mohanbootcamp.persistence;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wtg.mohanbootcamp.service.ChangeEventCompactor;
+import com.wtg.mohanbootcamp.service.DepartmentService;
+import com.wtg.mohanbootcamp.service.EmployeeService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against its own database with a tiny batch size, so compaction takes several batches.
+ */
+@SpringBootTest(properties = {
+        "app.changes.compaction-batch-size=2",
+        "app.changes.compact-after=1h",
+        "app.changes.retention=7d",
+        "spring.datasource.url=jdbc:h2:mem:change-compaction;DB_CLOSE_DELAY=-1"})
+public class ChangeEventCompactionTests {
+
+    @Autowired
+    private ChangeEventRepository changeEventRepository;
+
+    @Autowired
+    private ChangeEventCompactor changeEventCompactor;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void testCompact_supersededDeletedAndOldTombstonesPurged() {
+        Instant now = Instant.now();
+        Instant old = now.minus(Duration.ofDays(8));
+        long first = changeEventRepository.appendAll(List.of(
+                event(1L, ChangeEvent.SAVED, old),
+                event(2L, ChangeEvent.SAVED, old),
+                event(1L, ChangeEvent.SAVED, old),
+                event(3L, ChangeEvent.SAVED, old),
+                event(3L, ChangeEvent.DELETED, old))) - 4;
+        long recent = changeEventRepository.appendAll(List.of(
+                event(2L, ChangeEvent.SAVED, now),
+                event(4L, ChangeEvent.SAVED, now.minus(Duration.ofHours(2))),
+                event(4L, ChangeEvent.DELETED, now.minus(Duration.ofHours(2)))));
+
+        changeEventCompactor.compact();
+        changeEventCompactor.compact();
+
+        List<Long> retained = changeEventRepository.findAfter(first - 1, 100).stream().map(ChangeEvent::getOffset).toList();
+        // The tombstone of employee 4 is within retention, the one of employee 3 is purged
+        assertEquals(List.of(first + 2, recent - 2, recent), retained);
+        assertEquals(first + 4, changeEventRepository.findPurgedThrough());
+        assertEquals(recent, changeEventRepository.findCompactedThrough());
+    }
+
+    @Test
+    public void testCompact_departmentDeletionPurged_replayFromStartHasMembersWithoutIt() throws Exception {
+        long since = changeEventRepository.findLastOffset();
+        Department department = departmentService.createDepartment(Department.builder().name("Purged").readOnly(Boolean.FALSE).mandatory(Boolean.FALSE).build());
+        Employee employee = employeeService.createEmployee(Employee.builder().nameFirst("Purged").nameLast("Member")
+                .departments(new HashSet<>(Set.of(Department.builder().id(department.getId()).build()))).build());
+        departmentService.deleteDepartment(department.getId());
+        jdbcTemplate.update("UPDATE CHANGE_EVENT SET CREATED_AT = ? WHERE ID > ?", Timestamp.from(Instant.now().minus(Duration.ofDays(8))), since);
+
+        changeEventCompactor.compact();
+
+        List<ChangeEvent> replayed = changeEventRepository.findAfter(0, 1000);
+        assertTrue(replayed.stream().noneMatch(event -> ChangeEvent.DEPARTMENT.equals(event.getEntityType())
+                && department.getId().equals(event.getEntityId())));
+        List<ChangeEvent> memberEvents = replayed.stream().filter(event -> ChangeEvent.EMPLOYEE.equals(event.getEntityType())
+                && employee.getId().equals(event.getEntityId())).toList();
+        assertEquals(1, memberEvents.size());
+        JsonNode payload = objectMapper.readTree(memberEvents.get(0).getPayload());
+        assertEquals(1L, memberEvents.get(0).getVersion());
+        assertEquals(1, payload.path("departmentIds").size());
+        assertNotEquals(department.getId(), payload.path("departmentIds").get(0).asLong());
+    }
+
+    private static ChangeEvent event(Long employeeId, String operation, Instant createdAt) {
+        return new ChangeEvent(null, ChangeEvent.EMPLOYEE, employeeId, operation, null,
+                ChangeEvent.DELETED.equals(operation) ? null : "{}", createdAt);
+    }
+}
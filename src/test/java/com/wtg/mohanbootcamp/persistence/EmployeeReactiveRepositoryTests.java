@@ -0,0 +1,89 @@
+package com.wtg.mohanbootcamp.persistence;
+
+import com.wtg.mohanbootcamp.service.DepartmentService;
+import com.wtg.mohanbootcamp.service.EmployeeService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Writes through JPA and reads back over R2DBC, on a database of its own.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:reactive-reads;DB_CLOSE_DELAY=-1")
+public class EmployeeReactiveRepositoryTests {
+
+    @Autowired
+    private EmployeeReactiveRepository employeeReactiveRepository;
+
+    @Autowired
+    private DepartmentReactiveRepository departmentReactiveRepository;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Test
+    public void testFindWithDepartmentsById_seesCommittedJpaWrite() {
+        Department department = departmentService.createDepartment(Department.builder().name("Reactive").readOnly(false).mandatory(false).build());
+        Employee created = employeeService.createEmployee(Employee.builder().nameFirst("Reactive").nameLast("Reader")
+                .departments(Set.of(Department.builder().id(department.getId()).build())).build());
+
+        Employee employee = employeeReactiveRepository.findWithDepartmentsById(created.getId()).block();
+
+        assertNotNull(employee);
+        assertEquals("Reader", employee.getNameLast());
+        assertEquals(0L, employee.getVersion());
+        assertEquals(Set.of("Organisation", "Reactive"), employee.getDepartments().stream().map(Department::getName).collect(Collectors.toSet()));
+        assertTrue(employee.getDepartments().stream().filter(d -> d.getId() == 1L).allMatch(Department::getReadOnly));
+        assertNull(employeeReactiveRepository.findWithDepartmentsById(Long.MAX_VALUE).block());
+    }
+
+    @Test
+    public void testFindAllWithDepartments_oneEmployeePerIdInOrder() {
+        for (int i = 0; i < 3; i++) {
+            employeeService.createEmployee(Employee.builder().nameFirst("Streamed" + i).nameLast("Reader").build());
+        }
+
+        List<Employee> employees = employeeReactiveRepository.findAllWithDepartments().collectList().block();
+
+        assertNotNull(employees);
+        List<Long> ids = employees.stream().map(Employee::getId).toList();
+        assertEquals(ids.stream().sorted().distinct().toList(), ids);
+        assertTrue(employees.stream().allMatch(employee -> employee.getDepartments().stream().anyMatch(d -> d.getId() == 1L)));
+        assertEquals(1, employeeReactiveRepository.findAllWithDepartments().take(1).collectList().block().size());
+    }
+
+    @Test
+    public void testFindAllDepartments_flagsAndVersions() {
+        List<Department> departments = departmentReactiveRepository.findAll().collectList().block();
+
+        assertNotNull(departments);
+        Department organisation = departments.get(0);
+        assertEquals("Organisation", organisation.getName());
+        assertTrue(organisation.getReadOnly());
+        assertTrue(organisation.getMandatory());
+        assertEquals(0L, organisation.getVersion());
+    }
+
+    @Test
+    public void testReactiveDatabase_notH2OrDisabled_leftOutWithoutFailingStartup() {
+        ApplicationContextRunner runner = new ApplicationContextRunner().withUserConfiguration(ReactiveDatabase.class);
+
+        runner.withPropertyValues("app.reactive-read.enabled=true", "spring.datasource.url=jdbc:postgresql://localhost/empdept")
+                .run(context -> {
+                    assertNull(context.getStartupFailure());
+                    assertTrue(context.getBeansOfType(ReactiveDatabase.class).isEmpty());
+                });
+        runner.withPropertyValues("app.reactive-read.enabled=false", "spring.datasource.url=jdbc:h2:mem:reactive-disabled")
+                .run(context -> assertTrue(context.getBeansOfType(ReactiveDatabase.class).isEmpty()));
+    }
+}
@@ -0,0 +1,79 @@
+package com.wtg.mohanbootcamp.persistence;
+
+import com.wtg.mohanbootcamp.service.EmployeeService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against its own database with a small block size, so the blocks are easy to reason about.
+ */
+@SpringBootTest(properties = {
+        "app.id.block-size=10",
+        "spring.datasource.url=jdbc:h2:mem:id-allocation;DB_CLOSE_DELAY=-1"})
+public class IdAllocationTests {
+
+    private static final int BLOCK_SIZE = 10;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeJdbcRepository employeeJdbcRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void testSequence_incrementIsBlockSize() {
+        Long increment = jdbcTemplate.queryForObject(
+                "SELECT INCREMENT FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'SEQ_EMPLOYEE'", Long.class);
+
+        assertEquals(BLOCK_SIZE, increment);
+    }
+
+    @Test
+    public void testCreateEmployee_consecutiveIdsFromOneBlock() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long first = createEmployee().getId();
+        statistics.clear();
+        long second = createEmployee().getId();
+
+        if (first % BLOCK_SIZE != 0) {  // The second id may open the next block
+            assertEquals(first + 1, second);
+            assertEquals(2, statistics.getPrepareStatementCount());  // Employee and membership inserts, no sequence call
+        }
+    }
+
+    @Test
+    public void testColumnDefault_doesNotCollideWithAllocatedIds() {
+        long allocated = createEmployee().getId();
+        jdbcTemplate.update("INSERT INTO EMPLOYEE (NAME_FIRST, NAME_LAST) VALUES ('Default', 'Id')");
+        Long defaulted = jdbcTemplate.queryForObject("SELECT MAX(ID) FROM EMPLOYEE WHERE NAME_FIRST = 'Default'", Long.class);
+        List<Long> imported = employeeJdbcRepository.nextEmployeeIds(BLOCK_SIZE + 1);
+
+        assertTrue(defaulted > allocated);
+        assertEquals(BLOCK_SIZE + 1, imported.stream().distinct().count());
+        assertTrue(imported.stream().allMatch(id -> id > defaulted));
+        for (int i = 0; i < BLOCK_SIZE + BLOCK_SIZE; i++) {
+            Long id = createEmployee().getId();
+            assertNotEquals(defaulted, id);
+            assertFalse(imported.contains(id));
+        }
+    }
+
+    private Employee createEmployee() {
+        return employeeService.createEmployee(Employee.builder().nameFirst("Pooled").nameLast("Tester").build());
+    }
+}
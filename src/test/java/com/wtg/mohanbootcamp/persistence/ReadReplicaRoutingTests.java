@@ -0,0 +1,92 @@
+package com.wtg.mohanbootcamp.persistence;
+
+import com.wtg.mohanbootcamp.EmployeeDepartmentApiApplication;
+import com.wtg.mohanbootcamp.service.EmployeeService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against a primary and a second in-memory H2 database standing in for the replica. The replica starts as a
+ * copy of the primary and is then changed on its own, so every read shows which database served it.
+ */
+public class ReadReplicaRoutingTests {
+
+    private static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1";
+
+    private static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    @TempDir
+    private Path scriptDirectory;
+
+    @Test
+    public void testRouting_readOnlyTransactionsOnReplica_writesOnPrimary() {
+        Long employeeId;
+        try (ConfigurableApplicationContext context = start("--spring.datasource.url=" + PRIMARY_URL)) {
+            EmployeeService employeeService = context.getBean(EmployeeService.class);
+            employeeId = employeeService.createEmployee(Employee.builder().nameFirst("Routed").nameLast("Primary").build()).getId();
+        }
+        String script = scriptDirectory.resolve("primary.sql").toString();
+        database(PRIMARY_URL).execute("SCRIPT TO '" + script + "'");
+        JdbcTemplate replica = database(REPLICA_URL);
+        replica.execute("RUNSCRIPT FROM '" + script + "'");
+        replica.update("UPDATE EMPLOYEE SET NAME_LAST = 'Replica' WHERE ID = ?", employeeId);
+
+        try (ConfigurableApplicationContext context = start("--spring.datasource.url=" + PRIMARY_URL,
+                "--app.datasource.replica.enabled=true",
+                "--app.datasource.replica.url=" + REPLICA_URL)) {
+            EmployeeService employeeService = context.getBean(EmployeeService.class);
+            EmployeeRepository employeeRepository = context.getBean(EmployeeRepository.class);
+            TransactionTemplate readWrite = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+            assertEquals("Replica", employeeService.getEmployeeById(employeeId).getNameLast());
+            assertEquals("Replica", lastName(employeeService.getAllEmployees(), employeeId));
+            assertEquals("Primary", readWrite.execute(status -> employeeRepository.findById(employeeId).orElseThrow().getNameLast()));
+
+            // The update reads and writes the primary, the replica only catches up by replication
+            Employee employee = Employee.builder().id(employeeId).nameFirst("Updated").nameLast("Primary").departments(new HashSet<>()).build();
+            employeeService.updateEmployee(employee);
+            assertEquals("Updated", database(PRIMARY_URL).queryForObject("SELECT NAME_FIRST FROM EMPLOYEE WHERE ID = ?", String.class, employeeId));
+            assertEquals("Routed", replica.queryForObject("SELECT NAME_FIRST FROM EMPLOYEE WHERE ID = ?", String.class, employeeId));
+        }
+    }
+
+    @Test
+    public void testRouting_replicaDisabled_autoConfiguredPoolOnly() {
+        try (ConfigurableApplicationContext context = start("--spring.datasource.url=jdbc:h2:mem:routing-disabled;DB_CLOSE_DELAY=-1")) {
+            assertInstanceOf(HikariDataSource.class, context.getBean(DataSource.class));
+            assertTrue(context.getBeansOfType(ReadReplicaDataSourceConfig.class).isEmpty());
+        }
+    }
+
+    private static String lastName(List<Employee> employees, Long id) {
+        return employees.stream().filter(employee -> employee.getId().equals(id)).findFirst().orElseThrow().getNameLast();
+    }
+
+    private static JdbcTemplate database(String url) {
+        return new JdbcTemplate(new SingleConnectionDataSource(url, "sa", "", true));
+    }
+
+    private static ConfigurableApplicationContext start(String... args) {
+        List<String> arguments = new ArrayList<>(List.of(args));
+        arguments.add("--spring.h2.console.enabled=false");
+        return new SpringApplicationBuilder(EmployeeDepartmentApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(arguments.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,102 @@
+package com.wtg.mohanbootcamp.persistence;
+
+import com.wtg.mohanbootcamp.service.DepartmentService;
+import com.wtg.mohanbootcamp.service.EmployeeService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class SecondLevelCacheTests {
+
+    private static final Long ID_DEPARTMENT_ORGANISATION = 1L;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void testFindDepartmentById_secondRead_servedFromCache() {
+        transactionTemplate.executeWithoutResult(status -> departmentRepository.findById(ID_DEPARTMENT_ORGANISATION));
+        transactionTemplate.executeWithoutResult(status -> departmentRepository.findById(ID_DEPARTMENT_ORGANISATION));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getCacheRegionStatistics(Department.CACHE_REGION).getHitCount());
+        assertTrue(meterRegistry.get("hibernate.second.level.cache.requests").tag("region", Department.CACHE_REGION).tag("result", "hit").functionCounter().count() >= 1);
+    }
+
+    @Test
+    public void testFindByMandatory_secondRead_servedFromQueryCache() {
+        transactionTemplate.executeWithoutResult(status -> departmentRepository.findByMandatory(true));
+        transactionTemplate.executeWithoutResult(status -> departmentRepository.findByMandatory(true));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    public void testEmployeeDepartments_departmentDeleted_cachedCollectionEvicted() {
+        Department department = departmentService.createDepartment(Department.builder().name("Cached").readOnly(Boolean.FALSE).mandatory(Boolean.FALSE).build());
+        Employee employee = employeeService.createEmployee(Employee.builder().nameFirst("Cached").nameLast("Member")
+                .departments(new HashSet<>(Set.of(Department.builder().id(department.getId()).build()))).build());
+
+        assertTrue(loadDepartmentIds(employee.getId()).contains(department.getId()));
+        statistics.clear();
+        assertTrue(loadDepartmentIds(employee.getId()).contains(department.getId()));
+        assertEquals(1, statistics.getCacheRegionStatistics(Employee.DEPARTMENTS_CACHE_REGION).getHitCount());
+
+        departmentService.deleteDepartment(department.getId());
+
+        Set<Long> departmentIds = loadDepartmentIds(employee.getId());
+        assertFalse(departmentIds.contains(department.getId()));
+        assertTrue(departmentIds.contains(ID_DEPARTMENT_ORGANISATION));
+    }
+
+    private Set<Long> loadDepartmentIds(Long employeeId) {
+        return transactionTemplate.execute(status -> employeeRepository.findById(employeeId).orElseThrow().getDepartments().stream()
+                .map(Department::getId)
+                .collect(Collectors.toSet()));
+    }
+}
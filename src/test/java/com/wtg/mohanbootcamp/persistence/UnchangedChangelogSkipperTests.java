@@ -0,0 +1,84 @@
+package com.wtg.mohanbootcamp.persistence;
+
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UnchangedChangelogSkipperTests {
+
+    private static final String CHANGELOG = "classpath:db/changelog/db.changelog-master.yaml";
+
+    private UnchangedChangelogSkipper ref;
+
+    private MockEnvironment environment;
+
+    private SingleConnectionDataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        environment = new MockEnvironment().withProperty("spring.liquibase.parameters.idBlockSize", "50");
+        ref = new UnchangedChangelogSkipper(environment, "classpath*:db/changelog/**/*.yaml");
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:changelog-skipper", "sa", "", true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        dataSource.destroy();
+        ref = null;
+    }
+
+    @Test
+    public void testMigrate_unchangedChangelogs_secondRunSkipped() throws Exception {
+        migrate();
+        forgetChangeSet13();
+        migrate();
+
+        assertEquals(0, changeSet13Runs());  // Would have been applied again
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + UnchangedChangelogSkipper.HASH_TABLE, Integer.class));
+    }
+
+    @Test
+    public void testMigrate_parameterChanged_migrationRuns() throws Exception {
+        migrate();
+        forgetChangeSet13();
+        environment.setProperty("spring.liquibase.parameters.idBlockSize", "20");
+        migrate();
+
+        assertEquals(1, changeSet13Runs());
+    }
+
+    private void forgetChangeSet13() {
+        jdbcTemplate.update("DELETE FROM DATABASECHANGELOG WHERE ID = '13'");
+    }
+
+    private int changeSet13Runs() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM DATABASECHANGELOG WHERE ID = '13'", Integer.class);
+    }
+
+    /**
+     * Drives the bean through the same callbacks as the application context.
+     */
+    private void migrate() throws Exception {
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog(CHANGELOG);
+        liquibase.setChangeLogParameters(Map.of("idBlockSize", environment.getProperty("spring.liquibase.parameters.idBlockSize")));
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        ref.postProcessBeforeInitialization(liquibase, "liquibase");
+        liquibase.afterPropertiesSet();
+        ref.postProcessAfterInitialization(liquibase, "liquibase");
+    }
+}
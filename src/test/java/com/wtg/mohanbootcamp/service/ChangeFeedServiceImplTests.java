@@ -0,0 +1,111 @@
+package com.wtg.mohanbootcamp.service;
+
+import com.wtg.mohanbootcamp.persistence.ChangeEvent;
+import com.wtg.mohanbootcamp.persistence.ChangeEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.security.InvalidParameterException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ChangeFeedServiceImplTests {
+
+    private static final long LAST_OFFSET = 12L;
+
+    private ChangeFeedServiceImpl ref;
+
+    @Mock
+    private ChangeEventRepository mockChangeEventRepository;
+
+    @BeforeEach
+    public void setUp() {
+        when(mockChangeEventRepository.findLastOffset()).thenReturn(LAST_OFFSET);
+
+        ref = new ChangeFeedServiceImpl(mockChangeEventRepository, Runnable::run);
+        ref.afterSingletonsInstantiated();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ref = null;
+    }
+
+    @Test
+    public void testGetChanges_behind_eventsAndNextOffset() {
+        when(mockChangeEventRepository.findPurgedThrough()).thenReturn(0L);
+        when(mockChangeEventRepository.findAfter(10L, LAST_OFFSET, 2)).thenReturn(List.of(event(11L), event(12L)));
+
+        ChangePage page = ref.getChanges(10L, 2);
+
+        assertEquals(List.of(11L, 12L), page.getEvents().stream().map(ChangeEvent::getOffset).toList());
+        assertEquals(12L, page.getNext());
+    }
+
+    @Test
+    public void testGetChanges_upToDate_noQuery() {
+        ChangePage page = ref.getChanges(LAST_OFFSET, 10);
+
+        assertTrue(page.getEvents().isEmpty());
+        assertEquals(LAST_OFFSET, page.getNext());
+        verify(mockChangeEventRepository, never()).findAfter(anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    public void testGetChanges_behindPurgedDeletions_exception() {
+        when(mockChangeEventRepository.findPurgedThrough()).thenReturn(5L);
+
+        assertThrows(ChangesExpiredException.class, () -> ref.getChanges(4L, 10));
+    }
+
+    @Test
+    public void testGetChanges_fromStartAfterPurge_snapshotRead() {
+        when(mockChangeEventRepository.findAfter(0L, LAST_OFFSET, 10)).thenReturn(List.of(event(7L)));
+
+        assertEquals(7L, ref.getChanges(0L, 10).getNext());
+    }
+
+    @Test
+    public void testGetChanges_invalidParameters_exception() {
+        InvalidParameterException since = assertThrows(InvalidParameterException.class, () -> ref.getChanges(-1L, 10));
+        assertEquals("Since can't be negative", since.getMessage());
+        InvalidParameterException limit = assertThrows(InvalidParameterException.class, () -> ref.getChanges(0L, ChangeFeedServiceImpl.MAX_LIMIT + 1));
+        assertEquals("Limit must be between 1 and 1000", limit.getMessage());
+        assertThrows(InvalidParameterException.class, () -> ref.awaitChanges(0L, 10, ChangeFeedServiceImpl.MAX_WAIT.plusSeconds(1)));
+    }
+
+    @Test
+    public void testAwaitChanges_upToDate_completedByNextCommit() throws Exception {
+        when(mockChangeEventRepository.findPurgedThrough()).thenReturn(0L);
+        when(mockChangeEventRepository.findAfter(LAST_OFFSET, LAST_OFFSET + 1, 10)).thenReturn(List.of(event(LAST_OFFSET + 1)));
+
+        CompletableFuture<ChangePage> changes = ref.awaitChanges(LAST_OFFSET, 10, Duration.ofSeconds(10));
+        assertFalse(changes.isDone());
+        ref.onChangesAppended(new ChangesAppendedEvent(LAST_OFFSET + 1));
+
+        assertEquals(LAST_OFFSET + 1, changes.get(1, TimeUnit.SECONDS).getNext());
+    }
+
+    @Test
+    public void testAwaitChanges_noCommit_emptyPageAfterWait() throws Exception {
+        ChangePage page = ref.awaitChanges(LAST_OFFSET, 10, Duration.ofMillis(50)).get(1, TimeUnit.SECONDS);
+
+        assertTrue(page.getEvents().isEmpty());
+        assertEquals(LAST_OFFSET, page.getNext());
+    }
+
+    private static ChangeEvent event(long offset) {
+        return new ChangeEvent(offset, ChangeEvent.EMPLOYEE, offset, ChangeEvent.SAVED, 0L, "{}", Instant.now());
+    }
+}
@@ -0,0 +1,102 @@
+package com.wtg.mohanbootcamp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wtg.mohanbootcamp.persistence.ChangeEventRepository;
+import com.wtg.mohanbootcamp.persistence.EmployeeJdbcRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ChangeOutboxTests {
+
+    private ChangeOutbox ref;
+
+    @Mock
+    private ChangeEventRepository mockChangeEventRepository;
+
+    @Mock
+    private EmployeeJdbcRepository mockEmployeeJdbcRepository;
+
+    @Mock
+    private EntityManager mockEntityManager;
+
+    @Mock
+    private ApplicationEventPublisher mockApplicationEventPublisher;
+
+    @BeforeEach
+    public void setUp() {
+        ref = new ChangeOutbox(mockChangeEventRepository, mockEmployeeJdbcRepository, mockEntityManager, new ObjectMapper(),
+                mockApplicationEventPublisher);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ref = null;
+    }
+
+    @Test
+    public void testCommit_lowerOffsetsInFlight_publishedOffsetStaysBelowThem() {
+        when(mockChangeEventRepository.nextOffsets(1)).thenReturn(List.of(5L), List.of(6L), List.of(7L));
+        TransactionSynchronization first = transaction(1L);
+        TransactionSynchronization second = transaction(2L);
+        TransactionSynchronization third = transaction(3L);
+        first.beforeCommit(false);
+        second.beforeCommit(false);
+        third.beforeCommit(false);
+
+        second.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        assertEquals(4L, lastPublishedOffset());
+        first.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertEquals(6L, lastPublishedOffset());
+        third.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        assertEquals(7L, lastPublishedOffset());
+        assertEquals(7L, ref.visibleThrough());
+    }
+
+    @Test
+    public void testAppend_noTransactionAndInsertFails_offsetsReleased() {
+        when(mockChangeEventRepository.nextOffsets(1)).thenReturn(List.of(5L), List.of(6L));
+        doThrow(new IllegalStateException("Insert failed")).when(mockChangeEventRepository).insertAll(anyList(), eq(List.of(5L)));
+
+        assertThrows(IllegalStateException.class, () -> ref.onEmployeeChanged(EmployeeChangedEvent.deleted(1L, Set.of())));
+        ref.onEmployeeChanged(EmployeeChangedEvent.deleted(2L, Set.of()));
+
+        assertEquals(6L, lastPublishedOffset());
+    }
+
+    /**
+     * Collects an employee deletion in a transaction of its own and returns the outbox synchronization, detached from
+     * the thread so several transactions can be interleaved.
+     */
+    private TransactionSynchronization transaction(Long employeeId) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            ref.onEmployeeChanged(EmployeeChangedEvent.deleted(employeeId, Set.of()));
+            return TransactionSynchronizationManager.getSynchronizations().get(0);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+            TransactionSynchronizationManager.unbindResource(ref);
+        }
+    }
+
+    private long lastPublishedOffset() {
+        ArgumentCaptor<ChangesAppendedEvent> event = ArgumentCaptor.forClass(ChangesAppendedEvent.class);
+        verify(mockApplicationEventPublisher, atLeastOnce()).publishEvent(event.capture());
+        return event.getValue().getLastOffset();
+    }
+}
@@ -0,0 +1,137 @@
+package com.wtg.mohanbootcamp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ConnectionConcurrencyLimiterTests {
+
+    private ConnectionConcurrencyLimiter ref;
+
+    @Mock
+    private ProceedingJoinPoint mockJoinPoint;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        ref = new ConnectionConcurrencyLimiter(1, Duration.ofMillis(100));
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+        ref = null;
+    }
+
+    @Test
+    public void testLimit_nestedServiceCall_doesNotTakeSecondPermit() throws Throwable {
+        ProceedingJoinPoint innerJoinPoint = mock(ProceedingJoinPoint.class);
+        when(innerJoinPoint.proceed()).thenReturn("inner");
+        when(mockJoinPoint.proceed()).thenAnswer(invocation -> ref.limit(innerJoinPoint));
+
+        assertEquals("inner", ref.limit(mockJoinPoint));
+    }
+
+    @Test
+    public void testLimit_permitsExhausted_throwsAfterTimeout() throws Throwable {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ProceedingJoinPoint blockingJoinPoint = mock(ProceedingJoinPoint.class);
+        when(blockingJoinPoint.proceed()).thenAnswer(invocation -> {
+            entered.countDown();
+            release.await();
+            return null;
+        });
+        Future<Object> holder = executor.submit(() -> {
+            try {
+                return ref.limit(blockingJoinPoint);
+            } catch (Throwable ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        assertThrows(CannotGetJdbcConnectionException.class, () -> ref.limit(mockJoinPoint));
+        verify(mockJoinPoint, never()).proceed();
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        when(mockJoinPoint.proceed()).thenReturn("done");
+        assertEquals("done", ref.limit(mockJoinPoint));
+    }
+
+    @Test
+    public void testLimit_callFails_permitReleased() throws Throwable {
+        when(mockJoinPoint.proceed()).thenThrow(new IllegalStateException("failed"));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ref.bindTo(registry);
+
+        assertThrows(IllegalStateException.class, () -> ref.limit(mockJoinPoint));
+        assertThrows(IllegalStateException.class, () -> ref.limit(mockJoinPoint));
+        assertEquals(0, registry.get("service.concurrency.active").gauge().value());
+        assertEquals(1, registry.get("service.concurrency.limit").gauge().value());
+    }
+
+    @Test
+    public void testLimit_coalescedRead_onlyLoadingCallerHoldsPermit() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ref.bindTo(registry);
+        EntityReadCoalescer coalescer = new EntityReadCoalescer(Duration.ZERO,
+                new StaticListableBeanFactory(Map.of("connectionConcurrencyLimiter", ref)).getBeanProvider(ConnectionConcurrencyLimiter.class));
+        coalescer.bindTo(registry);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        EmployeeView view = new EmployeeView(1L, "Shared", "Load", 0L, List.of());
+
+        Future<EmployeeView> leader = executor.submit(() -> coalescer.getEmployeeView(1L, id -> {
+            entered.countDown();
+            await(release);
+            return view;
+        }));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        Future<EmployeeView> waiter = executor.submit(() -> coalescer.getEmployeeView(1L, id -> fail("Loaded twice")));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.get("read.coalescing.requests").tags("entity", "employee", "result", "shared").functionCounter().count() < 1) {
+            assertTrue(System.nanoTime() < deadline, "Second reader did not join the load");
+            Thread.onSpinWait();
+        }
+
+        // The waiter neither holds nor waits for the only permit, so it can't time out behind the load
+        assertEquals(1, registry.get("service.concurrency.active").gauge().value());
+        assertEquals(0, registry.get("service.concurrency.queued").gauge().value());
+        release.countDown();
+        assertSame(view, leader.get(5, TimeUnit.SECONDS));
+        assertSame(view, waiter.get(5, TimeUnit.SECONDS));
+        assertEquals(0, registry.get("service.concurrency.active").gauge().value());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
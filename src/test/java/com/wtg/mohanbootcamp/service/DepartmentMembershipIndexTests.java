@@ -0,0 +1,168 @@
+package com.wtg.mohanbootcamp.service;
+
+import com.wtg.mohanbootcamp.persistence.EmployeeJdbcRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.security.InvalidParameterException;
+import java.util.List;
+import java.util.Set;
+import java.util.function.LongConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DepartmentMembershipIndexTests {
+
+    private static final long ID_DEPARTMENT_ORGANISATION = 1L;
+    private static final long ID_DEPARTMENT_SALES = 2L;
+    private static final long ID_DEPARTMENT_CONTRACTORS = 3L;
+    private static final long ID_DEPARTMENT_EMPTY = 4L;
+
+    private DepartmentMembershipIndex ref;
+
+    @Mock
+    private EmployeeJdbcRepository mockEmployeeJdbcRepository;
+
+    @BeforeEach
+    public void setUp() {
+        // 10 in Organisation and Sales, 11 in Organisation and Contractors, 12 in Organisation, 13 in none
+        doAnswer(invocation -> {
+            LongConsumer consumer = invocation.getArgument(0);
+            List.of(10L, 11L, 12L, 13L).forEach(consumer::accept);
+            return null;
+        }).when(mockEmployeeJdbcRepository).streamAllIds(any());
+        doAnswer(invocation -> {
+            LongConsumer consumer = invocation.getArgument(0);
+            List.of(ID_DEPARTMENT_ORGANISATION, ID_DEPARTMENT_SALES, ID_DEPARTMENT_CONTRACTORS, ID_DEPARTMENT_EMPTY).forEach(consumer::accept);
+            return null;
+        }).when(mockEmployeeJdbcRepository).streamAllDepartmentIds(any());
+        doAnswer(invocation -> {
+            EmployeeJdbcRepository.MembershipConsumer consumer = invocation.getArgument(0);
+            consumer.accept(ID_DEPARTMENT_ORGANISATION, 10L);
+            consumer.accept(ID_DEPARTMENT_ORGANISATION, 11L);
+            consumer.accept(ID_DEPARTMENT_ORGANISATION, 12L);
+            consumer.accept(ID_DEPARTMENT_SALES, 10L);
+            consumer.accept(ID_DEPARTMENT_CONTRACTORS, 11L);
+            return null;
+        }).when(mockEmployeeJdbcRepository).streamAllMemberships(any());
+
+        ref = new DepartmentMembershipIndex(mockEmployeeJdbcRepository);
+        ref.afterSingletonsInstantiated();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ref = null;
+    }
+
+    @Test
+    public void testQuery_andOrNot() {
+        assertEquals(List.of(10L), query("1 AND 2").getIds());
+        assertEquals(List.of(10L, 11L), query("2 or 3").getIds());
+        assertEquals(List.of(10L, 12L), query("1 AND NOT 3").getIds());
+        assertEquals(List.of(12L, 13L), query("NOT (2 OR 3)").getIds());
+        assertEquals(List.of(13L), query("NOT 1").getIds());
+    }
+
+    @Test
+    public void testLoad_departmentWithoutMembers_queryable() {
+        DepartmentMembershipIndex rebuilt = new DepartmentMembershipIndex(mockEmployeeJdbcRepository);
+        rebuilt.afterSingletonsInstantiated();
+
+        EmployeeQueryResult empty = rebuilt.query(DepartmentExpression.parse("4"), 0, 10);
+        assertEquals(0, empty.getCount());
+        assertEquals(List.of(), empty.getIds());
+        assertEquals(List.of(10L, 11L, 12L, 13L), rebuilt.query(DepartmentExpression.parse("NOT 4"), 0, 10).getIds());
+        assertThrows(EntityNotFoundException.class, () -> rebuilt.query(DepartmentExpression.parse("99"), 0, 10));
+    }
+
+    @Test
+    public void testQuery_precedence_notBeforeAndBeforeOr() {
+        assertEquals(List.of(10L, 11L, 13L), query("3 OR NOT 1 OR 2 AND 1").getIds());
+        assertEquals(List.of(11L), query("(3 OR NOT 1) AND 1").getIds());
+    }
+
+    @Test
+    public void testQuery_limit_pagesByCursor() {
+        EmployeeQueryResult first = ref.query(DepartmentExpression.parse("1"), 0, 2);
+
+        assertEquals(3, first.getCount());
+        assertEquals(List.of(10L, 11L), first.getIds());
+        assertNotNull(first.getNextCursor());
+
+        EmployeeQueryResult second = ref.query(DepartmentExpression.parse("1"), EmployeeCursor.decode(first.getNextCursor()), 2);
+        assertEquals(3, second.getCount());
+        assertEquals(List.of(12L), second.getIds());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    public void testQuery_limitZero_onlyCounts() {
+        EmployeeQueryResult result = ref.query(DepartmentExpression.parse("1"), 0, 0);
+
+        assertEquals(3, result.getCount());
+        assertTrue(result.getIds().isEmpty());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    public void testQuery_unknownDepartment_throwsException() {
+        assertThrows(EntityNotFoundException.class, () -> query("1 AND 99"));
+    }
+
+    @Test
+    public void testParse_malformed_throwsException() {
+        for (String expression : List.of("", "1 AND", "(1 OR 2", "1 2", "AND 1", "1 XOR 2", "Sales", "1)")) {
+            assertThrows(InvalidParameterException.class, () -> DepartmentExpression.parse(expression), expression);
+        }
+        assertThrows(InvalidParameterException.class, () -> DepartmentExpression.parse("1 OR ".repeat(300) + "1"));
+    }
+
+    @Test
+    public void testEmployeeChanged_updatesMembers() {
+        ref.onEmployeeChanged(new EmployeeChangedEvent(14L, "New", "Hire", 0L, Set.of(ID_DEPARTMENT_ORGANISATION, ID_DEPARTMENT_SALES), Set.of()));
+        ref.onEmployeeChanged(new EmployeeChangedEvent(10L, "Anna", "Smith", 1L, Set.of(ID_DEPARTMENT_ORGANISATION), Set.of(ID_DEPARTMENT_ORGANISATION, ID_DEPARTMENT_SALES)));
+        ref.onEmployeeChanged(EmployeeChangedEvent.deleted(11L, Set.of(ID_DEPARTMENT_ORGANISATION, ID_DEPARTMENT_CONTRACTORS)));
+
+        assertEquals(List.of(14L), query("2").getIds());
+        assertEquals(List.of(10L, 12L, 14L), query("1").getIds());
+        assertEquals(List.of(13L), query("NOT 1").getIds());
+        assertEquals(0, query("3").getCount());
+    }
+
+    @Test
+    public void testDepartmentMembersChanged_addsAndRemovesMembers() {
+        ref.onDepartmentMembersChanged(new DepartmentMembersChangedEvent(ID_DEPARTMENT_SALES, true, List.of(12L, 13L), 1));
+        assertEquals(List.of(10L, 12L, 13L), query("2").getIds());
+
+        ref.onDepartmentMembersChanged(new DepartmentMembersChangedEvent(ID_DEPARTMENT_SALES, false, List.of(10L, 13L), 1));
+        assertEquals(List.of(12L), query("2").getIds());
+    }
+
+    @Test
+    public void testDepartmentChanged_createdEmptyAndDeletedUnknown() {
+        ref.onDepartmentChanged(new DepartmentChangedEvent(5L, new DepartmentView(5L, "New", false, false), List.of(), 0));
+        assertEquals(0, query("5").getCount());
+
+        ref.onDepartmentChanged(DepartmentChangedEvent.deleted(ID_DEPARTMENT_SALES, List.of(), 0));
+        assertThrows(EntityNotFoundException.class, () -> query("2"));
+    }
+
+    @Test
+    public void testMemoryUse_reportedPerMillionMemberships() {
+        assertEquals(5, ref.getMemberships());
+        assertTrue(ref.getSizeInBytes() > 0);
+        assertEquals(ref.getSizeInBytes() * 1_000_000d / 5, ref.getBytesPerMillionMemberships(), 0.001);
+    }
+
+    private EmployeeQueryResult query(String expression) {
+        return ref.query(DepartmentExpression.parse(expression), 0, 100);
+    }
+}
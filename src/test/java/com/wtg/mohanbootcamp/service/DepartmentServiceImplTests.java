@@ -1,8 +1,12 @@
 package com.wtg.mohanbootcamp.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.wtg.mohanbootcamp.persistence.Department;
 import com.wtg.mohanbootcamp.persistence.DepartmentRepository;
 import com.wtg.mohanbootcamp.persistence.Employee;
+import com.wtg.mohanbootcamp.persistence.EmployeeRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,10 +16,15 @@ import org.junit.jupiter.api.function.Executable;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
 
+import java.security.InvalidParameterException;
 import java.util.*;
+import java.util.function.Function;
+import java.util.stream.LongStream;
 
 import static com.wtg.mohanbootcamp.service.EmployeeServiceImplTests.ID_EMPLOYEE_EXISTING;
 import static org.junit.jupiter.api.Assertions.*;
@@ -42,6 +51,21 @@ public class DepartmentServiceImplTests {
     @Mock
     private DepartmentRepository mockDepartmentRepository;
 
+    @Mock
+    private EmployeeRepository mockEmployeeRepository;
+
+    @Mock
+    private MandatoryDepartmentCache mockMandatoryDepartmentCache;
+
+    @Mock
+    private ApplicationEventPublisher mockApplicationEventPublisher;
+
+    @Mock
+    private DepartmentStatsCounters mockDepartmentStatsCounters;
+
+    @Mock
+    private EntityReadCoalescer mockEntityReadCoalescer;
+
     private Department departmentNotReadonlyMandatory;
     private Department departmentReadonlyNonMandatory;
     private Department departmentCreateRequest;
@@ -55,13 +79,15 @@ public class DepartmentServiceImplTests {
         setupDepartments();
         setupEmployee();
 
+        lenient().when(mockEntityReadCoalescer.getDepartment(anyLong(), any()))
+                .thenAnswer(invocation -> invocation.<Function<Long, Department>>getArgument(1).apply(invocation.getArgument(0)));
         lenient().when(mockDepartmentRepository.findAll()).thenReturn(new ArrayList<>(List.of(departmentNotReadonlyMandatory, departmentReadonlyNonMandatory)));
         lenient().when(mockDepartmentRepository.findById(ID_DEPARTMENT_READONLY_NON_MANDATORY)).thenReturn(Optional.of(departmentReadonlyNonMandatory));
         lenient().when(mockDepartmentRepository.findById(ID_DEPARTMENT_NOT_READONLY_MANDATORY)).thenReturn(Optional.of(departmentNotReadonlyMandatory));
         lenient().when(mockDepartmentRepository.findById(ID_DEPARTMENT_DOES_NOT_EXIST)).thenReturn(Optional.empty());
-        lenient().when(mockDepartmentRepository.save(departmentCreateRequest)).thenReturn(departmentCreateResponse);
-        lenient().when(mockDepartmentRepository.save(departmentDuplicateName)).thenThrow(new DataIntegrityViolationException(""));
-        lenient().when(mockDepartmentRepository.save(departmentNotReadonlyMandatory)).thenReturn(departmentNotReadonlyMandatory);
+        lenient().when(mockDepartmentRepository.saveAndFlush(departmentCreateRequest)).thenReturn(departmentCreateResponse);
+        lenient().when(mockDepartmentRepository.saveAndFlush(departmentDuplicateName)).thenThrow(new DataIntegrityViolationException(""));
+        lenient().when(mockDepartmentRepository.saveAndFlush(departmentNotReadonlyMandatory)).thenReturn(departmentNotReadonlyMandatory);
     }
 
     @AfterEach
@@ -105,6 +131,7 @@ public class DepartmentServiceImplTests {
     public void testCreateDepartment_validInput_success() {
         Department result = ref.createDepartment(departmentCreateRequest);
         assertEquals(result, departmentCreateResponse);
+        verify(mockMandatoryDepartmentCache, times(1)).invalidateAfterCommit();
     }
 
     @Test
@@ -136,6 +163,20 @@ public class DepartmentServiceImplTests {
         departmentNotReadonlyMandatory.setName(NAME_DEPARTMENT_NOT_READONLY_MANDATORY_UPDATED);
         Department result = ref.updateDepartment(departmentNotReadonlyMandatory);
         assertDepartment(result, ID_DEPARTMENT_NOT_READONLY_MANDATORY, NAME_DEPARTMENT_NOT_READONLY_MANDATORY_UPDATED, Boolean.FALSE, Boolean.TRUE);
+        verify(mockMandatoryDepartmentCache, times(1)).invalidateAfterCommit();
+    }
+
+    @Test
+    public void testUpdateDepartment_staleVersion_exception() {
+        departmentNotReadonlyMandatory.setVersion(2L);
+        Department staleRequest = Department.builder().id(ID_DEPARTMENT_NOT_READONLY_MANDATORY).name(NAME_DEPARTMENT_NOT_READONLY_MANDATORY_UPDATED)
+                .readOnly(Boolean.FALSE).mandatory(Boolean.TRUE).version(1L).build();
+
+        OptimisticLockingFailureException exception = assertThrows(OptimisticLockingFailureException.class, () -> ref.updateDepartment(staleRequest));
+
+        assertEquals("Department has been modified, reload it and retry", exception.getMessage());
+        verify(mockDepartmentRepository, never()).saveAndFlush(any());
+        verify(mockMandatoryDepartmentCache, never()).invalidateAfterCommit();
     }
 
     @Test
@@ -149,17 +190,169 @@ public class DepartmentServiceImplTests {
         assertEntityNotFoundException(() -> ref.getDepartmentById(ID_DEPARTMENT_DOES_NOT_EXIST), "Department Not Found");
     }
 
+    @Test
+    public void testPatchDepartment_nameOnly_success() throws Exception {
+        Department result = ref.patchDepartment(ID_DEPARTMENT_NOT_READONLY_MANDATORY, patch("{\"name\":\"" + NAME_DEPARTMENT_NOT_READONLY_MANDATORY_UPDATED + "\"}"));
+
+        assertDepartment(result, ID_DEPARTMENT_NOT_READONLY_MANDATORY, NAME_DEPARTMENT_NOT_READONLY_MANDATORY_UPDATED, Boolean.FALSE, Boolean.TRUE);
+        verify(mockMandatoryDepartmentCache, times(1)).invalidateAfterCommit();
+        verify(mockApplicationEventPublisher, times(1)).publishEvent(any(DepartmentChangedEvent.class));
+    }
+
+    @Test
+    public void testPatchDepartment_unchanged_nothingWritten() throws Exception {
+        Department result = ref.patchDepartment(ID_DEPARTMENT_NOT_READONLY_MANDATORY, patch("{\"mandatory\":true}"));
+
+        assertSame(departmentNotReadonlyMandatory, result);
+        verify(mockDepartmentRepository, never()).saveAndFlush(any());
+        verify(mockMandatoryDepartmentCache, never()).invalidateAfterCommit();
+    }
+
+    @Test
+    public void testPatchDepartment_readOnly_exceptionUnlessMadeWritable() throws Exception {
+        assertUnsupportedOperationException(() -> ref.patchDepartment(ID_DEPARTMENT_READONLY_NON_MANDATORY, patch("{\"name\":\"Renamed\"}")),
+                "Cannot modify a readonly department");
+        assertEquals(NAME_DEPARTMENT_READONLY_NON_MANDATORY, departmentReadonlyNonMandatory.getName());
+
+        when(mockDepartmentRepository.saveAndFlush(departmentReadonlyNonMandatory)).thenReturn(departmentReadonlyNonMandatory);
+        Department result = ref.patchDepartment(ID_DEPARTMENT_READONLY_NON_MANDATORY, patch("{\"readOnly\":false}"));
+        assertDepartment(result, ID_DEPARTMENT_READONLY_NON_MANDATORY, NAME_DEPARTMENT_READONLY_NON_MANDATORY, Boolean.FALSE, Boolean.FALSE);
+    }
+
+    @Test
+    public void testPatchDepartment_invalidOrStale_exception() {
+        departmentNotReadonlyMandatory.setVersion(2L);
+
+        InvalidParameterException nullName = assertThrows(InvalidParameterException.class,
+                () -> ref.patchDepartment(ID_DEPARTMENT_NOT_READONLY_MANDATORY, patch("{\"name\":null}")));
+        InvalidParameterException notBoolean = assertThrows(InvalidParameterException.class,
+                () -> ref.patchDepartment(ID_DEPARTMENT_NOT_READONLY_MANDATORY, patch("{\"mandatory\":\"yes\"}")));
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> ref.patchDepartment(ID_DEPARTMENT_NOT_READONLY_MANDATORY, patch("{\"name\":\"Stale\",\"version\":1}")));
+
+        assertEquals("Department Name can't be null or empty", nullName.getMessage());
+        assertEquals("mandatory must be a boolean", notBoolean.getMessage());
+        verify(mockDepartmentRepository, never()).saveAndFlush(any());
+    }
+
     @Test
     public void testDeleteDepartment_readOnlyFalse_success() {
+        when(mockDepartmentRepository.findMemberIdsByDepartmentId(ID_DEPARTMENT_NOT_READONLY_MANDATORY)).thenReturn(List.of(7L, 8L, 9L));
+        when(mockDepartmentRepository.countSoleMembersByDepartmentId(ID_DEPARTMENT_NOT_READONLY_MANDATORY)).thenReturn(3L);
         boolean result = ref.deleteDepartment(ID_DEPARTMENT_NOT_READONLY_MANDATORY);
         assertTrue(result);
-        verify(mockDepartmentRepository, times(1)).deleteById(ID_DEPARTMENT_NOT_READONLY_MANDATORY);
+        verify(mockDepartmentRepository, times(1)).incrementMemberVersionsByDepartmentId(ID_DEPARTMENT_NOT_READONLY_MANDATORY);
+        verify(mockDepartmentRepository, times(1)).deleteMembershipsByDepartmentId(ID_DEPARTMENT_NOT_READONLY_MANDATORY);
+        verify(mockDepartmentRepository, times(1)).deleteDepartmentById(ID_DEPARTMENT_NOT_READONLY_MANDATORY);
+        verify(mockDepartmentRepository, never()).deleteById(any());
+        assertTrue(employeeExisting.getDepartments().contains(departmentNotReadonlyMandatory));  // Members are not loaded or modified
+        verify(mockMandatoryDepartmentCache, times(1)).invalidateAfterCommit();
+        verify(mockApplicationEventPublisher, times(1)).publishEvent(argThat((DepartmentChangedEvent event) -> event.isDeleted()
+                && event.getMemberIds().equals(List.of(7L, 8L, 9L)) && event.getOrphanedMembers() == 3L));
     }
 
     @Test
     public void testDeleteDepartment_readOnlyTrue_exception() {
         assertUnsupportedOperationException(() -> ref.deleteDepartment(ID_DEPARTMENT_READONLY_NON_MANDATORY),
                 "Cannot delete a readonly department");
+        verify(mockDepartmentRepository, never()).deleteMembershipsByDepartmentId(any());
+        verify(mockMandatoryDepartmentCache, never()).invalidateAfterCommit();
+    }
+
+    @Test
+    public void testAddMembers_someAlreadyMembers_onlyNewMembersInserted() {
+        List<Long> joiningIds = List.of(ID_EMPLOYEE_EXISTING + 1, ID_EMPLOYEE_EXISTING + 2);
+        when(mockEmployeeRepository.lockIdsByIdIn(List.of(ID_EMPLOYEE_EXISTING, ID_EMPLOYEE_EXISTING + 1, ID_EMPLOYEE_EXISTING + 2)))
+                .thenReturn(List.of(ID_EMPLOYEE_EXISTING, ID_EMPLOYEE_EXISTING + 1, ID_EMPLOYEE_EXISTING + 2));
+        when(mockDepartmentRepository.findMemberIds(eq(ID_DEPARTMENT_NOT_READONLY_MANDATORY), any())).thenReturn(List.of(ID_EMPLOYEE_EXISTING));
+        when(mockDepartmentRepository.countWithoutDepartmentByIdIn(joiningIds)).thenReturn(1L);
+
+        DepartmentMembersResult result = ref.addMembers(ID_DEPARTMENT_NOT_READONLY_MANDATORY, List.of(ID_EMPLOYEE_EXISTING + 2, ID_EMPLOYEE_EXISTING, ID_EMPLOYEE_EXISTING + 1));
+
+        assertEquals(3, result.getRequested());
+        assertEquals(2, result.getChanged());
+        verify(mockEmployeeRepository, times(1)).incrementVersionsByIdIn(joiningIds);
+        verify(mockDepartmentRepository, times(1)).insertMemberships(ID_DEPARTMENT_NOT_READONLY_MANDATORY, joiningIds);
+        verify(mockApplicationEventPublisher, times(1)).publishEvent(argThat((DepartmentMembersChangedEvent event) ->
+                event.isAdded() && event.getEmployeeIds().equals(joiningIds) && event.getUnassigned() == 1L));
+    }
+
+    @Test
+    public void testAddMembers_allAlreadyMembers_nothingWritten() {
+        when(mockEmployeeRepository.lockIdsByIdIn(List.of(ID_EMPLOYEE_EXISTING))).thenReturn(List.of(ID_EMPLOYEE_EXISTING));
+        when(mockDepartmentRepository.findMemberIds(ID_DEPARTMENT_NOT_READONLY_MANDATORY, List.of(ID_EMPLOYEE_EXISTING))).thenReturn(List.of(ID_EMPLOYEE_EXISTING));
+
+        DepartmentMembersResult result = ref.addMembers(ID_DEPARTMENT_NOT_READONLY_MANDATORY, List.of(ID_EMPLOYEE_EXISTING));
+
+        assertEquals(0, result.getChanged());
+        verify(mockDepartmentRepository, never()).insertMemberships(any(), any());
+        verify(mockApplicationEventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    public void testAddMembers_manyEmployees_chunkedStatements() {
+        List<Long> employeeIds = LongStream.rangeClosed(1, DepartmentServiceImpl.MEMBERS_CHUNK_SIZE + 1).boxed().toList();
+        when(mockEmployeeRepository.lockIdsByIdIn(any())).thenAnswer(invocation -> List.copyOf(invocation.getArgument(0)));
+        when(mockDepartmentRepository.findMemberIds(eq(ID_DEPARTMENT_NOT_READONLY_MANDATORY), any())).thenReturn(List.of());
+
+        DepartmentMembersResult result = ref.addMembers(ID_DEPARTMENT_NOT_READONLY_MANDATORY, employeeIds);
+
+        assertEquals(employeeIds.size(), result.getChanged());
+        verify(mockDepartmentRepository, times(2)).insertMemberships(eq(ID_DEPARTMENT_NOT_READONLY_MANDATORY), any());
+    }
+
+    @Test
+    public void testAddMembers_employeeDoesNotExist_exception() {
+        when(mockEmployeeRepository.lockIdsByIdIn(List.of(ID_EMPLOYEE_EXISTING, 999L))).thenReturn(List.of(ID_EMPLOYEE_EXISTING));
+
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+                () -> ref.addMembers(ID_DEPARTMENT_NOT_READONLY_MANDATORY, List.of(999L, ID_EMPLOYEE_EXISTING)));
+
+        assertEquals("One or more employees not found", exception.getMessage());
+        verify(mockDepartmentRepository, never()).insertMemberships(any(), any());
+    }
+
+    @Test
+    public void testAddMembers_invalidIds_exception() {
+        DuplicateKeyException duplicate = assertThrows(DuplicateKeyException.class,
+                () -> ref.addMembers(ID_DEPARTMENT_NOT_READONLY_MANDATORY, List.of(ID_EMPLOYEE_EXISTING, ID_EMPLOYEE_EXISTING)));
+        assertEquals("Employee ids are duplicated", duplicate.getMessage());
+
+        InvalidParameterException empty = assertThrows(InvalidParameterException.class,
+                () -> ref.addMembers(ID_DEPARTMENT_NOT_READONLY_MANDATORY, List.of()));
+        assertEquals("Employee ids can't be null or empty", empty.getMessage());
+    }
+
+    @Test
+    public void testAddMembers_readOnlyDepartment_exception() {
+        assertUnsupportedOperationException(() -> ref.addMembers(ID_DEPARTMENT_READONLY_NON_MANDATORY, List.of(ID_EMPLOYEE_EXISTING)),
+                "Cannot change the members of a readonly department");
+        verify(mockEmployeeRepository, never()).lockIdsByIdIn(any());
+    }
+
+    @Test
+    public void testRemoveMembers_nonMandatoryDepartment_membersRemoved() {
+        when(mockDepartmentRepository.findById(ID_DEPARTMENT_CREATE_REQUEST)).thenReturn(Optional.of(departmentCreateResponse));
+        when(mockEmployeeRepository.lockIdsByIdIn(List.of(ID_EMPLOYEE_EXISTING, 999L))).thenReturn(List.of(ID_EMPLOYEE_EXISTING, 999L));
+        when(mockDepartmentRepository.findMemberIds(ID_DEPARTMENT_CREATE_REQUEST, List.of(ID_EMPLOYEE_EXISTING, 999L))).thenReturn(List.of(999L));
+
+        DepartmentMembersResult result = ref.removeMembers(ID_DEPARTMENT_CREATE_REQUEST, List.of(ID_EMPLOYEE_EXISTING, 999L));
+
+        assertEquals(1, result.getChanged());
+        verify(mockEmployeeRepository, times(1)).incrementVersionsByIdIn(List.of(999L));
+        verify(mockDepartmentRepository, times(1)).deleteMemberships(ID_DEPARTMENT_CREATE_REQUEST, List.of(999L));
+        verify(mockApplicationEventPublisher, times(1)).publishEvent(argThat((DepartmentMembersChangedEvent event) -> !event.isAdded()));
+    }
+
+    @Test
+    public void testRemoveMembers_mandatoryDepartment_exception() {
+        assertUnsupportedOperationException(() -> ref.removeMembers(ID_DEPARTMENT_NOT_READONLY_MANDATORY, List.of(ID_EMPLOYEE_EXISTING)),
+                "Cannot remove members from a mandatory department");
+        verify(mockDepartmentRepository, never()).deleteMemberships(any(), any());
+    }
+
+    private static JsonNode patch(String json) throws JsonProcessingException {
+        return new ObjectMapper().readTree(json);
     }
 
     // Helper Methods for Common Assertions
@@ -0,0 +1,126 @@
+package com.wtg.mohanbootcamp.service;
+
+import com.wtg.mohanbootcamp.persistence.Department;
+import com.wtg.mohanbootcamp.persistence.DepartmentMemberCount;
+import com.wtg.mohanbootcamp.persistence.DepartmentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DepartmentStatsCountersTests {
+
+    private static final Long ID_DEPARTMENT_ORGANISATION = 1L;
+    private static final Long ID_DEPARTMENT_SALES = 2L;
+    private static final Long ID_DEPARTMENT_SUPPORT = 3L;
+
+    private DepartmentStatsCounters ref;
+
+    @Mock
+    private DepartmentRepository mockDepartmentRepository;
+
+    @BeforeEach
+    public void setUp() {
+        when(mockDepartmentRepository.findAll()).thenReturn(List.of(
+                Department.builder().id(ID_DEPARTMENT_SALES).name("Sales").build(),
+                Department.builder().id(ID_DEPARTMENT_ORGANISATION).name("Organisation").build()));
+        when(mockDepartmentRepository.countMembersByDepartment()).thenReturn(List.of(
+                count(ID_DEPARTMENT_ORGANISATION, 10L), count(ID_DEPARTMENT_SALES, 4L)));
+        when(mockDepartmentRepository.countDistinctMembers()).thenReturn(11L);
+
+        ref = new DepartmentStatsCounters(mockDepartmentRepository);
+        ref.afterSingletonsInstantiated();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ref = null;
+    }
+
+    @Test
+    public void testSnapshot_loaded_countsOrderedById() {
+        DepartmentStats stats = ref.snapshot();
+
+        assertEquals(11L, stats.getDistinctEmployees());
+        assertEquals(List.of(ID_DEPARTMENT_ORGANISATION, ID_DEPARTMENT_SALES), stats.getDepartments().stream().map(DepartmentMemberStats::getId).toList());
+        assertEquals(List.of(10L, 4L), members(stats));
+        assertEquals("Sales", stats.getDepartments().get(1).getName());
+    }
+
+    @Test
+    public void testOnEmployeeChanged_createdUpdatedDeleted_deltasApplied() {
+        ref.onEmployeeChanged(new EmployeeChangedEvent(20L, "New", "Member", 0L, Set.of(ID_DEPARTMENT_ORGANISATION, ID_DEPARTMENT_SALES), Set.of()));
+        assertEquals(List.of(11L, 5L), members(ref.snapshot()));
+        assertEquals(12L, ref.getDistinctEmployees());
+
+        ref.onEmployeeChanged(new EmployeeChangedEvent(20L, "New", "Member", 1L, Set.of(ID_DEPARTMENT_ORGANISATION), Set.of(ID_DEPARTMENT_ORGANISATION, ID_DEPARTMENT_SALES)));
+        assertEquals(List.of(11L, 4L), members(ref.snapshot()));
+        assertEquals(12L, ref.getDistinctEmployees());
+
+        ref.onEmployeeChanged(new EmployeeChangedEvent(20L, "New", "Member", 2L, Set.of(), Set.of(ID_DEPARTMENT_ORGANISATION)));
+        assertEquals(List.of(10L, 4L), members(ref.snapshot()));
+        assertEquals(11L, ref.getDistinctEmployees());
+
+        ref.onEmployeeChanged(EmployeeChangedEvent.deleted(20L, Set.of()));
+        assertEquals(11L, ref.getDistinctEmployees());
+    }
+
+    @Test
+    public void testOnDepartmentChanged_createdAndDeleted_countersAdded() {
+        ref.onDepartmentChanged(DepartmentChangedEvent.saved(Department.builder().id(ID_DEPARTMENT_SUPPORT).name("Support").build()));
+        assertEquals(List.of(10L, 4L, 0L), members(ref.snapshot()));
+
+        ref.onDepartmentChanged(DepartmentChangedEvent.deleted(ID_DEPARTMENT_SALES, List.of(), 1L));
+        DepartmentStats stats = ref.snapshot();
+        assertEquals(List.of(ID_DEPARTMENT_ORGANISATION, ID_DEPARTMENT_SUPPORT), stats.getDepartments().stream().map(DepartmentMemberStats::getId).toList());
+        assertEquals(10L, stats.getDistinctEmployees());
+    }
+
+    @Test
+    public void testOnDepartmentMembersChanged_addedAndRemoved_countersMoved() {
+        ref.onDepartmentMembersChanged(new DepartmentMembersChangedEvent(ID_DEPARTMENT_SALES, true, List.of(20L, 21L, 22L), 1L));
+        assertEquals(List.of(10L, 7L), members(ref.snapshot()));
+        assertEquals(12L, ref.getDistinctEmployees());
+
+        ref.onDepartmentMembersChanged(new DepartmentMembersChangedEvent(ID_DEPARTMENT_SALES, false, List.of(20L, 21L), 1L));
+        assertEquals(List.of(10L, 5L), members(ref.snapshot()));
+        assertEquals(11L, ref.getDistinctEmployees());
+    }
+
+    @Test
+    public void testOnEmployeeChanged_departmentEventNotYetApplied_counterCreated() {
+        ref.onEmployeeChanged(new EmployeeChangedEvent(20L, "New", "Member", 0L, Set.of(ID_DEPARTMENT_SUPPORT), Set.of()));
+        ref.onDepartmentChanged(DepartmentChangedEvent.saved(Department.builder().id(ID_DEPARTMENT_SUPPORT).name("Support").build()));
+
+        DepartmentMemberStats support = ref.snapshot().getDepartments().get(2);
+        assertEquals("Support", support.getName());
+        assertEquals(1L, support.getMembers());
+    }
+
+    private static DepartmentMemberCount count(Long id, Long members) {
+        return new DepartmentMemberCount() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getMembers() {
+                return members;
+            }
+        };
+    }
+
+    private static List<Long> members(DepartmentStats stats) {
+        return stats.getDepartments().stream().map(DepartmentMemberStats::getMembers).toList();
+    }
+}
@@ -0,0 +1,120 @@
+package com.wtg.mohanbootcamp.service;
+
+import com.wtg.mohanbootcamp.persistence.Department;
+import com.wtg.mohanbootcamp.persistence.DepartmentRepository;
+import com.wtg.mohanbootcamp.persistence.Employee;
+import com.wtg.mohanbootcamp.persistence.EmployeeJdbcRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.wtg.mohanbootcamp.service.DepartmentServiceImplTests.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeImportServiceImplTests {
+
+    private static final int CHUNK_SIZE = 2;
+
+    private EmployeeImportService ref;
+
+    @Mock
+    private EmployeeJdbcRepository mockEmployeeJdbcRepository;
+
+    @Mock
+    private DepartmentRepository mockDepartmentRepository;
+
+    @Mock
+    private MandatoryDepartmentCache mockMandatoryDepartmentCache;
+
+    @Mock
+    private ApplicationEventPublisher mockApplicationEventPublisher;
+
+    @Mock
+    private PlatformTransactionManager mockTransactionManager;
+
+    private Department departmentMandatory;
+    private Department departmentNonMandatory;
+
+    @BeforeEach
+    public void setUp() {
+        ref = new EmployeeImportServiceImpl(mockEmployeeJdbcRepository, mockDepartmentRepository, mockMandatoryDepartmentCache, mockApplicationEventPublisher, mockTransactionManager, CHUNK_SIZE);
+
+        departmentMandatory = Department.builder().id(ID_DEPARTMENT_NOT_READONLY_MANDATORY).name(NAME_DEPARTMENT_NOT_READONLY_MANDATORY).readOnly(Boolean.FALSE).mandatory(Boolean.TRUE).build();
+        departmentNonMandatory = Department.builder().id(ID_DEPARTMENT_READONLY_NON_MANDATORY).name(NAME_DEPARTMENT_READONLY_NON_MANDATORY).readOnly(Boolean.TRUE).mandatory(Boolean.FALSE).build();
+
+        lenient().when(mockMandatoryDepartmentCache.getMandatoryDepartments()).thenReturn(List.of(departmentMandatory));
+        lenient().when(mockDepartmentRepository.findAllById(any())).thenReturn(List.of(departmentNonMandatory));
+        lenient().when(mockEmployeeJdbcRepository.nextEmployeeIds(anyInt())).thenAnswer(invocation -> {
+            int count = invocation.getArgument(0);
+            return java.util.stream.LongStream.rangeClosed(1, count).boxed().toList();
+        });
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ref = null;
+        departmentMandatory = null;
+        departmentNonMandatory = null;
+    }
+
+    private Employee employee(String nameFirst, Department... departments) {
+        return Employee.builder().nameFirst(nameFirst).nameLast("Last").departments(new HashSet<>(Set.of(departments))).build();
+    }
+
+    @Test
+    public void testImportEmployees_validRows_createdInChunks() {
+        List<Employee> employees = List.of(employee("A", departmentNonMandatory), employee("B"), employee("C"));
+
+        EmployeeImportResult result = ref.importEmployees(employees.iterator());
+
+        assertEquals(3, result.getRows());
+        assertEquals(3, result.getCreated());
+        assertEquals(0, result.getFailed());
+        assertEquals(List.of(0, 1, 2), result.getResults().stream().map(EmployeeImportRowResult::getIndex).toList());
+        verify(mockEmployeeJdbcRepository, times(2)).insertAll(any());
+        verify(mockDepartmentRepository, times(1)).findAllById(Set.of(ID_DEPARTMENT_READONLY_NON_MANDATORY));
+        assertTrue(employees.get(1).getDepartments().contains(departmentMandatory));  // Mandatory department is added
+    }
+
+    @Test
+    public void testImportEmployees_invalidRows_reportedPerRow() {
+        Department unknownDepartment = Department.builder().id(ID_DEPARTMENT_DOES_NOT_EXIST).build();
+        Employee withId = employee("D");
+        withId.setId(1L);
+        List<Employee> employees = List.of(employee(""), employee("B", unknownDepartment), withId, employee("E"));
+
+        EmployeeImportResult result = ref.importEmployees(employees.iterator());
+
+        assertEquals(1, result.getCreated());
+        assertEquals(3, result.getFailed());
+        assertEquals("First Name can't be null or empty", result.getResults().get(0).getError());
+        assertEquals("One or more departments not found", result.getResults().get(1).getError());
+        assertEquals("Please use update employee if id already exists", result.getResults().get(2).getError());
+        assertNotNull(result.getResults().get(3).getId());
+        verify(mockEmployeeJdbcRepository, times(1)).insertAll(List.of(employees.get(3)));
+    }
+
+    @Test
+    public void testImportEmployees_chunkWriteFails_chunkRowsFailed() {
+        doThrow(new DataIntegrityViolationException("")).doNothing().when(mockEmployeeJdbcRepository).insertAll(any());
+
+        EmployeeImportResult result = ref.importEmployees(List.of(employee("A"), employee("B"), employee("C")).iterator());
+
+        assertEquals(1, result.getCreated());
+        assertEquals("Chunk could not be saved", result.getResults().get(0).getError());
+        assertEquals("Chunk could not be saved", result.getResults().get(1).getError());
+        assertNotNull(result.getResults().get(2).getId());
+    }
+}
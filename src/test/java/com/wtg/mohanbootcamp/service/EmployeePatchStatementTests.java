@@ -0,0 +1,112 @@
+package com.wtg.mohanbootcamp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wtg.mohanbootcamp.persistence.Department;
+import com.wtg.mohanbootcamp.persistence.DepartmentRepository;
+import com.wtg.mohanbootcamp.persistence.Employee;
+import com.wtg.mohanbootcamp.persistence.HibernateStatementCounter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class EmployeePatchStatementTests {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @SpyBean
+    private HibernateStatementCounter hibernateStatementCounter;
+
+    private Statistics statistics;
+
+    private Employee employee;
+
+    private Department sales;
+
+    @BeforeEach
+    public void setUp() {
+        sales = departmentService.createDepartment(Department.builder().name("Patch " + System.nanoTime()).readOnly(Boolean.FALSE).mandatory(Boolean.FALSE).build());
+        employee = employeeService.createEmployee(Employee.builder().nameFirst("Patch").nameLast("Tpyo")
+                .departments(new HashSet<>(Set.of(Department.builder().id(sales.getId()).build()))).build());
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        clearInvocations(hibernateStatementCounter);
+    }
+
+    @Test
+    public void testPatchEmployee_lastNameOnly_onlyThatColumnWrittenAndMembershipsUntouched() throws Exception {
+        Employee result = employeeService.patchEmployee(employee.getId(), objectMapper.readTree("{\"nameLast\":\"Typo\"}"));
+
+        assertEquals("Typo", result.getNameLast());
+        assertEquals(1L, result.getVersion());
+        assertEquals(1, statistics.getEntityUpdateCount());
+        assertEquals(0, statistics.getCollectionUpdateCount() + statistics.getCollectionRecreateCount());
+        assertEquals(List.of("update employee set name_last=?,version=? where id=? and version=?"), updateStatements());
+        assertEquals(2, members());
+    }
+
+    @Test
+    public void testPatchEmployee_departmentLeft_onlyThatMembershipDeleted() throws Exception {
+        Long organisationId = departmentRepository.findByMandatory(true).get(0).getId();
+
+        Employee result = employeeService.patchEmployee(employee.getId(), objectMapper.readTree("{\"departments\":[]}"));
+
+        // The mandatory department is kept, the other one left with a single row delete
+        assertEquals(Set.of(organisationId), EmployeeChangedEvent.departmentIds(result));
+        assertEquals(1L, result.getVersion());
+        assertEquals(1, statistics.getCollectionUpdateCount());
+        assertEquals(0, statistics.getCollectionRecreateCount());
+        assertEquals(1, updateStatements().stream().filter(statement -> statement.startsWith("delete")).count());
+        assertEquals(1, members());
+    }
+
+    @Test
+    public void testPatchEmployee_unchanged_nothingWritten() throws Exception {
+        employeeService.patchEmployee(employee.getId(), objectMapper.readTree("{\"nameLast\":\"Tpyo\",\"departments\":[{\"id\":" + sales.getId() + "}]}"));
+
+        assertEquals(0, statistics.getEntityUpdateCount());
+        assertEquals(List.of(), updateStatements());
+    }
+
+    private List<String> updateStatements() {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(hibernateStatementCounter, atLeast(0)).inspect(sql.capture());
+        return sql.getAllValues().stream().filter(statement -> !statement.startsWith("select")).toList();
+    }
+
+    private int members() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM MAP_EMPLOYEE_DEPARTMENT WHERE ID_EMPLOYEE = ?", Integer.class, employee.getId());
+    }
+}
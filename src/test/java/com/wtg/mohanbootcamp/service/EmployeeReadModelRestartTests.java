@@ -0,0 +1,82 @@
+package com.wtg.mohanbootcamp.service;
+
+import com.wtg.mohanbootcamp.EmployeeDepartmentApiApplication;
+import com.wtg.mohanbootcamp.persistence.Employee;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmployeeReadModelRestartTests {
+
+    @TempDir
+    private Path snapshotDirectory;
+
+    @Test
+    public void testRestart_mapsSnapshotAndReplaysLaterChanges() throws Exception {
+        Path snapshot = snapshotDirectory.resolve("read-model.snapshot");
+        Path earlier = snapshotDirectory.resolve("earlier.snapshot");
+        Long keptId;
+        Long updatedId;
+        Long addedId;
+        try (ConfigurableApplicationContext context = start(snapshot)) {
+            EmployeeService employeeService = context.getBean(EmployeeService.class);
+            keptId = employeeService.createEmployee(Employee.builder().nameFirst("Kept").nameLast("Restart").build()).getId();
+            Employee updated = employeeService.createEmployee(Employee.builder().nameFirst("Before").nameLast("Restart").build());
+            updatedId = updated.getId();
+            context.getBean(EmployeeReadModel.class).writeSnapshot();
+            Files.copy(snapshot, earlier);
+
+            addedId = employeeService.createEmployee(Employee.builder().nameFirst("Added").nameLast("Restart").build()).getId();
+            employeeService.updateEmployee(Employee.builder().id(updatedId).nameFirst("After").nameLast("Restart").build());
+        }
+        // Restart from the earlier snapshot, the later changes are only in the change outbox
+        Files.move(earlier, snapshot, StandardCopyOption.REPLACE_EXISTING);
+
+        try (ConfigurableApplicationContext context = start(snapshot)) {
+            EmployeeService employeeService = context.getBean(EmployeeService.class);
+            assertTrue(context.getBean(EmployeeReadModel.class).isReady());
+            assertEquals("Kept", employeeService.getEmployeeView(keptId).getNameFirst());
+            assertEquals("Added", employeeService.getEmployeeView(addedId).getNameFirst());
+            EmployeeView after = employeeService.getEmployeeView(updatedId);
+            assertEquals("After", after.getNameFirst());
+            assertEquals(1L, after.getVersion());
+            assertEquals("Organisation", after.getDepartments().get(0).getName());
+        }
+    }
+
+    @Test
+    public void testRestart_snapshotAheadOfDatabase_loadsFromDatabase() throws Exception {
+        Path snapshot = snapshotDirectory.resolve("read-model.snapshot");
+        try (ConfigurableApplicationContext context = start(snapshot, "ahead-old")) {
+            context.getBean(EmployeeService.class).createEmployee(Employee.builder().nameFirst("Gone").nameLast("Restart").build());
+        }
+        assertTrue(Files.exists(snapshot));
+
+        // A new database whose outbox is behind the snapshot
+        try (ConfigurableApplicationContext context = start(snapshot, "ahead-new")) {
+            Integer employees = context.getBean(JdbcTemplate.class).queryForObject("SELECT COUNT(*) FROM EMPLOYEE", Integer.class);
+            assertEquals(employees, context.getBean(EmployeeReadModel.class).size());
+        }
+    }
+
+    private static ConfigurableApplicationContext start(Path snapshot) {
+        return start(snapshot, "read-model-restart");
+    }
+
+    private static ConfigurableApplicationContext start(Path snapshot, String database) {
+        return new SpringApplicationBuilder(EmployeeDepartmentApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                        "--app.employee.read-model.enabled=true",
+                        "--app.employee.read-model.snapshot.path=" + snapshot);
+    }
+}
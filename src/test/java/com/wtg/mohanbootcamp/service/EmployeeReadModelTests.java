@@ -0,0 +1,197 @@
+package com.wtg.mohanbootcamp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wtg.mohanbootcamp.persistence.ChangeEvent;
+import com.wtg.mohanbootcamp.persistence.ChangeEventRepository;
+import com.wtg.mohanbootcamp.persistence.Department;
+import com.wtg.mohanbootcamp.persistence.DepartmentRepository;
+import com.wtg.mohanbootcamp.persistence.Employee;
+import com.wtg.mohanbootcamp.persistence.EmployeeJdbcRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeReadModelTests {
+
+    private static final Long ID_DEPARTMENT_ORGANISATION = 1L;
+    private static final Long ID_DEPARTMENT_SALES = 2L;
+
+    private EmployeeReadModel ref;
+
+    @Mock
+    private EmployeeJdbcRepository mockEmployeeJdbcRepository;
+
+    @Mock
+    private DepartmentRepository mockDepartmentRepository;
+
+    @Mock
+    private ChangeEventRepository mockChangeEventRepository;
+
+    @TempDir
+    private Path snapshotDirectory;
+
+    private Path snapshotPath;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        Department departmentOrganisation = Department.builder().id(ID_DEPARTMENT_ORGANISATION).name("Organisation").readOnly(Boolean.TRUE).mandatory(Boolean.TRUE).build();
+        Department departmentSales = Department.builder().id(ID_DEPARTMENT_SALES).name("Sales").readOnly(Boolean.FALSE).mandatory(Boolean.FALSE).build();
+        List<Employee> employees = List.of(
+                employee(10L, "Anna", "Smith", departmentSales, departmentOrganisation),
+                employee(11L, "Bob", "Jones", departmentOrganisation),
+                employee(12L, "Carl", "Brown"));
+
+        lenient().when(mockDepartmentRepository.findAll()).thenReturn(List.of(departmentOrganisation, departmentSales));
+        lenient().doAnswer(invocation -> {
+            employees.forEach(invocation.getArgument(0, Consumer.class));
+            return null;
+        }).when(mockEmployeeJdbcRepository).streamAllWithDepartments(any());
+        lenient().when(mockChangeEventRepository.findLastOffset()).thenReturn(5L);
+
+        snapshotPath = snapshotDirectory.resolve("read-model.snapshot");
+        ref = readModel(true);
+        ref.afterSingletonsInstantiated();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ref = null;
+    }
+
+    @Test
+    public void testLoad_disabled_notLoaded() {
+        EmployeeReadModel disabled = readModel(false);
+        disabled.afterSingletonsInstantiated();
+
+        assertFalse(disabled.isReady());
+        verify(mockEmployeeJdbcRepository, times(1)).streamAllWithDepartments(any());  // Only by the enabled model
+    }
+
+    @Test
+    public void testGetEmployeeView_departmentsInIdOrder() {
+        EmployeeView result = ref.getEmployeeView(10L).orElseThrow();
+
+        assertTrue(ref.isReady());
+        assertEquals("Anna", result.getNameFirst());
+        assertEquals(0L, result.getVersion());
+        assertEquals(List.of("Organisation", "Sales"), result.getDepartments().stream().map(DepartmentView::getName).toList());
+        assertTrue(ref.getEmployeeView(99L).isEmpty());
+    }
+
+    @Test
+    public void testGetEmployeesAfter_idOrderFromCursor() {
+        assertEquals(List.of(10L, 11L), ref.getEmployeesAfter(0, 2).stream().map(EmployeeView::getId).toList());
+        assertEquals(List.of(12L), ref.getEmployeesAfter(11L, 2).stream().map(EmployeeView::getId).toList());
+    }
+
+    @Test
+    public void testEvents_updateEmployeesAndDepartments() {
+        ref.onEmployeeChanged(new EmployeeChangedEvent(13L, "Dora", "White", 0L, Set.of(ID_DEPARTMENT_ORGANISATION), Set.of()));
+        ref.onEmployeeChanged(EmployeeChangedEvent.deleted(12L, Set.of()));
+        ref.onDepartmentMembersChanged(new DepartmentMembersChangedEvent(ID_DEPARTMENT_SALES, true, List.of(11L), 0));
+        ref.onDepartmentChanged(DepartmentChangedEvent.saved(Department.builder().id(ID_DEPARTMENT_SALES).name("Revenue").readOnly(Boolean.FALSE).mandatory(Boolean.FALSE).build()));
+
+        assertEquals(List.of(10L, 11L, 13L), ref.getEmployeesAfter(0, 10).stream().map(EmployeeView::getId).toList());
+        EmployeeView moved = ref.getEmployeeView(11L).orElseThrow();
+        assertEquals(1L, moved.getVersion());
+        assertEquals(List.of("Organisation", "Revenue"), moved.getDepartments().stream().map(DepartmentView::getName).toList());
+
+        ref.onDepartmentChanged(DepartmentChangedEvent.deleted(ID_DEPARTMENT_SALES, List.of(), 0));
+        assertEquals(2L, ref.getEmployeeVersion(11L).orElseThrow());
+        assertEquals(1, ref.getEmployeeView(10L).orElseThrow().getDepartments().size());
+        assertEquals(0L, ref.getEmployeeVersion(13L).orElseThrow());  // Not a member, unchanged
+    }
+
+    @Test
+    public void testSnapshot_restoredAndCaughtUpFromOutbox() throws Exception {
+        ref.onChangesAppended(new ChangesAppendedEvent(5L));
+        ref.writeSnapshot();
+        assertTrue(Files.size(snapshotPath) > 0);
+
+        when(mockChangeEventRepository.findLastOffset()).thenReturn(8L);
+        when(mockChangeEventRepository.findAfter(5L, 1000)).thenReturn(List.of(
+                new ChangeEvent(6L, ChangeEvent.EMPLOYEE, 11L, ChangeEvent.SAVED, 3L,
+                        "{\"id\":11,\"nameFirst\":\"Robert\",\"nameLast\":\"Jones\",\"version\":3,\"departmentIds\":[1,2]}", Instant.now()),
+                new ChangeEvent(7L, ChangeEvent.EMPLOYEE, 12L, ChangeEvent.DELETED, null, null, Instant.now()),
+                new ChangeEvent(8L, ChangeEvent.DEPARTMENT, ID_DEPARTMENT_SALES, ChangeEvent.SAVED, null,
+                        "{\"id\":2,\"name\":\"Revenue\",\"readOnly\":false,\"mandatory\":false}", Instant.now())));
+        EmployeeReadModel restarted = readModel(true);
+        restarted.afterSingletonsInstantiated();
+
+        assertTrue(restarted.isReady());
+        verify(mockEmployeeJdbcRepository, times(1)).streamAllWithDepartments(any());  // Only by the first model
+        assertEquals(List.of(10L, 11L), restarted.getEmployeesAfter(0, 10).stream().map(EmployeeView::getId).toList());
+        EmployeeView robert = restarted.getEmployeeView(11L).orElseThrow();
+        assertEquals("Robert", robert.getNameFirst());
+        assertEquals(3L, robert.getVersion());
+        assertEquals(List.of("Organisation", "Revenue"), robert.getDepartments().stream().map(DepartmentView::getName).toList());
+        assertEquals(Boolean.TRUE, robert.getDepartments().get(0).getMandatory());
+    }
+
+    @Test
+    public void testSnapshot_departmentDeletionReplayed_removedFromMembers() {
+        ref.onChangesAppended(new ChangesAppendedEvent(5L));
+        ref.writeSnapshot();
+
+        when(mockChangeEventRepository.findLastOffset()).thenReturn(6L);
+        when(mockChangeEventRepository.findAfter(5L, 1000)).thenReturn(List.of(
+                new ChangeEvent(6L, ChangeEvent.DEPARTMENT, ID_DEPARTMENT_SALES, ChangeEvent.DELETED, null, null, Instant.now())));
+        EmployeeReadModel restarted = readModel(true);
+        restarted.afterSingletonsInstantiated();
+
+        EmployeeView anna = restarted.getEmployeeView(10L).orElseThrow();
+        assertEquals(1L, anna.getVersion());
+        assertEquals(List.of("Organisation"), anna.getDepartments().stream().map(DepartmentView::getName).toList());
+        assertEquals(0L, restarted.getEmployeeVersion(11L).orElseThrow());
+    }
+
+    @Test
+    public void testSnapshot_deletionsPurged_loadsFromDatabase() {
+        ref.writeSnapshot();
+        when(mockChangeEventRepository.findPurgedThrough()).thenReturn(6L);
+
+        EmployeeReadModel restarted = readModel(true);
+        restarted.afterSingletonsInstantiated();
+
+        assertTrue(restarted.isReady());
+        assertEquals(3, restarted.size());
+        verify(mockEmployeeJdbcRepository, times(2)).streamAllWithDepartments(any());
+        verify(mockChangeEventRepository, never()).findAfter(anyLong(), anyInt());
+    }
+
+    @Test
+    public void testSnapshot_notASnapshot_loadsFromDatabase() throws Exception {
+        Files.writeString(snapshotPath, "not a snapshot");
+
+        EmployeeReadModel restarted = readModel(true);
+        restarted.afterSingletonsInstantiated();
+
+        assertEquals(3, restarted.size());
+        verify(mockEmployeeJdbcRepository, times(2)).streamAllWithDepartments(any());
+    }
+
+    private EmployeeReadModel readModel(boolean enabled) {
+        return new EmployeeReadModel(mockEmployeeJdbcRepository, mockDepartmentRepository, mockChangeEventRepository,
+                new ObjectMapper(), enabled, snapshotPath.toString());
+    }
+
+    private static Employee employee(Long id, String nameFirst, String nameLast, Department... departments) {
+        return Employee.builder().id(id).nameFirst(nameFirst).nameLast(nameLast).version(0L).departments(Set.of(departments)).build();
+    }
+}
@@ -0,0 +1,96 @@
+package com.wtg.mohanbootcamp.service;
+
+import com.wtg.mohanbootcamp.persistence.Department;
+import com.wtg.mohanbootcamp.persistence.DepartmentRepository;
+import com.wtg.mohanbootcamp.persistence.Employee;
+import com.wtg.mohanbootcamp.persistence.EmployeeRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+public class EmployeeReadQueryCountTests {
+
+    private static final int EMPLOYEE_COUNT = 60;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Long firstEmployeeId;
+
+    @BeforeEach
+    public void setUp() {
+        List<Department> departments = departmentRepository.findAll();
+        for (int i = 0; i < EMPLOYEE_COUNT; i++) {
+            Employee employee = employeeRepository.save(Employee.builder().nameFirst("First" + i).nameLast("Last" + i)
+                    .departments(new HashSet<>(Set.copyOf(departments))).build());
+            if (firstEmployeeId == null) {
+                firstEmployeeId = employee.getId();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void testGetEmployeePage_statementCountIndependentOfPageSize() {
+        EmployeePage smallPage = employeeService.getEmployeePage(null, 5);
+        assertEquals(5, smallPage.getItems().size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        entityManager.clear();
+        statistics.clear();
+
+        EmployeePage largePage = employeeService.getEmployeePage(null, EMPLOYEE_COUNT);
+        assertEquals(EMPLOYEE_COUNT, largePage.getItems().size());
+        assertFalse(largePage.getItems().get(0).getDepartments().isEmpty());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testGetEmployeeView_singleStatement() {
+        EmployeeView result = employeeService.getEmployeeView(firstEmployeeId);
+
+        assertFalse(result.getDepartments().isEmpty());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testGetAllEmployees_singleStatement() {
+        List<Employee> result = employeeService.getAllEmployees();
+        result.forEach(employee -> employee.getDepartments().size());
+
+        assertTrue(result.size() >= EMPLOYEE_COUNT);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,109 @@
+package com.wtg.mohanbootcamp.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmployeeReadTableTests {
+
+    private static final int ID_DEPARTMENT_ORGANISATION = 1;
+    private static final int ID_DEPARTMENT_SALES = 2;
+
+    private EmployeeReadTable ref;
+
+    @BeforeEach
+    public void setUp() {
+        EmployeeReadTable.Builder builder = new EmployeeReadTable.Builder();
+        builder.add(10L, "Anna", "Smith", 0L, new int[]{ID_DEPARTMENT_ORGANISATION, ID_DEPARTMENT_SALES});
+        builder.add(20L, "Bob", "Jones", 0L, new int[]{ID_DEPARTMENT_ORGANISATION});
+        builder.add(30L, "Carl", "Brown", 0L, new int[0]);
+        ref = new EmployeeReadTable();
+        ref.replace(builder);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ref = null;
+    }
+
+    @Test
+    public void testBuilder_idsOutOfOrder_exception() {
+        EmployeeReadTable.Builder builder = new EmployeeReadTable.Builder();
+        builder.add(10L, "Anna", "Smith", 0L, new int[0]);
+
+        assertThrows(IllegalStateException.class, () -> builder.add(10L, "Anna", "Smith", 0L, new int[0]));
+    }
+
+    @Test
+    public void testAfter_columnsAndAddedRowsInIdOrder() {
+        ref.put(row(15L, "Dora", 0L));
+        ref.put(row(5L, "Eve", 0L));
+        ref.put(row(40L, "Fay", 0L));
+
+        assertEquals(6, ref.size());
+        assertEquals(List.of(5L, 10L, 15L, 20L, 30L, 40L), ids(ref.after(Long.MIN_VALUE, 10)));
+        assertEquals(List.of(15L, 20L), ids(ref.after(10L, 2)));
+        assertEquals(List.of(40L), ids(ref.after(30L, 2)));
+        assertEquals("Dora", ref.get(15L).nameFirst());
+    }
+
+    @Test
+    public void testPutAndRemove_inPlaceAndGapsSkipped() {
+        ref.put(new EmployeeReadTable.Row(20L, "Robert", "Jones", 3L, new int[]{ID_DEPARTMENT_ORGANISATION}));
+        ref.remove(10L);
+        ref.remove(99L);
+
+        assertEquals(2, ref.size());
+        assertNull(ref.get(10L));
+        assertEquals(3L, ref.get(20L).version());
+        assertEquals(List.of(20L, 30L), ids(ref.after(Long.MIN_VALUE, 10)));
+
+        ref.put(row(10L, "Anna", 4L));
+        assertEquals(3, ref.size());
+        assertEquals(4L, ref.get(10L).version());
+    }
+
+    @Test
+    public void testUpdateAndRemoveDepartment_membersBumped() {
+        ref.put(new EmployeeReadTable.Row(15L, "Dora", "White", 0L, new int[]{ID_DEPARTMENT_SALES}));
+        ref.update(30L, row -> row.withDepartment(ID_DEPARTMENT_SALES));
+        ref.update(99L, row -> row.withDepartment(ID_DEPARTMENT_SALES));
+
+        assertArrayEquals(new int[]{ID_DEPARTMENT_SALES}, ref.get(30L).departmentIds());
+        assertEquals(1L, ref.get(30L).version());
+        assertNull(ref.get(99L));
+
+        ref.removeDepartment(ID_DEPARTMENT_SALES);
+        assertArrayEquals(new int[]{ID_DEPARTMENT_ORGANISATION}, ref.get(10L).departmentIds());
+        assertEquals(1L, ref.get(10L).version());
+        assertEquals(0L, ref.get(20L).version());  // Not a member, unchanged
+        assertEquals(2L, ref.get(30L).version());
+        assertArrayEquals(new int[0], ref.get(15L).departmentIds());
+        assertEquals(1L, ref.get(15L).version());
+    }
+
+    @Test
+    public void testMerge_addedRowsAndGapsFoldedIntoColumns() {
+        LongStream.range(0, EmployeeReadTable.MERGE_THRESHOLD).forEach(i -> ref.put(row(100L + i, "Added", 0L)));
+        ref.remove(20L);
+        LongStream.range(0, EmployeeReadTable.MERGE_THRESHOLD).forEach(i -> ref.remove(100L + i));
+
+        assertEquals(2, ref.size());
+        assertEquals(List.of(10L, 30L), ids(ref.after(Long.MIN_VALUE, 10)));
+        ref.put(row(20L, "Bob", 1L));
+        assertEquals(List.of(10L, 20L, 30L), ids(ref.after(Long.MIN_VALUE, 10)));
+    }
+
+    private static EmployeeReadTable.Row row(long id, String nameFirst, long version) {
+        return new EmployeeReadTable.Row(id, nameFirst, "Tester", version, new int[0]);
+    }
+
+    private static List<Long> ids(List<EmployeeReadTable.Row> rows) {
+        return rows.stream().map(EmployeeReadTable.Row::id).toList();
+    }
+}
@@ -0,0 +1,141 @@
+package com.wtg.mohanbootcamp.service;
+
+import com.wtg.mohanbootcamp.persistence.Department;
+import com.wtg.mohanbootcamp.persistence.DepartmentRepository;
+import com.wtg.mohanbootcamp.persistence.Employee;
+import com.wtg.mohanbootcamp.persistence.EmployeeJdbcRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeSearchIndexTests {
+
+    private static final Long ID_DEPARTMENT_ORGANISATION = 1L;
+    private static final Long ID_DEPARTMENT_SALES = 2L;
+
+    private EmployeeSearchIndex ref;
+
+    @Mock
+    private EmployeeJdbcRepository mockEmployeeJdbcRepository;
+
+    @Mock
+    private DepartmentRepository mockDepartmentRepository;
+
+    private Department departmentOrganisation;
+    private Department departmentSales;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        departmentOrganisation = Department.builder().id(ID_DEPARTMENT_ORGANISATION).name("Organisation").readOnly(Boolean.TRUE).mandatory(Boolean.TRUE).build();
+        departmentSales = Department.builder().id(ID_DEPARTMENT_SALES).name("Sales").readOnly(Boolean.FALSE).mandatory(Boolean.FALSE).build();
+        List<Employee> employees = List.of(
+                employee(10L, "Anna", "Smith", departmentOrganisation, departmentSales),
+                employee(11L, "Smitty", "Jones", departmentOrganisation),
+                employee(12L, "Bob", "Smart", departmentOrganisation),
+                employee(13L, "Carl", "Brown", departmentOrganisation, departmentSales));
+
+        lenient().when(mockDepartmentRepository.findAll()).thenReturn(List.of(departmentOrganisation, departmentSales));
+        lenient().doAnswer(invocation -> {
+            employees.forEach(invocation.getArgument(0, Consumer.class));
+            return null;
+        }).when(mockEmployeeJdbcRepository).streamAllWithDepartments(any());
+
+        ref = new EmployeeSearchIndex(mockEmployeeJdbcRepository, mockDepartmentRepository, true);
+        ref.afterSingletonsInstantiated();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ref = null;
+        departmentOrganisation = null;
+        departmentSales = null;
+    }
+
+    @Test
+    public void testSearch_disabled_notLoaded() {
+        EmployeeSearchIndex disabled = new EmployeeSearchIndex(mockEmployeeJdbcRepository, mockDepartmentRepository, false);
+        disabled.afterSingletonsInstantiated();
+
+        assertFalse(disabled.isReady());
+        verify(mockEmployeeJdbcRepository, times(1)).streamAllWithDepartments(any());  // Only by the enabled index
+    }
+
+    @Test
+    public void testSearch_prefix_lastNameMatchesBeforeFirstNameMatches() {
+        List<EmployeeView> result = ref.search("Smi", null, 10);
+
+        assertTrue(ref.isReady());
+        assertEquals(List.of(10L, 11L), ids(result));
+        assertEquals(List.of("Organisation", "Sales"), result.get(0).getDepartments().stream().map(DepartmentView::getName).toList());
+    }
+
+    @Test
+    public void testSearch_limit_stopsAtLimit() {
+        assertEquals(List.of(12L, 10L), ids(ref.search("Sm", null, 2)));
+    }
+
+    @Test
+    public void testSearch_departmentOnly_membersByLastName() {
+        assertEquals(List.of(13L, 10L), ids(ref.search("", ID_DEPARTMENT_SALES, 10)));
+        assertEquals(List.of(), ref.search("", 99L, 10));
+    }
+
+    @Test
+    public void testOnEmployeeChanged_updatedAndDeleted_indexMaintained() {
+        ref.onEmployeeChanged(new EmployeeChangedEvent(11L, "Smitty", "Adams", 1L, Set.of(ID_DEPARTMENT_ORGANISATION), Set.of(ID_DEPARTMENT_ORGANISATION)));
+        ref.onEmployeeChanged(EmployeeChangedEvent.deleted(12L, Set.of(ID_DEPARTMENT_ORGANISATION)));
+
+        assertEquals(List.of(10L, 11L), ids(ref.search("Sm", null, 10)));
+        assertEquals(List.of(11L), ids(ref.search("Ad", null, 10)));
+        assertEquals(1L, ref.search("Ad", null, 10).get(0).getVersion());
+    }
+
+    @Test
+    public void testOnDepartmentChanged_deleted_membershipRemovedAndVersionBumped() {
+        ref.onDepartmentChanged(DepartmentChangedEvent.deleted(ID_DEPARTMENT_SALES, List.of(), 0));
+
+        assertEquals(List.of(), ref.search("", ID_DEPARTMENT_SALES, 10));
+        EmployeeView anna = ref.search("Anna", null, 10).get(0);
+        assertEquals(List.of(ID_DEPARTMENT_ORGANISATION), anna.getDepartments().stream().map(DepartmentView::getId).toList());
+        assertEquals(1L, anna.getVersion());
+    }
+
+    @Test
+    public void testOnDepartmentMembersChanged_addedAndRemoved_membershipAndVersionUpdated() {
+        ref.onDepartmentMembersChanged(new DepartmentMembersChangedEvent(ID_DEPARTMENT_SALES, true, List.of(11L, 12L), 0));
+        ref.onDepartmentMembersChanged(new DepartmentMembersChangedEvent(ID_DEPARTMENT_SALES, false, List.of(13L), 0));
+
+        assertEquals(List.of(11L, 12L, 10L), ids(ref.search("", ID_DEPARTMENT_SALES, 10)));
+        assertEquals(1L, ref.search("Bob", null, 1).get(0).getVersion());
+        assertEquals(1L, ref.search("Carl", null, 1).get(0).getVersion());
+    }
+
+    @Test
+    public void testOnDepartmentChanged_renamed_viewsUseNewName() {
+        departmentSales.setName("Field Sales");
+        ref.onDepartmentChanged(DepartmentChangedEvent.saved(departmentSales));
+
+        assertEquals("Field Sales", ref.search("Carl", null, 1).get(0).getDepartments().get(1).getName());
+    }
+
+    private static Employee employee(Long id, String nameFirst, String nameLast, Department... departments) {
+        return Employee.builder().id(id).nameFirst(nameFirst).nameLast(nameLast).version(0L).departments(new HashSet<>(Set.of(departments))).build();
+    }
+
+    private static List<Long> ids(List<EmployeeView> employees) {
+        return employees.stream().map(EmployeeView::getId).toList();
+    }
+}
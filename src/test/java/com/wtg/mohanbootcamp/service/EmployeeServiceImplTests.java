@@ -1,8 +1,12 @@
 package com.wtg.mohanbootcamp.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.wtg.mohanbootcamp.persistence.Department;
 import com.wtg.mohanbootcamp.persistence.DepartmentRepository;
 import com.wtg.mohanbootcamp.persistence.Employee;
+import com.wtg.mohanbootcamp.persistence.EmployeeJdbcRepository;
 import com.wtg.mohanbootcamp.persistence.EmployeeRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.AfterEach;
@@ -12,12 +16,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 
 import java.security.InvalidParameterException;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import static com.wtg.mohanbootcamp.service.DepartmentServiceImplTests.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -42,9 +52,27 @@ public class EmployeeServiceImplTests {
     @Mock
     private EmployeeRepository mockEmployeeRepository;
 
+    @Mock
+    private EmployeeJdbcRepository mockEmployeeJdbcRepository;
+
     @Mock
     private DepartmentRepository mockDepartmentRepository;
 
+    @Mock
+    private MandatoryDepartmentCache mockMandatoryDepartmentCache;
+
+    @Mock
+    private EmployeeSearchIndex mockEmployeeSearchIndex;
+
+    @Mock
+    private ApplicationEventPublisher mockApplicationEventPublisher;
+
+    @Mock
+    private EntityReadCoalescer mockEntityReadCoalescer;
+
+    @Mock
+    private EmployeeReadModel mockEmployeeReadModel;
+
     private Employee employeeExisting;
     private Employee employeeCreateRequest;
     private Employee employeeExistingUpdateRequest;
@@ -58,14 +86,14 @@ public class EmployeeServiceImplTests {
         setupEmployees();
 
         lenient().when(mockEmployeeRepository.findAll()).thenReturn(List.of(employeeExisting));
+        lenient().when(mockEntityReadCoalescer.getEmployeeView(anyLong(), any()))
+                .thenAnswer(invocation -> invocation.<Function<Long, EmployeeView>>getArgument(1).apply(invocation.getArgument(0)));
         lenient().when(mockEmployeeRepository.findById(ID_EMPLOYEE_EXISTING)).thenReturn(Optional.of(employeeExisting));
         lenient().when(mockEmployeeRepository.findById(ID_EMPLOYEE_NON_EXISTING)).thenReturn(Optional.empty());
-        lenient().when(mockEmployeeRepository.existsById(ID_EMPLOYEE_EXISTING)).thenReturn(Boolean.TRUE);
-        lenient().when(mockEmployeeRepository.existsById(ID_EMPLOYEE_NON_EXISTING)).thenReturn(Boolean.FALSE);
         lenient().when(mockEmployeeRepository.save(employeeCreateRequest)).thenReturn(employeeCreateRequest);
-        lenient().when(mockEmployeeRepository.save(employeeExistingUpdateRequest)).thenReturn(employeeExistingUpdateRequest);
+        lenient().when(mockEmployeeRepository.saveAndFlush(employeeExistingUpdateRequest)).thenReturn(employeeExistingUpdateRequest);
 
-        lenient().when(mockDepartmentRepository.findByMandatory(Boolean.TRUE)).thenReturn(List.of(departmentMandatory));
+        lenient().when(mockMandatoryDepartmentCache.getMandatoryDepartments()).thenReturn(List.of(departmentMandatory));
         lenient().when(mockDepartmentRepository.findAllById(Set.of(ID_DEPARTMENT_READONLY_NON_MANDATORY))).thenReturn(List.of(departmentNonMandatory));
 
     }
@@ -101,6 +129,110 @@ public class EmployeeServiceImplTests {
         assertTrue(result.contains(employeeExisting));
     }
 
+    @Test
+    public void testGetEmployeePage_moreRowsThanLimit_nextCursorReturned() {
+        when(mockEmployeeRepository.findIdsAfter(0L, Limit.of(2))).thenReturn(List.of(ID_EMPLOYEE_EXISTING, 2L));
+        when(mockEmployeeRepository.findWithDepartmentsByIdInOrderByIdAsc(List.of(ID_EMPLOYEE_EXISTING))).thenReturn(List.of(employeeExisting));
+
+        EmployeePage result = ref.getEmployeePage(null, 1);
+
+        assertEquals(1, result.getItems().size());
+        assertEquals(ID_EMPLOYEE_EXISTING, result.getItems().get(0).getId());
+        assertNotNull(result.getNextCursor());
+
+        ref.getEmployeePage(result.getNextCursor(), 1);
+        verify(mockEmployeeRepository, times(1)).findIdsAfter(ID_EMPLOYEE_EXISTING, Limit.of(2));
+    }
+
+    @Test
+    public void testGetEmployeePage_lastPage_noNextCursor() {
+        when(mockEmployeeRepository.findIdsAfter(0L, Limit.of(11))).thenReturn(List.of(ID_EMPLOYEE_EXISTING));
+        when(mockEmployeeRepository.findWithDepartmentsByIdInOrderByIdAsc(List.of(ID_EMPLOYEE_EXISTING))).thenReturn(List.of(employeeExisting));
+
+        EmployeePage result = ref.getEmployeePage(null, 10);
+
+        assertEquals(1, result.getItems().size());
+        assertEquals(NAME_DEPARTMENT_NOT_READONLY_MANDATORY, result.getItems().get(0).getDepartments().get(0).getName());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    public void testGetEmployeePage_limitOutOfRange_exception() {
+        InvalidParameterException exception = assertThrows(InvalidParameterException.class, () -> {
+            ref.getEmployeePage(null, 0);
+        });
+
+        assertEquals("Limit must be between 1 and 1000", exception.getMessage());
+    }
+
+    @Test
+    public void testGetEmployeePage_invalidCursor_exception() {
+        InvalidParameterException exception = assertThrows(InvalidParameterException.class, () -> {
+            ref.getEmployeePage("not-a-cursor", 10);
+        });
+
+        assertEquals("Invalid cursor", exception.getMessage());
+    }
+
+    @Test
+    public void testSearchEmployees_lastNameMatchesFillLimit_firstNamesNotQueried() {
+        when(mockEmployeeRepository.searchIdsByLastName("Sm%", Limit.of(1))).thenReturn(List.of(ID_EMPLOYEE_EXISTING));
+        when(mockEmployeeRepository.findWithDepartmentsByIdInOrderByIdAsc(List.of(ID_EMPLOYEE_EXISTING))).thenReturn(List.of(employeeExisting));
+
+        List<EmployeeView> result = ref.searchEmployees("Sm", null, 1);
+
+        assertEquals(1, result.size());
+        assertEquals(ID_EMPLOYEE_EXISTING, result.get(0).getId());
+        verify(mockEmployeeRepository, never()).searchIdsByFirstName(any(), any());
+    }
+
+    @Test
+    public void testSearchEmployees_firstNameMatchesAppendedAfterLastNameMatches() {
+        Employee firstNameMatch = Employee.builder().id(ID_EMPLOYEE_NON_EXISTING).nameFirst(NAME_FIRST_EMPLOYEE_NEW).nameLast(NAME_LAST_EMPLOYEE_NEW).departments(new HashSet<>()).build();
+        when(mockEmployeeRepository.searchIdsByLastNameInDepartment("a!%b!_c!!%", ID_DEPARTMENT_NOT_READONLY_MANDATORY, Limit.of(5))).thenReturn(List.of(ID_EMPLOYEE_EXISTING));
+        when(mockEmployeeRepository.searchIdsByFirstNameInDepartment("a!%b!_c!!%", ID_DEPARTMENT_NOT_READONLY_MANDATORY, Limit.of(4))).thenReturn(List.of(ID_EMPLOYEE_NON_EXISTING));
+        when(mockEmployeeRepository.findWithDepartmentsByIdInOrderByIdAsc(List.of(ID_EMPLOYEE_EXISTING, ID_EMPLOYEE_NON_EXISTING)))
+                .thenReturn(List.of(firstNameMatch, employeeExisting));
+
+        List<EmployeeView> result = ref.searchEmployees("a%b_c!", ID_DEPARTMENT_NOT_READONLY_MANDATORY, 5);
+
+        assertEquals(List.of(ID_EMPLOYEE_EXISTING, ID_EMPLOYEE_NON_EXISTING), result.stream().map(EmployeeView::getId).toList());
+    }
+
+    @Test
+    public void testSearchEmployees_indexReady_servedFromIndex() {
+        List<EmployeeView> indexed = List.of(EmployeeView.from(employeeExisting));
+        when(mockEmployeeSearchIndex.isReady()).thenReturn(Boolean.TRUE);
+        when(mockEmployeeSearchIndex.search("", ID_DEPARTMENT_NOT_READONLY_MANDATORY, 10)).thenReturn(indexed);
+
+        assertSame(indexed, ref.searchEmployees(null, ID_DEPARTMENT_NOT_READONLY_MANDATORY, 10));
+        verifyNoInteractions(mockEmployeeRepository);
+    }
+
+    @Test
+    public void testSearchEmployees_noCriteria_exception() {
+        InvalidParameterException exception = assertThrows(InvalidParameterException.class, () -> {
+            ref.searchEmployees("", null, 10);
+        });
+
+        assertEquals("Name or department is required", exception.getMessage());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testStreamAllEmployees_success() {
+        doAnswer(invocation -> {
+            invocation.getArgument(0, Consumer.class).accept(employeeExisting);
+            return null;
+        }).when(mockEmployeeJdbcRepository).streamAllWithDepartments(any());
+
+        List<EmployeeView> result = new ArrayList<>();
+        ref.streamAllEmployees(result::add);
+
+        assertEquals(1, result.size());
+        assertEquals(NAME_FIRST_EMPLOYEE_EXISTING, result.get(0).getNameFirst());
+    }
+
     @Test
     public void testCreateEmployee_validInput_noDepartmentsInRequest_success() {
         Employee result = ref.createEmployee(employeeCreateRequest);
@@ -108,6 +240,7 @@ public class EmployeeServiceImplTests {
         assertNotNull(result);
         assertEquals(NAME_FIRST_EMPLOYEE_NEW, result.getNameFirst());
         assertTrue(result.getDepartments().contains(departmentMandatory));  // Mandatory department is added
+        verify(mockDepartmentRepository, never()).findByMandatory(anyBoolean());
     }
 
     @Test
@@ -147,6 +280,27 @@ public class EmployeeServiceImplTests {
         assertEquals("Employee Not Found", exception.getMessage());
     }
 
+    @Test
+    public void testGetEmployeeView_employeeExist_success() {
+        when(mockEmployeeRepository.findWithDepartmentsById(ID_EMPLOYEE_EXISTING)).thenReturn(Optional.of(employeeExisting));
+
+        EmployeeView result = ref.getEmployeeView(ID_EMPLOYEE_EXISTING);
+
+        assertEquals(ID_EMPLOYEE_EXISTING, result.getId());
+        assertEquals(ID_DEPARTMENT_NOT_READONLY_MANDATORY, result.getDepartments().get(0).getId());
+    }
+
+    @Test
+    public void testGetEmployeeView_employeeDoesNotExist_exception() {
+        when(mockEmployeeRepository.findWithDepartmentsById(ID_EMPLOYEE_NON_EXISTING)).thenReturn(Optional.empty());
+
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () -> {
+            ref.getEmployeeView(ID_EMPLOYEE_NON_EXISTING);
+        });
+
+        assertEquals("Employee Not Found", exception.getMessage());
+    }
+
     @Test
     public void testUpdateEmployee_nonMandatoryDepartmentInRequest_success() {
         Employee result = ref.updateEmployee(employeeExistingUpdateRequest);
@@ -157,12 +311,107 @@ public class EmployeeServiceImplTests {
         assertTrue(result.getDepartments().contains(departmentMandatory));  // Mandatory department should still be present
     }
 
+    @Test
+    public void testUpdateEmployee_staleVersion_exception() {
+        employeeExisting.setVersion(2L);
+        employeeExistingUpdateRequest.setVersion(1L);
+
+        OptimisticLockingFailureException exception = assertThrows(OptimisticLockingFailureException.class, () -> {
+            ref.updateEmployee(employeeExistingUpdateRequest);
+        });
+
+        assertEquals("Employee has been modified, reload it and retry", exception.getMessage());
+        verify(mockEmployeeRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    public void testUpdateEmployee_noVersionInRequest_currentVersionUsed() {
+        employeeExisting.setVersion(2L);
+
+        Employee result = ref.updateEmployee(employeeExistingUpdateRequest);
+
+        assertEquals(2L, result.getVersion());
+    }
+
+    @Test
+    public void testPatchEmployee_lastNameOnly_departmentsNotLoaded() throws Exception {
+        employeeExisting.setVersion(3L);
+        when(mockEmployeeRepository.saveAndFlush(employeeExisting)).thenReturn(employeeExisting);
+
+        Employee result = ref.patchEmployee(ID_EMPLOYEE_EXISTING, patch("{\"nameLast\":\"" + NAME_LAST_EMPLOYEE_NEW + "\",\"version\":3}"));
+
+        assertEquals(NAME_FIRST_EMPLOYEE_EXISTING, result.getNameFirst());
+        assertEquals(NAME_LAST_EMPLOYEE_NEW, result.getNameLast());
+        assertEquals(Set.of(departmentMandatory), result.getDepartments());
+        verify(mockDepartmentRepository, never()).findAllById(any());
+        verify(mockApplicationEventPublisher, times(1)).publishEvent(any(EmployeeChangedEvent.class));
+    }
+
+    @Test
+    public void testPatchEmployee_departmentsReplaced_onlyJoiningLoadedAndMandatoryKept() throws Exception {
+        when(mockEmployeeRepository.saveAndFlush(employeeExisting)).thenReturn(employeeExisting);
+        Set<Department> departments = employeeExisting.getDepartments();
+
+        Employee result = ref.patchEmployee(ID_EMPLOYEE_EXISTING, patch("{\"departments\":[{\"id\":" + ID_DEPARTMENT_READONLY_NON_MANDATORY + "}]}"));
+
+        assertSame(departments, result.getDepartments());  // Changed in place, not replaced
+        assertEquals(Set.of(departmentMandatory, departmentNonMandatory), result.getDepartments());
+        verify(mockDepartmentRepository, times(1)).findAllById(Set.of(ID_DEPARTMENT_READONLY_NON_MANDATORY));
+    }
+
+    @Test
+    public void testPatchEmployee_unchanged_nothingWritten() throws Exception {
+        Employee result = ref.patchEmployee(ID_EMPLOYEE_EXISTING, patch("{\"nameFirst\":\"" + NAME_FIRST_EMPLOYEE_EXISTING + "\",\"departments\":[]}"));
+
+        assertSame(employeeExisting, result);
+        assertEquals(Set.of(departmentMandatory), result.getDepartments());
+        verify(mockEmployeeRepository, never()).saveAndFlush(any());
+        verify(mockApplicationEventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    public void testPatchEmployee_nullFirstName_exception() {
+        InvalidParameterException exception = assertThrows(InvalidParameterException.class, () -> {
+            ref.patchEmployee(ID_EMPLOYEE_EXISTING, patch("{\"nameFirst\":null}"));
+        });
+
+        assertEquals("First Name can't be null or empty", exception.getMessage());
+        assertEquals(NAME_FIRST_EMPLOYEE_EXISTING, employeeExisting.getNameFirst());
+        verify(mockEmployeeRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    public void testPatchEmployee_unknownFieldOrOtherId_exception() {
+        InvalidParameterException unknown = assertThrows(InvalidParameterException.class, () -> {
+            ref.patchEmployee(ID_EMPLOYEE_EXISTING, patch("{\"nameLats\":\"Typo\"}"));
+        });
+        InvalidParameterException otherId = assertThrows(InvalidParameterException.class, () -> {
+            ref.patchEmployee(ID_EMPLOYEE_EXISTING, patch("{\"id\":" + ID_EMPLOYEE_NON_EXISTING + "}"));
+        });
+
+        assertEquals("Unknown field in patch: nameLats", unknown.getMessage());
+        assertEquals("Id in patch does not match the path", otherId.getMessage());
+    }
+
+    @Test
+    public void testPatchEmployee_staleVersion_exception() {
+        employeeExisting.setVersion(2L);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> {
+            ref.patchEmployee(ID_EMPLOYEE_EXISTING, patch("{\"nameLast\":\"Stale\",\"version\":1}"));
+        });
+        verify(mockEmployeeRepository, never()).saveAndFlush(any());
+    }
+
     @Test
     public void testDeleteEmployee_employeeExist_success() {
         boolean result = ref.deleteEmployee(ID_EMPLOYEE_EXISTING);
 
         assertTrue(result);
-        verify(mockEmployeeRepository, times(1)).deleteById(ID_EMPLOYEE_EXISTING);
+        verify(mockEmployeeRepository, times(1)).delete(employeeExisting);
+        verify(mockApplicationEventPublisher, times(1)).publishEvent(argThat((EmployeeChangedEvent event) -> event.isDeleted()
+                && ID_EMPLOYEE_EXISTING.equals(event.getId())
+                && event.getPreviousDepartmentIds().equals(EmployeeChangedEvent.departmentIds(employeeExisting))));
     }
 
     @Test
@@ -173,4 +422,8 @@ public class EmployeeServiceImplTests {
 
         assertEquals("Employee Not Found", exception.getMessage());
     }
+
+    private static JsonNode patch(String json) throws JsonProcessingException {
+        return new ObjectMapper().readTree(json);
+    }
 }
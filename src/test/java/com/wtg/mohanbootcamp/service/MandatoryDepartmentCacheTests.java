@@ -0,0 +1,97 @@
+package com.wtg.mohanbootcamp.service;
+
+import com.wtg.mohanbootcamp.persistence.Department;
+import com.wtg.mohanbootcamp.persistence.DepartmentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static com.wtg.mohanbootcamp.service.DepartmentServiceImplTests.ID_DEPARTMENT_NOT_READONLY_MANDATORY;
+import static com.wtg.mohanbootcamp.service.DepartmentServiceImplTests.NAME_DEPARTMENT_NOT_READONLY_MANDATORY;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class MandatoryDepartmentCacheTests {
+
+    @InjectMocks
+    private MandatoryDepartmentCache ref;
+
+    @Mock
+    private DepartmentRepository mockDepartmentRepository;
+
+    private Department departmentMandatory;
+
+    @BeforeEach
+    public void setUp() {
+        departmentMandatory = Department.builder().id(ID_DEPARTMENT_NOT_READONLY_MANDATORY).name(NAME_DEPARTMENT_NOT_READONLY_MANDATORY).readOnly(Boolean.FALSE).mandatory(Boolean.TRUE).build();
+
+        lenient().when(mockDepartmentRepository.findByMandatory(Boolean.TRUE)).thenReturn(List.of(departmentMandatory));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        ref = null;
+        departmentMandatory = null;
+    }
+
+    @Test
+    public void testGetMandatoryDepartments_repeatedCalls_singleQuery() {
+        List<Department> first = ref.getMandatoryDepartments();
+        List<Department> second = ref.getMandatoryDepartments();
+
+        assertSame(first, second);
+        assertEquals(ID_DEPARTMENT_NOT_READONLY_MANDATORY, first.get(0).getId());
+        assertNotSame(departmentMandatory, first.get(0));  // Snapshot holds copies, not the loaded entities
+        assertThrows(UnsupportedOperationException.class, () -> first.add(departmentMandatory));
+        verify(mockDepartmentRepository, times(1)).findByMandatory(Boolean.TRUE);
+    }
+
+    @Test
+    public void testInvalidate_nextCallRebuilds() {
+        ref.getMandatoryDepartments();
+        ref.invalidate();
+        ref.getMandatoryDepartments();
+
+        verify(mockDepartmentRepository, times(2)).findByMandatory(Boolean.TRUE);
+    }
+
+    @Test
+    public void testInvalidateAfterCommit_transactionActive_deferredUntilCommit() {
+        ref.getMandatoryDepartments();
+        TransactionSynchronizationManager.initSynchronization();
+
+        ref.invalidateAfterCommit();
+        ref.getMandatoryDepartments();
+        verify(mockDepartmentRepository, times(1)).findByMandatory(Boolean.TRUE);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        ref.getMandatoryDepartments();
+        verify(mockDepartmentRepository, times(2)).findByMandatory(Boolean.TRUE);
+    }
+
+    @Test
+    public void testBindTo_countersExposed() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ref.bindTo(registry);
+
+        ref.getMandatoryDepartments();
+        ref.getMandatoryDepartments();
+
+        assertEquals(1.0, registry.get("mandatory.department.cache.requests").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("mandatory.department.cache.requests").tag("result", "miss").functionCounter().count());
+        assertEquals(1.0, registry.get("mandatory.department.cache.rebuilds").functionCounter().count());
+    }
+}
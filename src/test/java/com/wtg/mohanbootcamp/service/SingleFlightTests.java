@@ -0,0 +1,136 @@
+package com.wtg.mohanbootcamp.service;
+
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTests {
+
+    private static final int HERD = 50;
+
+    @Test
+    public void testGet_thunderingHerd_oneLoad() throws Exception {
+        SingleFlight<Long, String> ref = new SingleFlight<>(Duration.ZERO);
+        AtomicInteger databaseHits = new AtomicInteger();
+        AtomicInteger arrived = new AtomicInteger();
+
+        List<String> results = herd(() -> {
+            arrived.incrementAndGet();
+            return ref.get(1L, id -> {
+                databaseHits.incrementAndGet();
+                awaitAllWaiting(ref, arrived);
+                return "Employee " + id;
+            });
+        });
+
+        assertEquals(1, databaseHits.get());
+        assertEquals(HERD, results.size());
+        assertTrue(results.stream().allMatch("Employee 1"::equals));
+        assertEquals(1, ref.getLoads());
+        assertEquals(HERD - 1, ref.getShared());
+    }
+
+    @Test
+    public void testGet_noCoalescing_oneLoadPerCaller() throws Exception {
+        AtomicInteger databaseHits = new AtomicInteger();
+
+        herd(() -> {
+            databaseHits.incrementAndGet();
+            return "Employee 1";
+        });
+
+        assertEquals(HERD, databaseHits.get());
+    }
+
+    @Test
+    public void testGet_loaderFails_exceptionSharedAndNotKept() throws Exception {
+        SingleFlight<Long, String> ref = new SingleFlight<>(Duration.ofMinutes(1));
+        AtomicInteger arrived = new AtomicInteger();
+
+        List<Throwable> failures = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(HERD);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < HERD; i++) {
+                futures.add(executor.submit(() -> {
+                    arrived.incrementAndGet();
+                    return ref.get(1L, id -> {
+                        awaitAllWaiting(ref, arrived);
+                        throw new EntityNotFoundException("Employee Not Found");
+                    });
+                }));
+            }
+            for (Future<String> future : futures) {
+                failures.add(assertThrows(Exception.class, () -> future.get(10, TimeUnit.SECONDS)).getCause());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(failures.stream().allMatch(EntityNotFoundException.class::isInstance));
+        assertEquals("Employee 2", ref.get(2L, id -> "Employee " + id));
+        assertEquals("Found 1", ref.get(1L, id -> "Found " + id));
+    }
+
+    @Test
+    public void testGet_ttl_keptUntilInvalidated() {
+        SingleFlight<Long, String> ref = new SingleFlight<>(Duration.ofMinutes(1));
+        AtomicInteger databaseHits = new AtomicInteger();
+
+        ref.get(1L, id -> "v" + databaseHits.incrementAndGet());
+        assertEquals("v1", ref.get(1L, id -> "v" + databaseHits.incrementAndGet()));
+        assertEquals(1, ref.getCached());
+
+        ref.invalidate(1L);
+        assertEquals("v2", ref.get(1L, id -> "v" + databaseHits.incrementAndGet()));
+    }
+
+    @Test
+    public void testGet_invalidatedWhileLoading_resultNotKept() {
+        SingleFlight<Long, String> ref = new SingleFlight<>(Duration.ofMinutes(1));
+
+        assertEquals("stale", ref.get(1L, id -> {
+            ref.invalidate(id);
+            return "stale";
+        }));
+
+        assertEquals("fresh", ref.get(1L, id -> "fresh"));
+    }
+
+    private static List<String> herd(java.util.concurrent.Callable<String> request) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(HERD);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < HERD; i++) {
+                futures.add(executor.submit(request));
+            }
+            List<String> results = new ArrayList<>();
+            for (Future<String> future : futures) {
+                results.add(future.get(10, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Holds the load until every other caller has arrived and is waiting for it, as a slow query would.
+     */
+    private static void awaitAllWaiting(SingleFlight<Long, String> ref, AtomicInteger arrived) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ((arrived.get() < HERD || ref.getShared() < HERD - 1) && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+}